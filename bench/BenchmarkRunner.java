@@ -0,0 +1,138 @@
+import java.lang.management.*;
+import java.util.*;
+
+/**
+ * The BenchmarkRunner class is a small harness for the benchmarks in this directory.
+ * A benchmark is run over and over for a number of warm-up iterations, whose results are thrown away,
+ * 	and then for a number of measured iterations, each of which lasts at least a given amount of time.
+ * For every benchmark, the average time per operation and the number of bytes allocated per operation are printed.
+ * The allocation is read from the ThreadMXBean of the JVM, so only what the benchmark allocates on the calling thread is counted.
+ *
+ * @author gayeonpark
+ *
+ */
+public class BenchmarkRunner {
+
+	/**
+	 * The Benchmark interface is one operation to be measured.
+	 * The value it returns is kept so the JIT compiler cannot remove the work as dead code.
+	 */
+	interface Benchmark {
+		Object run() throws Exception;
+	}
+
+	private static volatile int sink; //represents the values returned by the benchmarks, so they are not optimized away
+
+	private int warmupIterations; //represents the number of iterations run before measuring
+	private int iterations; //represents the number of iterations measured
+	private long iterationNanos; //represents the minimum time of one iteration, in nanoseconds
+	private String filter; //represents the text the name of a benchmark has to contain to be run, or null to run every benchmark
+	private com.sun.management.ThreadMXBean threads; //represents the bean reporting the bytes allocated by a thread, or null if the JVM has none
+
+	/**
+	 * This constructor sets how the benchmarks are run.
+	 * @param warmupIterations is the number of iterations run before measuring
+	 * @param iterations is the number of iterations measured
+	 * @param iterationMillis is the minimum time of one iteration, in milliseconds
+	 * @param filter is the text the name of a benchmark has to contain to be run, or null to run every benchmark
+	 */
+	BenchmarkRunner(int warmupIterations, int iterations, long iterationMillis, String filter) {
+		this.warmupIterations = warmupIterations;
+		this.iterations = iterations;
+		this.iterationNanos = iterationMillis * 1000000L;
+		this.filter = filter;
+
+		ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+		if (bean instanceof com.sun.management.ThreadMXBean
+				&& ((com.sun.management.ThreadMXBean) bean).isThreadAllocatedMemorySupported()) {
+			threads = (com.sun.management.ThreadMXBean) bean;
+			threads.setThreadAllocatedMemoryEnabled(true);
+		}
+	}
+
+	/**
+	 * This method creates a runner from the command line arguments:
+	 * 	"--warmup" and "--iterations" followed by a number of iterations, "--time" followed by the milliseconds of one iteration,
+	 * 	and "--filter" followed by the text the name of a benchmark has to contain.
+	 * @param args are the command line arguments
+	 * @return the BenchmarkRunner
+	 */
+	static BenchmarkRunner fromArgs(String[] args) {
+		int warmupIterations = 3;
+		int iterations = 5;
+		long iterationMillis = 500;
+		String filter = null;
+		for (int i = 0; i + 1 < args.length; i += 2) {
+			if (args[i].equals("--warmup")) {
+				warmupIterations = Integer.parseInt(args[i + 1]);
+			} else if (args[i].equals("--iterations")) {
+				iterations = Integer.parseInt(args[i + 1]);
+			} else if (args[i].equals("--time")) {
+				iterationMillis = Long.parseLong(args[i + 1]);
+			} else if (args[i].equals("--filter")) {
+				filter = args[i + 1];
+			}
+		}
+		return new BenchmarkRunner(warmupIterations, Math.max(1, iterations), iterationMillis, filter);
+	}
+
+	/**
+	 * This method prints the header of the table of results.
+	 */
+	void printHeader() {
+		System.out.printf("%-48s %14s %16s%n", "benchmark", "time/op (us)", "alloc/op (bytes)");
+	}
+
+	/**
+	 * This method runs the benchmark 'benchmark' and prints its results, unless its name does not match the filter.
+	 * @param name is the name of the benchmark, including its parameters
+	 * @param benchmark is the operation to measure
+	 * @throws Exception if the benchmark fails
+	 */
+	void measure(String name, Benchmark benchmark) throws Exception {
+		if (filter != null && !name.contains(filter)) {
+			return;
+		}
+
+		for (int i = 0; i < warmupIterations; i ++) {
+			iteration(benchmark);
+		}
+
+		long operations = 0;
+		long nanos = 0;
+		long bytes = 0;
+		for (int i = 0; i < iterations; i ++) {
+			long[] result = iteration(benchmark);
+			operations += result[0];
+			nanos += result[1];
+			bytes += result[2];
+		}
+
+		String alloc = threads == null ? "n/a" : String.format("%d", bytes / operations);
+		System.out.printf("%-48s %14.2f %16s%n", name, nanos / 1000.0 / operations, alloc);
+	}
+
+	/**
+	 * This method runs the benchmark for at least the time of one iteration.
+	 * @param benchmark is the operation to measure
+	 * @return an array holding the number of operations run, the time taken in nanoseconds, and the bytes allocated
+	 * @throws Exception if the benchmark fails
+	 */
+	private long[] iteration(Benchmark benchmark) throws Exception {
+		long thread = Thread.currentThread().getId();
+		long operations = 0;
+		int hash = 0;
+		long allocatedBefore = threads == null ? 0 : threads.getThreadAllocatedBytes(thread);
+		long start = System.nanoTime();
+		long elapsed;
+		do {
+			hash += Objects.hashCode(benchmark.run());
+			operations ++;
+			elapsed = System.nanoTime() - start;
+		} while (elapsed < iterationNanos);
+		long allocated = threads == null ? 0 : threads.getThreadAllocatedBytes(thread) - allocatedBefore;
+		sink += hash;
+		return new long[] {operations, elapsed, allocated};
+	}
+
+}
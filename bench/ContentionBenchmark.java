@@ -0,0 +1,152 @@
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.*;
+
+/**
+ * The ContentionBenchmark class measures how the live Banker's algorithm scales with the number of client threads,
+ * 	comparing the ResourceService, which keeps its whole state under one lock, with the lock-striped ConcurrentBanker.
+ * Usage: java ContentionBenchmark [--threads N] [--resources R] [--time milliseconds] [--pattern independent|shared]
+ * For 1, 2, 4, ... up to N client threads, every thread drives one task of its own that keeps requesting 1 unit twice
+ * 	and then releasing both.
+ * 	With the "independent" pattern (the default), each task only claims the resource type of its thread (modulo R),
+ * 	so the threads of different resource types never need the same units.
+ * 	With the "shared" pattern, every task claims every resource type and picks the resource type of each request at random.
+ * There are always enough units for every task to hold its whole claim, so a request only waits while it is being checked.
+ * For every number of threads, the number of request/release rounds per second of both managers are printed,
+ * 	along with the share of the grants of the ConcurrentBanker that did not have to lock every stripe.
+ *
+ * @author gayeonpark
+ *
+ */
+public class ContentionBenchmark {
+
+	/**
+	 * The Client interface is the part of a live Banker's algorithm the benchmark uses.
+	 */
+	interface Client {
+		void initiate(int task, int[] claims);
+		void request(int task, int resourceType, int units) throws InterruptedException;
+		void release(int task, int resourceType, int units);
+		void terminate(int task);
+	}
+
+	/**
+	 * This main method runs the benchmark for every number of threads.
+	 * @param args are the command line arguments passed in when running this Java program
+	 * @throws Exception if a client thread fails
+	 */
+	public static void main(String[] args) throws Exception {
+		int maxThreads = Runtime.getRuntime().availableProcessors();
+		int numResources = 8;
+		long millis = 1000;
+		boolean shared = false;
+		for (int i = 0; i + 1 < args.length; i += 2) {
+			if (args[i].equals("--threads")) {
+				maxThreads = Integer.parseInt(args[i + 1]);
+			} else if (args[i].equals("--resources")) {
+				numResources = Integer.parseInt(args[i + 1]);
+			} else if (args[i].equals("--time")) {
+				millis = Long.parseLong(args[i + 1]);
+			} else if (args[i].equals("--pattern")) {
+				shared = args[i + 1].equals("shared");
+			}
+		}
+
+		System.out.printf("pattern %s, %d resource types, %d ms per run%n", shared ? "shared" : "independent", numResources, millis);
+		System.out.printf("%8s %22s %22s %12s%n", "threads", "one lock (rounds/s)", "striped (rounds/s)", "optimistic");
+		//1, 2, 4, ... threads, and then the maximum number of threads
+		ArrayList<Integer> threadCounts = new ArrayList<>();
+		for (int threads = 1; threads < maxThreads; threads *= 2) {
+			threadCounts.add(threads);
+		}
+		threadCounts.add(maxThreads);
+
+		for (int threads: threadCounts) {
+			int[] units = new int[numResources];
+			Arrays.fill(units, 2 * threads);
+
+			//warm up both managers, and then measure them
+			ResourceService service = new ResourceService(ResourceService.Policy.BANKER, threads, units);
+			Client locked = new Client() {
+				public void initiate(int task, int[] claims) { service.initiate(task, claims); }
+				public void request(int task, int resourceType, int units) throws InterruptedException { service.request(task, resourceType, units); }
+				public void release(int task, int resourceType, int units) { service.release(task, resourceType, units); }
+				public void terminate(int task) { service.terminate(task); }
+			};
+			ConcurrentBanker banker = new ConcurrentBanker(threads, units);
+			Client striped = new Client() {
+				public void initiate(int task, int[] claims) { banker.initiate(task, claims); }
+				public void request(int task, int resourceType, int units) throws InterruptedException { banker.request(task, resourceType, units); }
+				public void release(int task, int resourceType, int units) { banker.release(task, resourceType, units); }
+				public void terminate(int task) { banker.terminate(task); }
+			};
+			run(locked, threads, numResources, shared, millis / 2);
+			run(striped, threads, numResources, shared, millis / 2);
+			long before = banker.getOptimisticGrants() + banker.getLockedGrants();
+			long optimisticBefore = banker.getOptimisticGrants();
+
+			double lockedRate = run(locked, threads, numResources, shared, millis);
+			double stripedRate = run(striped, threads, numResources, shared, millis);
+			long grants = banker.getOptimisticGrants() + banker.getLockedGrants() - before;
+			long optimistic = banker.getOptimisticGrants() - optimisticBefore;
+			System.out.printf("%8d %22.0f %22.0f %11.1f%%%n", threads, lockedRate, stripedRate, 100.0 * optimistic / Math.max(1, grants));
+		}
+	}
+
+	/**
+	 * This method runs 'threads' client threads against the manager for 'millis' milliseconds.
+	 * Each thread initiates its task, runs request/request/release rounds until the time is up, and terminates its task.
+	 * @param client is the manager
+	 * @param threads is the number of client threads
+	 * @param numResources is the number of resource types
+	 * @param shared is true if every task uses every resource type, false if each task uses the resource type of its thread
+	 * @param millis is the time to run, in milliseconds
+	 * @return the number of rounds per second over all the threads
+	 * @throws Exception if a client thread fails
+	 */
+	private static double run(Client client, int threads, int numResources, boolean shared, long millis) throws Exception {
+		AtomicLong rounds = new AtomicLong();
+		AtomicBoolean stop = new AtomicBoolean();
+		CountDownLatch start = new CountDownLatch(1);
+		ExecutorService pool = Executors.newFixedThreadPool(threads);
+		List<Future<?>> futures = new ArrayList<>();
+		for (int i = 0; i < threads; i ++) {
+			int task = i + 1;
+			futures.add(pool.submit(() -> {
+				int own = 1 + (task - 1) % numResources;
+				int[] claims = new int[numResources];
+				if (shared) {
+					Arrays.fill(claims, 2);
+				} else {
+					claims[own - 1] = 2;
+				}
+				SplittableRandom random = new SplittableRandom(task);
+				client.initiate(task, claims);
+				start.await();
+				long done = 0;
+				while (!stop.get()) {
+					int resourceType = shared ? 1 + random.nextInt(numResources) : own;
+					client.request(task, resourceType, 1);
+					client.request(task, resourceType, 1);
+					client.release(task, resourceType, 2);
+					done ++;
+				}
+				client.terminate(task);
+				rounds.addAndGet(done);
+				return null;
+			}));
+		}
+
+		long begin = System.nanoTime();
+		start.countDown();
+		Thread.sleep(millis);
+		stop.set(true);
+		for (Future<?> future: futures) {
+			future.get();
+		}
+		long elapsed = System.nanoTime() - begin;
+		pool.shutdown();
+		return rounds.get() * 1e9 / elapsed;
+	}
+
+}
@@ -0,0 +1,98 @@
+import java.io.*;
+import java.util.*;
+
+/**
+ * The GrantPolicyReport class compares the grant policies of the Optimistic resource manager on made-up workloads
+ * 	in which many requests have to wait.
+ * Usage: java GrantPolicyReport [--tasks N] [--resources R] [--units U] [--seeds S]
+ * The workloads are written by the TraceGenerator with the "independent" pattern, requests for the whole remaining claim,
+ * 	and U units of each resource type (one and a half times the number of tasks by default),
+ * 	so the tasks keep waiting for each other;
+ * 	one workload is made for every seed from 1 to S.
+ * Every policy is run on every workload, and so is a priority-class policy that serves the odd-numbered tasks first.
+ * For each policy, the results over all the workloads are added up and printed as in the output of the lab:
+ * 	the total time and the waiting time of the tasks that finished, and the percentage of the time spent waiting,
+ * 	along with the mean turnaround (the time a finished task took), the longest turnaround, and the tasks aborted.
+ *
+ * @author gayeonpark
+ *
+ */
+public class GrantPolicyReport {
+
+	//the policies compared, by their names
+	private static final String[] POLICIES = {"fifo", "shortest-remaining", "smallest-request", "aging"};
+
+	/**
+	 * This main method makes up the workloads, runs every policy on them, and prints the table.
+	 * @param args are the command line arguments passed in when running this Java program
+	 * @throws IOException if a workload cannot be written or read
+	 */
+	public static void main(String[] args) throws IOException {
+		int numTasks = 200;
+		int numResources = 4;
+		int units = -1;
+		int seeds = 5;
+		for (int i = 0; i + 1 < args.length; i += 2) {
+			if (args[i].equals("--tasks")) {
+				numTasks = Integer.parseInt(args[i + 1]);
+			} else if (args[i].equals("--resources")) {
+				numResources = Integer.parseInt(args[i + 1]);
+			} else if (args[i].equals("--units")) {
+				units = Integer.parseInt(args[i + 1]);
+			} else if (args[i].equals("--seeds")) {
+				seeds = Integer.parseInt(args[i + 1]);
+			}
+		}
+		if (units < 0) {
+			units = numTasks * 3 / 2;
+		}
+
+		ArrayList<Workload> workloads = new ArrayList<>();
+		for (int seed = 1; seed <= seeds; seed ++) {
+			File input = File.createTempFile("grant-policy-report", ".txt");
+			input.deleteOnExit();
+			TraceGenerator.main(new String[] {"--tasks", "" + numTasks, "--resources", "" + numResources, "--units", "" + units,
+					"--requests", "all", "--max-delay", "3", "--seed", "" + seed, input.getPath()});
+			workloads.add(Workload.parse(input));
+		}
+
+		//the odd-numbered tasks are in the first class, and the even-numbered ones in the second
+		int[] classes = new int[numTasks];
+		for (int i = 0; i < numTasks; i ++) {
+			classes[i] = i % 2;
+		}
+		LinkedHashMap<String, GrantPolicy> policies = new LinkedHashMap<>();
+		for (String name: POLICIES) {
+			policies.put(name, GrantPolicy.forName(name));
+		}
+		policies.put("priority(odd first)", GrantPolicy.priorityClasses(classes));
+
+		System.out.printf("%d workloads of %d tasks, %d resource types of %d units%n", seeds, numTasks, numResources, units);
+		System.out.printf("%-20s %10s %10s %7s %11s %9s %8s%n", "policy", "total", "waiting", "wait%", "turnaround", "longest", "aborted");
+		for (Map.Entry<String, GrantPolicy> policy: policies.entrySet()) {
+			long totalTime = 0;
+			long waitingTime = 0;
+			long finished = 0;
+			long longest = 0;
+			long aborted = 0;
+			for (Workload workload: workloads) {
+				OptimisticManager manager = new OptimisticManager(workload);
+				manager.setGrantPolicy(policy.getValue());
+				manager.run();
+				for (Task t: manager.tasksFinalized) {
+					if (t.isAborted()) {
+						aborted ++;
+					} else {
+						finished ++;
+						totalTime += t.getTimeTerminated();
+						waitingTime += t.getWaitTime();
+						longest = Math.max(longest, t.getTimeTerminated());
+					}
+				}
+			}
+			System.out.printf("%-20s %10d %10d %6.1f%% %11.1f %9d %8d%n", policy.getKey(), totalTime, waitingTime,
+					100.0 * waitingTime / Math.max(1, totalTime), (double) totalTime / Math.max(1, finished), longest, aborted);
+		}
+	}
+
+}
@@ -0,0 +1,233 @@
+import java.io.*;
+import java.util.*;
+import java.util.function.*;
+
+/**
+ * The ManagerBenchmarks class is the benchmark suite of the resource managers, run with the BenchmarkRunner.
+ * Usage: java ManagerBenchmarks [--warmup N] [--iterations N] [--time milliseconds] [--filter text]
+ * It measures:
+ * 	the whole simulation of the Optimistic resource manager and of the Banker's algorithm
+ * 	 for every combination of the numbers of tasks, the numbers of resource types, and the delay distributions below;
+ * 	parsing an input file, and loading the same input compiled into a binary trace;
+ * 	the safety check of the Banker's algorithm;
+ * 	the deadlock resolution of the Optimistic resource manager.
+ * The workloads are made up from a fixed seed, so every run measures the same work.
+ * 	They are written out as text inputs and parsed, just like the inputs of a simulation.
+ *
+ * @author gayeonpark
+ *
+ */
+public class ManagerBenchmarks {
+
+	private static final int[] TASK_COUNTS = {10, 100, 1000}; //represents the numbers of tasks of the simulation benchmarks
+	private static final int[] RESOURCE_COUNTS = {1, 4}; //represents the numbers of resource types of the simulation benchmarks
+	private static final String[] DELAYS = {"none", "uniform", "bursty"}; //represents the delay distributions of the simulation benchmarks
+	private static final long SEED = 42; //represents the seed of the random workloads
+
+	/**
+	 * This main method runs every benchmark matching the filter.
+	 * @param args are the command line arguments passed in when running this Java program
+	 * @throws Exception if a benchmark fails
+	 */
+	public static void main(String[] args) throws Exception {
+		BenchmarkRunner runner = BenchmarkRunner.fromArgs(args);
+		runner.printHeader();
+
+		//the whole simulation
+		for (int numTasks: TASK_COUNTS) {
+			for (int numResources: RESOURCE_COUNTS) {
+				for (String delays: DELAYS) {
+					Workload workload = randomWorkload(numTasks, numResources, delays, SEED);
+					String params = String.format("(tasks=%d, resources=%d, delays=%s)", numTasks, numResources, delays);
+					runner.measure("fifo" + params, () -> {
+						OptimisticManager manager = new OptimisticManager(workload);
+						manager.run();
+						return manager.cycle;
+					});
+					runner.measure("banker" + params, () -> {
+						BankerManager manager = new BankerManager(workload);
+						manager.run();
+						return manager.cycle;
+					});
+				}
+			}
+		}
+
+		//parsing
+		File input = writeInput(out -> writeRandomInput(out, 1000, 4, "uniform", SEED));
+		runner.measure(String.format("parse(bytes=%d)", input.length()), () -> Workload.parse(input));
+		File compiled = File.createTempFile("manager-benchmarks", ".trace");
+		compiled.deleteOnExit();
+		CompiledTrace.compile(input, compiled);
+		runner.measure(String.format("loadCompiled(bytes=%d)", compiled.length()), () -> Workload.parse(compiled).createTasks());
+
+		//the safety check
+		for (int numTasks: TASK_COUNTS) {
+			benchmarkSafetyCheck(runner, numTasks, 4);
+		}
+
+		//the deadlock resolution
+		for (int numTasks: TASK_COUNTS) {
+			Workload workload = deadlockWorkload(numTasks);
+			runner.measure(String.format("deadlockResolution(tasks=%d)", numTasks), () -> {
+				OptimisticManager manager = new OptimisticManager(workload);
+				manager.run();
+				return manager.events.size();
+			});
+		}
+	}
+
+	/**
+	 * This method measures the safety check of the Banker's algorithm while every task holds part of its claim.
+	 * Each operation grants one more unit to a task if it is safe, and takes it back, so the state is the same after every operation.
+	 * @param runner is the BenchmarkRunner
+	 * @param numTasks is the number of tasks
+	 * @param numResources is the number of resource types
+	 * @throws Exception if the benchmark fails
+	 */
+	private static void benchmarkSafetyCheck(BenchmarkRunner runner, int numTasks, int numResources) throws Exception {
+		//every task claims 2 units of each resource type and holds 1 of them,
+		// and there is 1 unit more than the tasks hold, so any single task can finish
+		ArrayList<Task> tasks = new ArrayList<>();
+		int[] available = new int[numResources];
+		Arrays.fill(available, 1);
+		for (int t = 0; t < numTasks; t ++) {
+			Task task = new Task(t, numResources);
+			for (int r = 0; r < numResources; r ++) {
+				task.setClaim(r, 2);
+			}
+			tasks.add(task);
+		}
+		SafetyChecker safety = new SafetyChecker(tasks, numResources);
+		for (int t = 0; t < numTasks; t ++) {
+			for (int r = 0; r < numResources; r ++) {
+				safety.update(t, r, 1, 1);
+			}
+		}
+
+		int[] next = {0};
+		runner.measure(String.format("safetyCheck(tasks=%d, resources=%d)", numTasks, numResources), () -> {
+			int t = next[0];
+			next[0] = (t + 1) % numTasks;
+			boolean granted = safety.tryGrant(t, 0, 1, available);
+			if (granted) {
+				safety.update(t, 0, 1, 1);
+			}
+			return granted;
+		});
+	}
+
+	/**
+	 * This method makes up a workload from the seed given (see writeRandomInput()).
+	 * @param numTasks is the number of tasks
+	 * @param numResources is the number of resource types
+	 * @param delays is the delay distribution: "none" (every delay is 0), "uniform" (between 0 and 4), or "bursty" (mostly 0, sometimes 20)
+	 * @param seed is the seed of the random numbers
+	 * @return the Workload
+	 * @throws IOException if the input cannot be written or read
+	 */
+	static Workload randomWorkload(int numTasks, int numResources, String delays, long seed) throws IOException {
+		return Workload.parse(writeInput(out -> writeRandomInput(out, numTasks, numResources, delays, seed)));
+	}
+
+	/**
+	 * This method makes up a workload that deadlocks right away (see writeDeadlockInput()).
+	 * @param numTasks is the number of tasks
+	 * @return the Workload
+	 * @throws IOException if the input cannot be written or read
+	 */
+	static Workload deadlockWorkload(int numTasks) throws IOException {
+		return Workload.parse(writeInput(out -> writeDeadlockInput(out, numTasks)));
+	}
+
+	/**
+	 * This method writes an input to a temporary file, which is deleted when the JVM exits.
+	 * @param writer writes the input
+	 * @return the file
+	 * @throws IOException if the file cannot be written
+	 */
+	private static File writeInput(Consumer<PrintWriter> writer) throws IOException {
+		File input = File.createTempFile("manager-benchmarks", ".txt");
+		input.deleteOnExit();
+		try (PrintWriter out = new PrintWriter(new BufferedWriter(new FileWriter(input)))) {
+			writer.accept(out);
+		}
+		return input;
+	}
+
+	/**
+	 * This method writes a made-up input from the seed given.
+	 * Every task claims between 1 and 5 units of each resource type, and there are as many units of each resource type as tasks, plus 5.
+	 * Each task then makes 4 requests of some of its remaining claim, each followed by a release of some of what it holds, and terminates.
+	 * @param out is where the input is written
+	 * @param numTasks is the number of tasks
+	 * @param numResources is the number of resource types
+	 * @param delays is the delay distribution
+	 * @param seed is the seed of the random numbers
+	 */
+	private static void writeRandomInput(PrintWriter out, int numTasks, int numResources, String delays, long seed) {
+		Random random = new Random(seed);
+		out.print(numTasks + " " + numResources);
+		for (int r = 0; r < numResources; r ++) {
+			out.print(" " + (numTasks + 5));
+		}
+		out.println();
+
+		for (int t = 1; t <= numTasks; t ++) {
+			int[] claims = new int[numResources];
+			int[] held = new int[numResources];
+			for (int r = 0; r < numResources; r ++) {
+				claims[r] = 1 + random.nextInt(5);
+				out.printf("initiate  %d 0 %d %d%n", t, r + 1, claims[r]);
+			}
+			for (int round = 0; round < 4; round ++) {
+				int r = random.nextInt(numResources);
+				if (held[r] < claims[r]) {
+					int amount = 1 + random.nextInt(claims[r] - held[r]);
+					out.printf("request   %d %d %d %d%n", t, delay(random, delays), r + 1, amount);
+					held[r] += amount;
+				}
+				if (held[r] > 0) {
+					int amount = 1 + random.nextInt(held[r]);
+					out.printf("release   %d %d %d %d%n", t, delay(random, delays), r + 1, amount);
+					held[r] -= amount;
+				}
+			}
+			out.printf("terminate %d %d 0 0%n", t, delay(random, delays));
+		}
+	}
+
+	/**
+	 * This method writes an input that deadlocks right away:
+	 * 	there is 1 unit for each task of a single resource type, and every task requests 1 unit and then 1 more.
+	 * So after every task has its first unit, tasks are aborted one at a time until the rest can go on.
+	 * @param out is where the input is written
+	 * @param numTasks is the number of tasks
+	 */
+	private static void writeDeadlockInput(PrintWriter out, int numTasks) {
+		out.println(numTasks + " 1 " + numTasks);
+		for (int t = 1; t <= numTasks; t ++) {
+			out.println("initiate  " + t + " 0 1 2");
+			out.println("request   " + t + " 0 1 1");
+			out.println("request   " + t + " 0 1 1");
+			out.println("release   " + t + " 0 1 2");
+			out.println("terminate " + t + " 0 0 0");
+		}
+	}
+
+	/**
+	 * This method returns a delay drawn from the distribution given.
+	 * @param random is the source of random numbers
+	 * @param delays is the delay distribution
+	 * @return the delay
+	 */
+	private static int delay(Random random, String delays) {
+		if (delays.equals("uniform")) {
+			return random.nextInt(5);
+		} else if (delays.equals("bursty")) {
+			return random.nextInt(10) == 0 ? 20 : 0;
+		}
+		return 0;
+	}
+
+}
@@ -0,0 +1,177 @@
+import java.io.*;
+import java.util.*;
+
+/**
+ * The ParserBenchmark class measures how fast the input is parsed by Workload.parse (which uses an InputReader)
+ * 	compared to the parser it replaced, which read the tokens with a java.util.Scanner.
+ * Usage: java ParserBenchmark [input file] [number of rounds]
+ * 	If no input file is given, a temporary input with 20000 tasks is written and used.
+ * Each parser reads the whole file once to warm up, and then the given number of rounds (5 by default) are timed.
+ *
+ * @author gayeonpark
+ *
+ */
+public class ParserBenchmark {
+
+	/**
+	 * This main method runs the benchmark and prints the throughput of each parser.
+	 * @param args are the command line arguments passed in when running this Java program
+	 * @throws IOException if the input cannot be written or read
+	 */
+	public static void main(String[] args) throws IOException {
+		File input;
+		if (args.length > 0) {
+			input = new File(args[0]);
+		} else {
+			input = File.createTempFile("parser-benchmark", ".txt");
+			input.deleteOnExit();
+			writeInput(input, 20000, 3, 50);
+		}
+		int rounds = args.length > 1 ? Integer.parseInt(args[1]) : 5;
+		double megabytes = input.length() / (1024.0 * 1024.0);
+
+		System.out.printf("input %s, %.1f MB, %d rounds%n", input.getPath(), megabytes, rounds);
+
+		//warm up both parsers, and make sure they read the same thing
+		Workload scanned = parseWithScanner(input);
+		Workload read = Workload.parse(input);
+		if (!sameWorkload(scanned, read)) {
+			System.out.println("The parsers do not agree!");
+		}
+
+		long scannerTime = 0;
+		long readerTime = 0;
+		for (int round = 0; round < rounds; round ++) {
+			long start = System.nanoTime();
+			parseWithScanner(input);
+			scannerTime += System.nanoTime() - start;
+
+			start = System.nanoTime();
+			Workload.parse(input);
+			readerTime += System.nanoTime() - start;
+		}
+
+		report("Scanner", scannerTime, rounds, megabytes);
+		report("InputReader", readerTime, rounds, megabytes);
+		System.out.printf("speedup %.1fx%n", scannerTime / (double) readerTime);
+	}
+
+	/**
+	 * This method reads the input the way Workload.parse used to, with a java.util.Scanner,
+	 * 	into parallel arrays that are then laid out as a compiled trace (see CompiledTrace.build()).
+	 * @param input is the file containing the input
+	 * @return the parsed Workload
+	 * @throws FileNotFoundException if the file does not exist
+	 */
+	static Workload parseWithScanner(File input) throws FileNotFoundException {
+		Scanner sc = new Scanner(input);
+		int numTasks = sc.nextInt();
+		int numResources = sc.nextInt();
+		int[] units = new int[numResources];
+		for (int i = 0; i < numResources; i ++) {
+			units[i] = sc.nextInt();
+		}
+
+		byte[] types = new byte[16];
+		int[] tasks = new int[16];
+		int[] delays = new int[16];
+		int[] resources = new int[16];
+		int[] amounts = new int[16];
+		int numActivities = 0;
+		while (sc.hasNext()) {
+			if (numActivities == types.length) {
+				types = Arrays.copyOf(types, numActivities * 2);
+				tasks = Arrays.copyOf(tasks, numActivities * 2);
+				delays = Arrays.copyOf(delays, numActivities * 2);
+				resources = Arrays.copyOf(resources, numActivities * 2);
+				amounts = Arrays.copyOf(amounts, numActivities * 2);
+			}
+			types[numActivities] = Task.toActivityType(sc.next());
+			tasks[numActivities] = sc.nextInt();
+			delays[numActivities] = sc.nextInt();
+			resources[numActivities] = sc.nextInt();
+			amounts[numActivities] = sc.nextInt();
+			numActivities ++;
+		}
+		sc.close();
+		return new Workload(CompiledTrace.build(numTasks, units, numActivities, types, tasks, delays, resources, amounts));
+	}
+
+	/**
+	 * This method checks if two workloads have the same tasks, units, and activities.
+	 * @param a is a Workload
+	 * @param b is another Workload
+	 * @return true if they are the same
+	 */
+	private static boolean sameWorkload(Workload a, Workload b) {
+		if (a.getNumTasks() != b.getNumTasks() || a.getNumResources() != b.getNumResources()) {
+			return false;
+		}
+		for (int r = 0; r < a.getNumResources(); r ++) {
+			if (a.getUnits(r) != b.getUnits(r)) {
+				return false;
+			}
+		}
+		ArrayList<Task> tasksA = a.createTasks();
+		ArrayList<Task> tasksB = b.createTasks();
+		for (int t = 0; t < tasksA.size(); t ++) {
+			Task ta = tasksA.get(t);
+			Task tb = tasksB.get(t);
+			if (ta.getActivitiesLeft() != tb.getActivitiesLeft()) {
+				return false;
+			}
+			while (ta.getActivitiesLeft() > 0) {
+				if (ta.getActivityType() != tb.getActivityType() || ta.getActivityDelay() != tb.getActivityDelay()
+						|| ta.getActivityResource() != tb.getActivityResource() || ta.getActivityAmount() != tb.getActivityAmount()) {
+					return false;
+				}
+				ta.nextActivity();
+				tb.nextActivity();
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * This method writes an input in which every task initiates every resource type,
+	 * 	then requests and releases one unit of a resource type 'pairs' times, and terminates.
+	 * @param output is the file to write
+	 * @param numTasks is the number of tasks
+	 * @param numResources is the number of resource types
+	 * @param pairs is the number of request/release pairs of each task
+	 * @throws IOException if the file cannot be written
+	 */
+	private static void writeInput(File output, int numTasks, int numResources, int pairs) throws IOException {
+		try (PrintWriter out = new PrintWriter(new BufferedWriter(new FileWriter(output)))) {
+			out.print(numTasks + " " + numResources);
+			for (int r = 0; r < numResources; r ++) {
+				out.print(" " + numTasks);
+			}
+			out.println();
+			for (int t = 1; t <= numTasks; t ++) {
+				for (int r = 1; r <= numResources; r ++) {
+					out.println("initiate  " + t + " 0 " + r + " 1");
+				}
+				for (int p = 0; p < pairs; p ++) {
+					int r = 1 + p % numResources;
+					out.println("request   " + t + " " + (p % 3) + " " + r + " 1");
+					out.println("release   " + t + " 0 " + r + " 1");
+				}
+				out.println("terminate " + t + " 0 0 0");
+			}
+		}
+	}
+
+	/**
+	 * This method prints the average time and the throughput of a parser.
+	 * @param parser is the name of the parser
+	 * @param nanos is the total time of all the rounds, in nanoseconds
+	 * @param rounds is the number of rounds
+	 * @param megabytes is the size of the input in megabytes
+	 */
+	private static void report(String parser, long nanos, int rounds, double megabytes) {
+		double seconds = nanos / 1e9 / rounds;
+		System.out.printf("%-12s %8.1f ms %8.1f MB/s%n", parser, seconds * 1000, megabytes / seconds);
+	}
+
+}
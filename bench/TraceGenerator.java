@@ -0,0 +1,297 @@
+import java.io.*;
+import java.util.*;
+
+/**
+ * The TraceGenerator class writes made-up input files in the input format of the lab:
+ * 	T (the number of tasks), R (the number of resource types), R values (the units of each resource type),
+ * 	and then the activities of every task, one task after the other.
+ * The activities of a task are made up and written before the next task is looked at,
+ * 	so only the claims and holdings of one task are ever kept in memory, and files of any size can be written.
+ * The same options and seed always give the same file.
+ * Every file is valid: no claim is more than the units of its resource type, no task requests more than its remaining claim,
+ * 	and no task releases more than it holds.
+ *
+ * Usage: java TraceGenerator [options] [output file]
+ * 	(the file is written to standard output if no output file is given)
+ * 	--tasks N        the number of tasks (1000 by default)
+ * 	--resources R    the number of resource types (3 by default)
+ * 	--units U        the units of each resource type (the maximum claim by default)
+ * 	--max-claim C    the largest claim of a task for a resource type (10 by default)
+ * 	--claims D       the claim distribution: "uniform" (between 1 and the maximum claim, the default) or "max" (always the maximum claim)
+ * 	--rounds K       the number of request/release rounds of each task (4 by default)
+ * 	--requests D     the request distribution: "uniform" (between 1 and the remaining claim, the default) or "all" (the whole remaining claim)
+ * 	--max-delay M    the largest delay of an activity (0 by default)
+ * 	--delays D       the delay distribution: "uniform" (between 0 and the maximum delay, the default) or "bursty" (mostly 0, one in ten is the maximum delay)
+ * 	--pattern P      "independent" (each round requests and releases one resource type, the default)
+ * 	                 or "deadlock" (each round requests two resource types, in opposite orders for odd and even tasks, before releasing them)
+ * 	--pools P        the number of disjoint pools the resource types are split into (1 by default):
+ * 	                 task t only uses the resource types of pool (t - 1) % P, so the tasks of different pools never meet (see TaskComponents)
+ * 	--seed S         the seed of the random numbers (0 by default)
+ *
+ * @author gayeonpark
+ *
+ */
+public class TraceGenerator {
+
+	//the activity types as they are written in the input, indexed by their opcode
+	private static final byte[][] KEYWORDS = {
+			"initiate ".getBytes(), "request ".getBytes(), "release ".getBytes(), "terminate ".getBytes() };
+
+	private int numTasks = 1000; //represents the number of tasks
+	private int numResources = 3; //represents the number of resource types
+	private int units = -1; //represents the units of each resource type, or -1 to use the maximum claim
+	private int maxClaim = 10; //represents the largest claim of a task for a resource type
+	private boolean maxClaims = false; //represents if every claim is the maximum claim
+	private int rounds = 4; //represents the number of request/release rounds of each task
+	private boolean requestAll = false; //represents if every request is for the whole remaining claim
+	private int maxDelay = 0; //represents the largest delay of an activity
+	private boolean burstyDelays = false; //represents if the delays are mostly 0, and sometimes the maximum delay
+	private boolean deadlockPattern = false; //represents if each round holds two resource types at once, in opposite orders
+	private int pools = 1; //represents the number of disjoint pools of resource types
+	private long seed = 0; //represents the seed of the random numbers
+
+	private OutputStream out; //represents where the file is written
+	private byte[] buffer = new byte[1 << 16]; //represents the bytes not written to 'out' yet
+	private int length = 0; //represents the number of bytes in the buffer
+
+	/**
+	 * This main method reads the options and writes the file.
+	 * @param args are the command line arguments passed in when running this Java program
+	 * @throws IOException if the file cannot be written
+	 */
+	public static void main(String[] args) throws IOException {
+		TraceGenerator generator = new TraceGenerator();
+		String output = null;
+		try {
+			for (int i = 0; i < args.length; i ++) {
+				switch (args[i]) {
+				case "--tasks": generator.numTasks = Integer.parseInt(args[++ i]); break;
+				case "--resources": generator.numResources = Integer.parseInt(args[++ i]); break;
+				case "--units": generator.units = Integer.parseInt(args[++ i]); break;
+				case "--max-claim": generator.maxClaim = Integer.parseInt(args[++ i]); break;
+				case "--claims": generator.maxClaims = choose(args[++ i], "uniform", "max"); break;
+				case "--rounds": generator.rounds = Integer.parseInt(args[++ i]); break;
+				case "--requests": generator.requestAll = choose(args[++ i], "uniform", "all"); break;
+				case "--max-delay": generator.maxDelay = Integer.parseInt(args[++ i]); break;
+				case "--delays": generator.burstyDelays = choose(args[++ i], "uniform", "bursty"); break;
+				case "--pattern": generator.deadlockPattern = choose(args[++ i], "independent", "deadlock"); break;
+				case "--pools": generator.pools = Integer.parseInt(args[++ i]); break;
+				case "--seed": generator.seed = Long.parseLong(args[++ i]); break;
+				default: output = args[i];
+				}
+			}
+			if (generator.units < 0) {
+				generator.units = generator.maxClaim;
+			}
+			if (generator.numTasks < 1 || generator.numResources < 1 || generator.maxClaim < 1
+					|| generator.units < generator.maxClaim || generator.rounds < 0 || generator.maxDelay < 0
+					|| generator.pools < 1 || generator.pools > generator.numResources) {
+				throw new IllegalArgumentException("the numbers are out of range"
+						+ " (the units must be at least the maximum claim, and there must be a resource type in every pool)");
+			}
+		} catch (ArrayIndexOutOfBoundsException | IllegalArgumentException e) {
+			System.err.println("Invalid options: " + e.getMessage());
+			System.err.println("Usage: java TraceGenerator [--tasks N] [--resources R] [--units U] [--max-claim C] [--claims uniform|max]"
+					+ " [--rounds K] [--requests uniform|all] [--max-delay M] [--delays uniform|bursty] [--pattern independent|deadlock]"
+					+ " [--pools P] [--seed S] [output file]");
+			System.exit(1);
+		}
+
+		try (OutputStream stream = output == null ? System.out : new FileOutputStream(output)) {
+			generator.write(stream);
+		}
+	}
+
+	/**
+	 * This method checks that 'value' is one of two choices.
+	 * @param value is the value given
+	 * @param first is the first choice
+	 * @param second is the second choice
+	 * @return false for the first choice, true for the second one
+	 * @throws IllegalArgumentException if 'value' is neither
+	 */
+	private static boolean choose(String value, String first, String second) {
+		if (value.equals(first)) {
+			return false;
+		} else if (value.equals(second)) {
+			return true;
+		}
+		throw new IllegalArgumentException("expected " + first + " or " + second + " but got " + value);
+	}
+
+	/**
+	 * This method writes the whole file to 'stream'.
+	 * @param stream is where the file is written
+	 * @throws IOException if the file cannot be written
+	 */
+	void write(OutputStream stream) throws IOException {
+		out = stream;
+		SplittableRandom random = new SplittableRandom(seed);
+
+		//the first line: T, R, and the units of each resource type
+		writeInt(numTasks);
+		writeByte(' ');
+		writeInt(numResources);
+		for (int r = 0; r < numResources; r ++) {
+			makeRoom(12);
+			writeByte(' ');
+			writeInt(units);
+		}
+		writeByte('\n');
+
+		//the claims and holdings of the task being written, used again for every task
+		int[] claims = new int[numResources];
+		int[] held = new int[numResources];
+
+		for (int t = 1; t <= numTasks; t ++) {
+			//a blank line between tasks, as in the sample inputs
+			makeRoom(1);
+			writeByte('\n');
+			//the resource types of the pool of the task, from 'low' up to (but not including) 'high'
+			int pool = (t - 1) % pools;
+			int low = (int) ((long) pool * numResources / pools);
+			int high = (int) ((long) (pool + 1) * numResources / pools);
+			for (int r = low; r < high; r ++) {
+				claims[r] = maxClaims ? maxClaim : 1 + random.nextInt(maxClaim);
+				held[r] = 0;
+				writeActivity(Task.INITIATE, t, 0, r + 1, claims[r]);
+			}
+
+			for (int round = 0; round < rounds; round ++) {
+				int first = low + random.nextInt(high - low);
+				if (deadlockPattern && high - low > 1) {
+					//hold two resource types at once, taken in opposite orders by odd and even tasks
+					int second = low + (first - low + 1) % (high - low);
+					if (t % 2 == 0) {
+						int swap = first;
+						first = second;
+						second = swap;
+					}
+					writeRequest(random, t, first, claims, held);
+					writeRequest(random, t, second, claims, held);
+					writeRelease(random, t, first, held);
+					writeRelease(random, t, second, held);
+				} else {
+					writeRequest(random, t, first, claims, held);
+					writeRelease(random, t, first, held);
+				}
+			}
+			writeActivity(Task.TERMINATE, t, delay(random), 0, 0);
+		}
+
+		out.write(buffer, 0, length);
+		length = 0;
+		out.flush();
+	}
+
+	/**
+	 * This method writes a request for some of the remaining claim of the task for the resource type 'r', if there is any left.
+	 * @param random is the source of random numbers
+	 * @param t is the task-number
+	 * @param r is the index of the resource type
+	 * @param claims is the claim of the task for each resource type
+	 * @param held is the units of each resource type the task holds
+	 * @throws IOException if the file cannot be written
+	 */
+	private void writeRequest(SplittableRandom random, int t, int r, int[] claims, int[] held) throws IOException {
+		int remaining = claims[r] - held[r];
+		if (remaining > 0) {
+			int amount = requestAll ? remaining : 1 + random.nextInt(remaining);
+			writeActivity(Task.REQUEST, t, delay(random), r + 1, amount);
+			held[r] += amount;
+		}
+	}
+
+	/**
+	 * This method writes a release of some of the units the task holds of the resource type 'r', if it holds any.
+	 * @param random is the source of random numbers
+	 * @param t is the task-number
+	 * @param r is the index of the resource type
+	 * @param held is the units of each resource type the task holds
+	 * @throws IOException if the file cannot be written
+	 */
+	private void writeRelease(SplittableRandom random, int t, int r, int[] held) throws IOException {
+		if (held[r] > 0) {
+			int amount = 1 + random.nextInt(held[r]);
+			writeActivity(Task.RELEASE, t, delay(random), r + 1, amount);
+			held[r] -= amount;
+		}
+	}
+
+	/**
+	 * This method returns a delay drawn from the delay distribution.
+	 * @param random is the source of random numbers
+	 * @return the delay
+	 */
+	private int delay(SplittableRandom random) {
+		if (maxDelay == 0) {
+			return 0;
+		} else if (burstyDelays) {
+			return random.nextInt(10) == 0 ? maxDelay : 0;
+		}
+		return random.nextInt(maxDelay + 1);
+	}
+
+	/**
+	 * This method writes one activity line.
+	 * @param type is the opcode of the activity type
+	 * @param t is the task-number
+	 * @param delay is the delay
+	 * @param resourceType is the resource type, i.e. resource type 1 is given as 1
+	 * @param amount is the claim, or the number of units requested/released
+	 * @throws IOException if the file cannot be written
+	 */
+	private void writeActivity(byte type, int t, int delay, int resourceType, int amount) throws IOException {
+		byte[] keyword = KEYWORDS[type];
+		makeRoom(keyword.length + 48);
+		System.arraycopy(keyword, 0, buffer, length, keyword.length);
+		length += keyword.length;
+		writeInt(t);
+		writeByte(' ');
+		writeInt(delay);
+		writeByte(' ');
+		writeInt(resourceType);
+		writeByte(' ');
+		writeInt(amount);
+		writeByte('\n');
+	}
+
+	/**
+	 * This method writes the buffer to 'out' if it does not have room for 'bytes' more bytes.
+	 * @param bytes is the number of bytes about to be put in the buffer
+	 * @throws IOException if the file cannot be written
+	 */
+	private void makeRoom(int bytes) throws IOException {
+		if (length + bytes > buffer.length) {
+			out.write(buffer, 0, length);
+			length = 0;
+		}
+	}
+
+	/**
+	 * This method writes the digits of an unsigned integer into the buffer, without making a String.
+	 * The buffer is expected to have room for it.
+	 * @param value is the integer
+	 */
+	private void writeInt(int value) {
+		int digits = 1;
+		for (int v = value; v >= 10; v /= 10) {
+			digits ++;
+		}
+		for (int i = length + digits - 1; i >= length; i --) {
+			buffer[i] = (byte) ('0' + value % 10);
+			value /= 10;
+		}
+		length += digits;
+	}
+
+	/**
+	 * This method writes one byte into the buffer.
+	 * The buffer is expected to have room for it.
+	 * @param b is the byte
+	 */
+	private void writeByte(char b) {
+		buffer[length ++] = (byte) b;
+	}
+
+}
@@ -0,0 +1,92 @@
+import java.io.*;
+import java.util.*;
+
+/**
+ * The VictimPolicyReport class compares the victim policies of the Optimistic resource manager on made-up workloads that deadlock.
+ * Usage: java VictimPolicyReport [--tasks N] [--resources R] [--units U] [--seeds S]
+ * The workloads are written by the TraceGenerator with the "deadlock" pattern (each task holds two resource types at once,
+ * 	taken in opposite orders by odd and even tasks), with U units of each resource type (as many as the tasks by default),
+ * 	and one workload is made for every seed from 1 to S.
+ * Every policy is run on every workload, both when deadlocks are only detected when no task can make progress
+ * 	and when deadlocks among a subset of the tasks are detected.
+ * For each policy, the results over all the workloads are added up and printed:
+ * 	the tasks aborted, the tasks that finished, the total time and the waiting time of the tasks that finished,
+ * 	the mean turnaround (the time a finished task took), and the throughput (the tasks finished per 1000 cycles).
+ *
+ * @author gayeonpark
+ *
+ */
+public class VictimPolicyReport {
+
+	//the policies compared, by their names
+	private static final String[] POLICIES = {"lowest-index", "fewest-units-held", "least-progress", "youngest", "unblocks-most"};
+
+	/**
+	 * This main method makes up the workloads, runs every policy on them, and prints the table.
+	 * @param args are the command line arguments passed in when running this Java program
+	 * @throws IOException if a workload cannot be written or read
+	 */
+	public static void main(String[] args) throws IOException {
+		int numTasks = 200;
+		int numResources = 4;
+		int units = -1;
+		int seeds = 5;
+		for (int i = 0; i + 1 < args.length; i += 2) {
+			if (args[i].equals("--tasks")) {
+				numTasks = Integer.parseInt(args[i + 1]);
+			} else if (args[i].equals("--resources")) {
+				numResources = Integer.parseInt(args[i + 1]);
+			} else if (args[i].equals("--units")) {
+				units = Integer.parseInt(args[i + 1]);
+			} else if (args[i].equals("--seeds")) {
+				seeds = Integer.parseInt(args[i + 1]);
+			}
+		}
+
+		if (units < 0) {
+			units = numTasks;
+		}
+
+		ArrayList<Workload> workloads = new ArrayList<>();
+		for (int seed = 1; seed <= seeds; seed ++) {
+			File input = File.createTempFile("victim-policy-report", ".txt");
+			input.deleteOnExit();
+			TraceGenerator.main(new String[] {"--tasks", "" + numTasks, "--resources", "" + numResources, "--units", "" + units,
+					"--pattern", "deadlock", "--max-delay", "2", "--seed", "" + seed, input.getPath()});
+			workloads.add(Workload.parse(input));
+		}
+
+		System.out.printf("%d workloads of %d tasks, %d resource types of %d units (deadlock pattern)%n", seeds, numTasks, numResources, units);
+		for (boolean subsetDeadlocks: new boolean[] {false, true}) {
+			System.out.println();
+			System.out.println(subsetDeadlocks ? "deadlocks among a subset of the tasks" : "deadlocks when no task can make progress");
+			System.out.printf("%-18s %8s %8s %10s %10s %7s %11s %11s%n",
+					"policy", "aborted", "finished", "total", "waiting", "wait%", "turnaround", "throughput");
+			for (String name: POLICIES) {
+				long aborted = 0;
+				long finished = 0;
+				long totalTime = 0;
+				long waitingTime = 0;
+				long cycles = 0;
+				for (Workload workload: workloads) {
+					OptimisticManager manager = new OptimisticManager(workload, subsetDeadlocks);
+					manager.setVictimPolicy(VictimPolicy.forName(name));
+					manager.run();
+					cycles += manager.cycle;
+					for (Task t: manager.tasksFinalized) {
+						if (t.isAborted()) {
+							aborted ++;
+						} else {
+							finished ++;
+							totalTime += t.getTimeTerminated();
+							waitingTime += t.getWaitTime();
+						}
+					}
+				}
+				System.out.printf("%-18s %8d %8d %10d %10d %6.1f%% %11.1f %11.2f%n", name, aborted, finished, totalTime, waitingTime,
+						100.0 * waitingTime / Math.max(1, totalTime), (double) totalTime / Math.max(1, finished), 1000.0 * finished / cycles);
+			}
+		}
+	}
+
+}
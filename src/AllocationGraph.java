@@ -0,0 +1,372 @@
+import java.io.*;
+import java.util.*;
+
+/**
+ * The AllocationGraph class is the resource-allocation graph of the Optimistic resource manager.
+ * It has an assignment edge for the units of each resource type a task holds, and a request edge for the pending request of a task.
+ * 	A request is only pending while it is blocked: a request still counting its delay down has its units there, so it has no edge
+ * 	(and the edge of a blocked request is withdrawn if its units come back before its delay is over).
+ * The manager tells it about every request, grant, release, termination, and abort as they happen,
+ * 	so the graph never has to be rebuilt from the Tasks.
+ * The request edges of each resource type are kept in a binary heap of primitive keys ordered by the number of units requested,
+ * 	so the smallest pending request of a resource type is always known, and an edge is added or removed without boxing anything.
+ * A deadlock is found by reducing the graph: a task that has no pending request, or whose request fits in the free units, can finish,
+ * 	and then the units it holds become free as well. The tasks that can never be reduced are exactly the deadlocked ones.
+ * The reduction is not incremental: each one starts over from the current graph (see findDeadlocked()),
+ * 	so it is only run when a request edge has been added since the last one, i.e. when a task has become blocked.
+ *
+ * @author gayeonpark
+ *
+ */
+public class AllocationGraph {
+
+	private int numResources; //represents the number of resource types
+	private int[] allocation; //represents the units of each resource type held by each task (the assignment edges), R values per task
+	private int[] requestResource; //represents the resource type of the pending request of each task, or -1 if there is none
+	private int[] requestAmount; //represents the units of the pending request of each task
+	private long[][] requests; //represents the request edges into each resource type, as (units, task) keys in a binary min-heap
+	private int[] numRequests; //represents the number of request edges into each resource type
+	private int[] heapPosition; //represents the position of the request edge of each task in the heap of its resource type
+	private BitSet live; //represents the tasks that are neither terminated nor aborted
+	private boolean changed; //represents if a request edge has been added since the last check for a deadlock
+
+	/**
+	 * This constructor creates a graph with no edges for 'numTasks' tasks.
+	 * @param numTasks is the number of tasks
+	 * @param numResources is the number of resource types
+	 */
+	AllocationGraph(int numTasks, int numResources) {
+		this.numResources = numResources;
+		allocation = new int[numTasks * numResources];
+		requestResource = new int[numTasks];
+		Arrays.fill(requestResource, -1);
+		requestAmount = new int[numTasks];
+		requests = new long[numResources][8];
+		numRequests = new int[numResources];
+		heapPosition = new int[numTasks];
+		live = new BitSet(numTasks);
+		live.set(0, numTasks);
+		changed = false;
+	}
+
+	/**
+	 * This method adds a request edge from the task 't' to the resource type 'r', unless the task already has one.
+	 * @param t is the index of the task
+	 * @param r is the index of the resource type
+	 * @param amount is the number of units requested
+	 */
+	public void request(int t, int r, int amount) {
+		if (requestResource[t] != -1) {
+			return;
+		}
+		requestResource[t] = r;
+		requestAmount[t] = amount;
+		addRequest(r, key(amount, t));
+		changed = true;
+	}
+
+	/**
+	 * This method turns the request edge of the task 't' into units held.
+	 * @param t is the index of the task
+	 * @param r is the index of the resource type
+	 * @param amount is the number of units granted
+	 */
+	public void grant(int t, int r, int amount) {
+		removeRequest(t);
+		allocation[t * numResources + r] += amount;
+	}
+
+	/**
+	 * This method records the units of the resource type 'r' held by the task 't' after a release.
+	 * @param t is the index of the task
+	 * @param r is the index of the resource type
+	 * @param held is the number of units the task still holds
+	 */
+	public void release(int t, int r, int held) {
+		allocation[t * numResources + r] = held;
+	}
+
+	/**
+	 * This method removes the task 't' and all of its edges since it terminated or has been aborted.
+	 * @param t is the index of the task
+	 */
+	public void remove(int t) {
+		removeRequest(t);
+		Arrays.fill(allocation, t * numResources, (t + 1) * numResources, 0);
+		live.clear(t);
+	}
+
+	/**
+	 * This method makes the task 't' live again, holding nothing, after it has been removed.
+	 * @param t is the index of the task
+	 */
+	public void admit(int t) {
+		live.set(t);
+	}
+
+	/**
+	 * This method removes the request edge of the task 't' without granting it, i.e. the task stopped waiting.
+	 * @param t is the index of the task
+	 */
+	public void withdraw(int t) {
+		removeRequest(t);
+	}
+
+	/**
+	 * This method returns the indices of the tasks that are neither terminated nor aborted.
+	 * @return the BitSet of the live tasks, which must not be changed
+	 */
+	public BitSet liveTasks() {
+		return live;
+	}
+
+	/**
+	 * This method writes the request edges to 'out', for a checkpoint.
+	 * The assignment edges and the live tasks are not written, since they are the units held by the tasks that are still running.
+	 * @param out is where the edges are written
+	 * @throws IOException if the edges cannot be written
+	 */
+	public void writeState(DataOutput out) throws IOException {
+		for (int t = 0; t < requestResource.length; t ++) {
+			out.writeInt(requestResource[t]);
+			out.writeInt(requestAmount[t]);
+		}
+		out.writeBoolean(changed);
+	}
+
+	/**
+	 * This method rebuilds the graph from the tasks and the request edges written by writeState().
+	 * @param in is where the request edges are read from
+	 * @param tasks is the list of all the tasks, ordered by their index
+	 * @param active is the indices of the tasks that are still running
+	 * @throws IOException if the edges cannot be read
+	 */
+	public void readState(DataInput in, ArrayList<Task> tasks, BitSet active) throws IOException {
+		Arrays.fill(numRequests, 0);
+		live.clear();
+		live.or(active);
+		for (int t = 0; t < requestResource.length; t ++) {
+			for (int r = 0; r < numResources; r ++) {
+				allocation[t * numResources + r] = active.get(t) ? tasks.get(t).getUnitsHeld(r) : 0;
+			}
+			requestResource[t] = -1;
+			int r = in.readInt();
+			int amount = in.readInt();
+			if (r != -1) {
+				request(t, r, amount);
+			}
+		}
+		changed = in.readBoolean();
+	}
+
+	/**
+	 * This method checks if any pending request fits in the units that are free.
+	 * Only the smallest pending request of each resource type has to be looked at.
+	 * @param available is the units of each resource type available
+	 * @param returned is the units of each resource type returned, which are available next cycle
+	 * @return true if at least one pending request can be granted
+	 */
+	public boolean canAnyRequestProceed(int[] available, int[] returned) {
+		for (int r = 0; r < numResources; r ++) {
+			if (numRequests[r] > 0 && amountOf(requests[r][0]) <= available[r] + returned[r]) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * This method tells if a request edge has been added since the last call to findDeadlocked.
+	 * Otherwise no new deadlock can have formed, since granting, releasing, and removing only make the graph easier to reduce.
+	 * @return true if the graph has to be checked again
+	 */
+	public boolean hasChanged() {
+		return changed;
+	}
+
+	/**
+	 * This method reduces the graph to find the deadlocked tasks.
+	 * Every live task without a pending request is reduced first.
+	 * Reducing a task frees the units it holds, and then every pending request of those resource types that now fits is reduced as well,
+	 * 	in ascending order of the units requested, until no more task can be reduced.
+	 * Nothing is kept from the previous reduction: the request edges of every resource type are copied out of their heaps and sorted,
+	 * 	and every live task is looked at, so each call takes O(E log E + T * R) time for E request edges, T tasks and R resource types.
+	 * @param available is the units of each resource type available
+	 * @param returned is the units of each resource type returned, which are available next cycle
+	 * @return a BitSet of the indices of the deadlocked tasks, which is empty if there is no deadlock
+	 */
+	public BitSet findDeadlocked(int[] available, int[] returned) {
+		changed = false;
+
+		long[] work = new long[numResources];
+		long[][] waiting = new long[numResources][]; //represents the request edges of each resource type, in ascending order
+		int[] next = new int[numResources]; //represents the first request edge of each resource type not reduced yet
+		for (int r = 0; r < numResources; r ++) {
+			work[r] = available[r] + returned[r];
+			waiting[r] = Arrays.copyOf(requests[r], numRequests[r]);
+			Arrays.sort(waiting[r]);
+		}
+
+		//the tasks that can be reduced, but have not handed back their units yet
+		int[] queue = new int[live.cardinality()];
+		int head = 0;
+		int tail = 0;
+		for (int t = live.nextSetBit(0); t >= 0; t = live.nextSetBit(t + 1)) {
+			if (requestResource[t] == -1) {
+				queue[tail ++] = t;
+			}
+		}
+		for (int r = 0; r < numResources; r ++) {
+			tail = reduceRequests(r, work, waiting, next, queue, tail);
+		}
+
+		while (head < tail) {
+			int t = queue[head ++];
+			for (int r = 0; r < numResources; r ++) {
+				if (allocation[t * numResources + r] > 0) {
+					work[r] += allocation[t * numResources + r];
+					tail = reduceRequests(r, work, waiting, next, queue, tail);
+				}
+			}
+		}
+
+		//every pending request that has not been reduced belongs to a deadlocked task
+		BitSet deadlocked = new BitSet();
+		for (int r = 0; r < numResources; r ++) {
+			for (int i = next[r]; i < waiting[r].length; i ++) {
+				deadlocked.set(taskOf(waiting[r][i]));
+			}
+		}
+		return deadlocked;
+	}
+
+	/**
+	 * This method adds to the queue every pending request of the resource type 'r' that fits in 'work' and has not been reduced yet.
+	 * @param r is the index of the resource type
+	 * @param work is the units of each resource type free during the reduction
+	 * @param waiting is the request edges of each resource type, in ascending order
+	 * @param next is the first request edge of each resource type not reduced yet
+	 * @param queue is the tasks that can be reduced
+	 * @param tail is the number of tasks added to the queue so far
+	 * @return the new number of tasks added to the queue
+	 */
+	private int reduceRequests(int r, long[] work, long[][] waiting, int[] next, int[] queue, int tail) {
+		while (next[r] < waiting[r].length && amountOf(waiting[r][next[r]]) <= work[r]) {
+			queue[tail ++] = taskOf(waiting[r][next[r]]);
+			next[r] ++;
+		}
+		return tail;
+	}
+
+	/**
+	 * This method removes the request edge of the task 't', if it has one.
+	 * @param t is the index of the task
+	 */
+	private void removeRequest(int t) {
+		int r = requestResource[t];
+		if (r == -1) {
+			return;
+		}
+		requestResource[t] = -1;
+
+		//the last edge of the heap takes the place of the removed one, and is moved up or down to where it belongs
+		int i = heapPosition[t];
+		long last = requests[r][-- numRequests[r]];
+		if (i < numRequests[r]) {
+			siftDown(r, siftUp(r, i, last), last);
+		}
+	}
+
+	/**
+	 * This method adds the request edge 'key' to the heap of the resource type 'r'.
+	 * @param r is the index of the resource type
+	 * @param key is the key of the request edge
+	 */
+	private void addRequest(int r, long key) {
+		if (numRequests[r] == requests[r].length) {
+			requests[r] = Arrays.copyOf(requests[r], requests[r].length * 2);
+		}
+		siftUp(r, numRequests[r] ++, key);
+	}
+
+	/**
+	 * This method moves the request edge 'key', which is to be placed at the position 'i' of the heap of the resource type 'r',
+	 * 	up past every parent with a larger key, and places it there.
+	 * @param r is the index of the resource type
+	 * @param i is the position the edge is placed at
+	 * @param key is the key of the request edge
+	 * @return the position the edge is placed at
+	 */
+	private int siftUp(int r, int i, long key) {
+		long[] heap = requests[r];
+		while (i > 0 && heap[(i - 1) / 2] > key) {
+			place(heap, i, heap[(i - 1) / 2]);
+			i = (i - 1) / 2;
+		}
+		place(heap, i, key);
+		return i;
+	}
+
+	/**
+	 * This method moves the request edge 'key', which is placed at the position 'i' of the heap of the resource type 'r',
+	 * 	down past every child with a smaller key.
+	 * @param r is the index of the resource type
+	 * @param i is the position of the edge
+	 * @param key is the key of the request edge
+	 */
+	private void siftDown(int r, int i, long key) {
+		long[] heap = requests[r];
+		int size = numRequests[r];
+		for (int child = 2 * i + 1; child < size; child = 2 * i + 1) {
+			if (child + 1 < size && heap[child + 1] < heap[child]) {
+				child ++;
+			}
+			if (heap[child] >= key) {
+				break;
+			}
+			place(heap, i, heap[child]);
+			i = child;
+		}
+		place(heap, i, key);
+	}
+
+	/**
+	 * This method puts the request edge 'key' at the position 'i' of 'heap', and remembers the position for its task.
+	 * @param heap is the heap of a resource type
+	 * @param i is the position
+	 * @param key is the key of the request edge
+	 */
+	private void place(long[] heap, int i, long key) {
+		heap[i] = key;
+		heapPosition[taskOf(key)] = i;
+	}
+
+	/**
+	 * This method returns the key of a request edge, which orders the edges by the units requested and then by the index of the task.
+	 * @param amount is the number of units requested
+	 * @param t is the index of the task
+	 * @return the key
+	 */
+	private static long key(int amount, int t) {
+		return ((long) amount << 32) | t;
+	}
+
+	/**
+	 * This method returns the units requested by a request edge.
+	 * @param key is the key of the request edge
+	 * @return the number of units
+	 */
+	private static int amountOf(long key) {
+		return (int) (key >>> 32);
+	}
+
+	/**
+	 * This method returns the task of a request edge.
+	 * @param key is the key of the request edge
+	 * @return the index of the task
+	 */
+	private static int taskOf(long key) {
+		return (int) key;
+	}
+
+}
@@ -0,0 +1,540 @@
+import java.io.*;
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * The BankerManager class runs the Banker's algorithm of Dijkstra:
+ * 	a request is granted only if there are enough units for it and the state after granting it is safe.
+ * 	A task whose initial claim exceeds the units present, or whose request exceeds its claim, is aborted.
+ * The safety checks of a cycle can be run on several threads (see setCheckThreads()), in two phases:
+ * 	at the start of the cycle, every request that will be checked is checked against the state at that time, on a pool of threads,
+ * 	and then the tasks are visited in the usual order, each one using the answer found for it as long as it still holds
+ * 	(see tryGrant()), and checking its request again otherwise.
+ * 	Since every answer used is the one the check would give at that point, the results are the same as with one thread.
+ *
+ * @author gayeonpark
+ *
+ */
+public class BankerManager extends ResourceManager {
+
+	private SafetyChecker safety; //this is used for checking if the state after granting a request is safe, using the claims of all the tasks
+
+	private boolean activityCompleted; //used to indicate whether a Task completed an activity during the current cycle
+	private int idleCycles; //represents the number of cycles coming up in which no Task can complete an activity
+
+	private int checkThreads; //represents the number of threads the safety checks of a cycle are run on
+	private ExecutorService checkers; //represents the threads the safety checks of a cycle are run on, while the manager runs with more than one
+	private SafetyChecker[] probes; //represents the probe of the safety check used by each of those threads
+	private int[] candidates; //represents the indices of the tasks whose request is checked at the start of the current cycle
+	private int[] checkedAt; //represents the last cycle at the start of which the request of each task was checked
+	private boolean[] checkedSafe; //represents if the state after granting the request of each task was safe at the start of that cycle
+	private long changesAtCheck; //represents the number of changes made to the safety check when the requests were checked
+	private long retirementsAtCheck; //represents the number of tasks retired from the safety check when the requests were checked
+
+	/**
+	 * This constructor creates the tasks and the units of each resource type for the Banker's algorithm.
+	 * @param workload is the parsed input
+	 */
+	BankerManager(Workload workload) {
+		super(workload);
+		safety = new SafetyChecker(tasksFinalized, numResources);
+		checkThreads = 1;
+	}
+
+	/**
+	 * This method sets the number of threads the safety checks of each cycle are run on.
+	 * @param threads is the number of threads; with 1, every request is checked when its task is visited
+	 */
+	void setCheckThreads(int threads) {
+		checkThreads = threads;
+	}
+
+	@Override
+	protected String getTitle() {
+		return String.format("%16s","BANKER'S");
+	}
+
+	/**
+	 * The Banker's algorithm makes a task wait once the delay of its request is over.
+	 */
+	@Override
+	protected boolean isBlocked(Task t) {
+		return t.getRequestdelay() == t.getActivityDelay();
+	}
+
+	/**
+	 * The Banker's algorithm writes a request it does not grant as unsafe, as it does when the task is visited.
+	 */
+	@Override
+	protected void traceWaiting(Task t, int r) {
+		trace.blocked(t, r, t.getActivityAmount(), -1);
+	}
+
+	/**
+	 * This method runs the Banker's algorithm until every task has terminated or has been aborted.
+	 */
+	@Override
+	public void run() {
+		if (checkThreads > 1) {
+			//the probes share the matrices of the safety check, which is only made now in case the manager has been resumed
+			checkers = Executors.newFixedThreadPool(checkThreads);
+			probes = new SafetyChecker[checkThreads];
+			for (int k = 0; k < checkThreads; k ++) {
+				probes[k] = safety.probe();
+			}
+			candidates = new int[tasksFinalized.size()];
+			checkedAt = new int[tasksFinalized.size()];
+			checkedSafe = new boolean[tasksFinalized.size()];
+		}
+
+		try {
+			//run until there is no more task remaining in the list of tasks for the Banker's Algorithm
+			while (hasActiveTasks()) { 
+				runCycle();
+
+				//save the state of the manager, if it is time to
+				checkpointIfDue();
+			}
+		} finally {
+			if (checkers != null) {
+				checkers.shutdownNow();
+				checkers = null;
+			}
+		}
+	} //end of the run function
+
+	/**
+	 * This method runs one cycle of the Banker's algorithm: every task is visited once (the blocked ones first, then the others by their index)
+	 * 	and its current activity is handed to the handler of its kind.
+	 * Each handler is a small private method, so each one is compiled (and inlined here) on its own,
+	 * 	and this method is called once per cycle, so it is compiled as a whole rather than only while it is running.
+	 */
+	private void runCycle() {
+		cycle ++; //increment to indicate time passing
+
+		activityCompleted = false;
+		idleCycles = Integer.MAX_VALUE;
+
+		//the units returned in the previous cycle are available now
+		beginCycle();
+
+		//check the requests of the cycle on the pool of threads first, if there is one
+		if (checkers != null) {
+			checkRequests();
+		}
+
+		//go through the entire list of tasks: the blocked ones first, then the others by their index
+		for (Task currTask = nextTask(); currTask != null; currTask = nextTask()) { 
+			//get the type of the current activity of the current task
+			byte currActivity = currTask.getActivityType();
+
+			if (currActivity == Task.INITIATE) {
+				initiate(currTask);
+			} else if (currActivity == Task.REQUEST) {
+				request(currTask);
+			} else if (currActivity == Task.RELEASE) {
+				release(currTask);
+			} else {
+				terminate(currTask);
+			}
+
+			//if the current task was neither executed nor removed, it stays blocked
+			keepIfBlocked(currTask);
+		} //end of the for loop for going through the entire list of tasks
+
+		//the tasks executed in the current cycle are visited after the blocked ones in the next cycle, by their index
+		endCycle();
+
+		//if no Task completed an activity in the current cycle, the following cycles look exactly the same
+		// until the first delay runs out (or the first sleeping task wakes up), so jump straight to the cycle before that one
+		idleCycles = Math.min(idleCycles, cyclesUntilWakeUp());
+		if (!activityCompleted && idleCycles > 0 && idleCycles != Integer.MAX_VALUE) {
+			skipIdleCycles(idleCycles);
+		}
+	}
+
+	/**
+	 * This method checks the safety of every request that will be checked in the current cycle against the state at the start of it,
+	 * 	on the pool of threads, each thread with its own probe of the safety check.
+	 * The requests are the ones whose delay is over, which are within the claim of the task, and for which there are enough units.
+	 * 	Only the tasks visited in the cycle are looked at, since a sleeping task is still delaying and a task on a wait queue lacks units.
+	 * 	The state is not changed until every check is done, so the probes can all read it at the same time.
+	 */
+	private void checkRequests() {
+		int numVisited = tasksToVisit(candidates);
+		int numCandidates = 0;
+		for (int v = 0; v < numVisited; v ++) {
+			int i = candidates[v];
+			Task t = tasksFinalized.get(i);
+			if (t.getActivityType() == Task.REQUEST && t.getRequestdelay() == t.getActivityDelay()) {
+				int resourceIndex = t.getActivityResource();
+				int resourceRequested = t.getActivityAmount();
+				if (resourceRequested <= t.getClaim(resourceIndex) && resourceRequested <= unitsOfEachResource[resourceIndex]) {
+					candidates[numCandidates ++] = i;
+				}
+			}
+		}
+		//a single request is just checked when its task is visited
+		if (numCandidates < 2) {
+			return;
+		}
+
+		changesAtCheck = safety.getChanges();
+		retirementsAtCheck = safety.getRetirements();
+		int now = cycle;
+		int count = numCandidates;
+		List<Callable<Void>> checks = new ArrayList<>();
+		for (int k = 0; k < probes.length; k ++) {
+			SafetyChecker probe = probes[k];
+			int first = k;
+			checks.add(() -> {
+				//every thread takes every so many of the requests, so the threads get about the same number of them
+				for (int c = first; c < count; c += probes.length) {
+					int i = candidates[c];
+					Task t = tasksFinalized.get(i);
+					checkedSafe[i] = probe.isSafeAfterGrant(i, t.getActivityResource(), t.getActivityAmount(), unitsOfEachResource);
+					checkedAt[i] = now;
+				}
+				return null;
+			});
+		}
+
+		try {
+			for (Future<Void> check: checkers.invokeAll(checks)) {
+				check.get();
+			}
+		} catch (ExecutionException e) { //a check failed, so pass its error on
+			throw new RuntimeException(e.getCause());
+		} catch (InterruptedException e) {
+			//the answers cannot be trusted, so every request is checked again when its task is visited
+			Thread.currentThread().interrupt();
+			changesAtCheck = -1;
+			retirementsAtCheck = -1;
+		}
+	}
+
+	/**
+	 * This method grants the request of the task 'currTask' in the safety check if the state after it is safe, just like SafetyChecker.tryGrant().
+	 * 	If the request was checked at the start of the cycle (see checkRequests()), that answer is used if it still holds:
+	 * 	a safe answer if the safety check has not changed since, and an unsafe answer if no task has been retired since,
+	 * 	since the grants and releases made since then only leave fewer units to the other tasks, which cannot make an unsafe state safe.
+	 * @param currTask is the task visited
+	 * @param resourceIndex is the index of the resource type requested
+	 * @param resourceRequested is the number of units requested
+	 * @return true if the request has been granted in the safety check, false if the task has to wait
+	 */
+	private boolean tryGrant(Task currTask, int resourceIndex, int resourceRequested) {
+		int i = currTask.getIndex();
+		if (checkers != null && checkedAt[i] == cycle) {
+			if (checkedSafe[i] && safety.getChanges() == changesAtCheck) {
+				safety.grant(i, resourceIndex, resourceRequested);
+				return true;
+			} else if (!checkedSafe[i] && safety.getRetirements() == retirementsAtCheck) {
+				return false;
+			}
+		}
+		return safety.tryGrant(i, resourceIndex, resourceRequested, unitsOfEachResource);
+	}
+
+	/**
+	 * This method handles the "initiate" activity of the task 'currTask':
+	 * 	it is granted, unless the task's initial claim exceeds the units present, in which case the task is aborted.
+	 * @param currTask is the task visited
+	 */
+	private void initiate(Task currTask) {
+		//HANDLE the error where a tasks's initial claim EXCEEDS the resource present
+		//represents the index of the resource
+		int resourceIndex = currTask.getActivityResource(); 
+		//represents the available units of the resource claimed
+		int resourceAvail = unitsOfEachResource[resourceIndex]; 
+
+		//represents the initial claim of the current task for the resource type
+		int resourceInitClaimed = currTask.getClaim(resourceIndex);
+		//if the amount of current resource type claimed is less than or equal 
+		// to the amount of the resource type available
+		if (resourceInitClaimed <= resourceAvail) {
+			//no error, proceed with granting the 'initiate' activity
+			//since the activity is initiate, the current task holds no resource of any type
+			//so we put value 0 for the number of units the task holds of each resource type
+			currTask.setUnitsHeld(currTask.getActivityResource(), 0);
+			trace.initiated(currTask);
+
+			//initiate has been granted, so move on to the next activity
+			currTask.nextActivity();
+			activityCompleted = true;
+
+		} else { //error, bc the tasks's initial claim EXCEEDS the resource present
+			//the task is to be aborted
+			currTask.doAbort();
+			activityCompleted = true;
+			trace.aborted(currTask, "claim exceeds total in system");
+			//store the current task to the right index in the finalized list holding tasks for Banker's Algorithm
+			tasksFinalized.set(currTask.getIndex(),currTask);
+			//remove the CURRENT TASK from the list of tasks since it is ABORTED
+			removeTask(currTask);
+			//the task no longer counts in the safety check
+			safety.retire(currTask.getIndex());
+
+			//then we store the information for the error that happened
+			// because the task's initial claim exceeded the resources present
+			events.add(cycle, currTask.getTaskNum(), EventLog.CLAIM_ABORT, resourceIndex, resourceInitClaimed);
+			events.add(cycle, currTask.getTaskNum(), EventLog.UNITS, resourceIndex, resourceAvail);
+		}
+	}
+
+	/**
+	 * This method handles the "request" activity of the task 'currTask':
+	 * 	once its delay is over, it is granted if there are enough units for it and the state after granting it is safe, and the task waits otherwise.
+	 * 	A request that exceeds the task's claim aborts the task.
+	 * @param currTask is the task visited
+	 */
+	private void request(Task currTask) {
+		//represents the index of the resource requested by the task's activity
+		int resourceIndex = currTask.getActivityResource(); 
+		//represents the number of the resource requested by the task's activity
+		int resourceRequested = currTask.getActivityAmount(); 
+		//represents the available units of the resource requested
+		int resourceAvail = unitsOfEachResource[resourceIndex]; 
+
+		int requestDelay = currTask.getRequestdelay(); //represents the delay counter kept by the current task
+		int activityDelay = currTask.getActivityDelay(); //represents the delay given by the current task's activity
+
+		//IF DON'T HAVE TO WAIT FOR DELAY
+		if (requestDelay == activityDelay) {			
+
+			//check if the current task's resources requested EXCEED its claim --> ERROR!
+			if (resourceRequested > currTask.getClaim(resourceIndex)) {
+				abort(currTask);
+
+			//check if there are enough resources for the request, and if the state after granting it is safe,
+			// i.e. there is still an order in which every task can get its remaining claim and finish
+			} else if (resourceRequested <= resourceAvail 
+					&& tryGrant(currTask, resourceIndex, resourceRequested)) {
+				// THE REQUEST CAN BE GRANTED
+
+				//reset the requestDelay to 0
+				currTask.resetRequestdelay();
+
+				//calculate the claim remaining for the current requested resource type
+				currTask.adjustClaim(resourceIndex, -resourceRequested);
+
+				//first calculate the new amount of units held for the current resource as: 
+				//      current value of resourceHeld + value of resourceRequested
+				//  then update the units held for the current resource as the sum of those two numbers (shown above) 
+				currTask.adjustUnitsHeld(resourceIndex, resourceRequested);
+
+				//take the units granted from the units available for the Banker's Algorithm
+				takeUnits(resourceIndex, resourceRequested);
+				trace.granted(currTask, resourceIndex, resourceRequested, unitsOfEachResource[resourceIndex]);
+
+				//the request has been granted, so move on to the next activity
+				currTask.nextActivity();
+				activityCompleted = true;
+
+				//the current Task has been executed, so it is visited by its index next cycle
+				markExecuted(currTask);
+
+			} else { //NOT enough resources, or NOT safe state to execute
+				//so the request CANNOT be satisfied, so WAIT
+				//increase the wait time of the current task
+				currTask.increaseWaitTime();
+				trace.blocked(currTask, resourceIndex, resourceRequested, -1);
+				if (resourceRequested > resourceAvail) {
+					//there aren't enough units, so the task cannot be satisfied before units of the resource type are returned.
+					//(a task in an unsafe state is visited again every cycle, since any grant or release can make it safe)
+					waitForUnits(currTask, resourceIndex);
+				}
+			}
+
+		} else { //the delay counter is NOT equal to the delay given by the current task's activity, 
+					//so there is a DELAY and the current task needs to wait for the delay to finish
+
+			//increase the delay counter
+			currTask.increaseRequestdelay();
+			trace.delayed(currTask, activityDelay - requestDelay);
+			//the request can be made once the delay counter reaches the delay of the activity
+			idleCycles = Math.min(idleCycles, activityDelay - currTask.getRequestdelay());
+
+			//the current Task has been executed, so it is visited by its index next cycle, or once its delay is over
+			markDelayed(currTask, activityDelay - currTask.getRequestdelay(), false);
+		}
+	}
+
+	/**
+	 * This method handles the "release" activity of the task 'currTask', which is always granted once its delay is over.
+	 * 	If only the "terminate" activity is left after it, and the terminate has no delay, the task terminates in the same cycle.
+	 * @param currTask is the task visited
+	 */
+	private void release(Task currTask) {
+		//represents the index of the resource released by the task's activity
+		int resourceIndex = currTask.getActivityResource(); 
+		//represents the number of the resource released by the task's activity
+		int resourceReleased = currTask.getActivityAmount(); 
+
+		int releasedelay = currTask.getReleasedelay(); //represents the delay counter kept by the current task
+		int activitydelay = currTask.getActivityDelay(); //represents the delay given by the current task's activity
+		int remaining = 0; //represents the number of cycles the release still has to delay for after this one
+
+		//if the releaseDelay counter is EQUAL to the activityDelay, the task's activity can be satisfied
+		if (releasedelay == activitydelay) {
+
+			//reset the releasedelay to 0
+			currTask.resetReleasedelay();
+
+			//get the task's current claim for the resource type that is being released
+			int currentClaim = currTask.getClaim(resourceIndex);
+			//recalculate the claim because resource has been released
+			currTask.setClaim(resourceIndex, currentClaim + resourceReleased);
+
+			//release the units of the resource type specified by the current task.
+			//only the released units are taken away, since the safety check counts on the task
+			// handing back whatever it still holds when it finishes
+			int resourceHeld = currTask.adjustUnitsHeld(resourceIndex, -resourceReleased);
+			//the safety check has to know the new units held and claim of the task
+			safety.update(currTask.getIndex(), resourceIndex, resourceHeld, currentClaim + resourceReleased);
+
+			//add the resource units released by the current task 
+			// to the total units returned for the current resource type
+			returnUnits(resourceIndex, resourceReleased);
+			trace.released(currTask, resourceIndex, resourceReleased,
+					unitsOfEachResource[resourceIndex] + returnedUnitsOfEachResource[resourceIndex]);
+
+			//request has been granted, so move on to the next activity
+			currTask.nextActivity();
+			activityCompleted = true;
+
+		} else { //the releasedelay counter is NOT equal to the delay given by the current task's activity, 
+					//so it needs to wait for the delay to finish
+
+			//increase the delay counter
+			currTask.increaseReleasedelay();
+			trace.delayed(currTask, activitydelay - releasedelay);
+			//the release can be made once the delay counter reaches the delay of the activity
+			idleCycles = Math.min(idleCycles, activitydelay - currTask.getReleasedelay());
+			remaining = activitydelay - currTask.getReleasedelay();
+		}		
+
+		//in the case where the last 'release' activity of the current task has been done
+		//and there is only one activity remaining: TERMINATE, which does NOT require another cycle to complete
+		if (currTask.getActivitiesLeft() == 1) {
+			//if the task does NOT have to delay to terminate, DO TERMINATE
+			if (currTask.getActivityDelay() == 0) {
+				finish(currTask, false);
+			} else { //the task DOES have to delay to terminate
+				//increase the terminatedelay counter for the current task
+				currTask.increaseTerminatedelay();
+
+				//the current Task has been executed, so it is visited by its index next cycle, or once its delay is over
+				markDelayed(currTask, currTask.getActivityDelay() - currTask.getTerminatedelay(), false);
+			}
+		} else { //in the case where there are still multiple activities waiting to be satisfied for the current task
+
+			//the current Task has been executed, so it is visited by its index next cycle, or once its delay is over
+			markDelayed(currTask, remaining, false);
+		}
+	}
+
+	/**
+	 * This method handles the "terminate" activity of the task 'currTask', which is always granted once its delay is over.
+	 * @param currTask is the task visited
+	 */
+	private void terminate(Task currTask) {
+		//does NOT have to delay to terminate, so DO TERMINATE
+		if (currTask.getTerminatedelay() == currTask.getActivityDelay()) {
+			finish(currTask, currTask.getActivityDelay() > 0);
+		} else { //the task DOES have to delay to terminate
+
+			//the delay counts down to the cycle the task terminates in
+			trace.delayed(currTask, currTask.getActivityDelay() - currTask.getTerminatedelay() + 1);
+			//increase the terminatedelay counter for the current task
+			currTask.increaseTerminatedelay();
+			//the task can terminate once the delay counter reaches the delay of the activity
+			idleCycles = Math.min(idleCycles, currTask.getActivityDelay() - currTask.getTerminatedelay());
+
+			//the current Task has been executed, so it is visited by its index next cycle, or once its delay is over
+			markDelayed(currTask, currTask.getActivityDelay() - currTask.getTerminatedelay(), false);
+		}
+	}
+
+	/**
+	 * This method terminates the task 'currTask' in the current cycle and hands back the units it still holds.
+	 * @param currTask is the task that terminates
+	 * @param delayed is true if the task waited for the delay of its terminate up to this cycle
+	 */
+	private void finish(Task currTask, boolean delayed) {
+		//set the current cycle as the time the current task terminated
+		currTask.setTimeTerminated(cycle);
+		trace.terminated(currTask, delayed, cycle);
+		//the units the task still holds are handed back
+		returnHeldUnits(currTask);
+
+		//terminate has been granted, so move on to the next activity
+		currTask.nextActivity();
+		activityCompleted = true;
+
+		//store the current task to the right index in the finalized list holding tasks for Banker's Algorithm
+		tasksFinalized.set(currTask.getIndex(), currTask);
+		//remove the CURRENT TASK from the list of tasks since it is COMPLETED
+		removeTask(currTask);
+		safety.retire(currTask.getIndex()); //the task no longer counts in the safety check
+	}
+
+	/**
+	 * This method aborts the task 'currTask' since its request exceeds its claim.
+	 * The units it holds are available from the next cycle on, and the task visited right after it in this cycle is skipped.
+	 * @param currTask is the task to be aborted
+	 */
+	private void abort(Task currTask) {
+		//the task is to be aborted
+		currTask.doAbort();
+		activityCompleted = true;
+		trace.aborted(currTask, "request exceeds claim");
+
+		//save the error that occured because
+		// the task's requests exceeded its claims during execution
+		events.add(cycle, currTask.getTaskNum(), EventLog.REQUEST_ABORT, 0, 0);
+		//release all the resources of the task to be aborted
+		for (int n = 0; n < numResources; n ++) {
+			//get the units held of the current resource type by the current task
+			int resourceHeld = currTask.getUnitsHeld(n); 
+			//add the resource released by the current task to the total units returned for the current resource
+			returnUnits(n, resourceHeld);
+			//get the currently all returned units of the current resource type
+			int resourceReturned = returnedUnitsOfEachResource[n]; 
+
+			//store how many units of which resource has been returned
+			events.add(cycle, currTask.getTaskNum(), EventLog.UNITS, n, resourceReturned);
+		}
+
+		//store the current task to the right index in the finalized list holding tasks for Opt. resource manager
+		tasksFinalized.set(currTask.getIndex(), currTask);
+		//remove the CURRENT TASK from the list of tasks since it is ABORTED
+		removeTask(currTask);
+		//the task right after it is not visited in this cycle (so it stays blocked), even if it is on a wait queue
+		skipNextTask();
+
+		//the task no longer counts in the safety check
+		safety.retire(currTask.getIndex());
+	}
+
+	/**
+	 * The safety check is rebuilt from the units held and claimed by the tasks that are still running.
+	 * Its safe sequence may come out in another order than before, but that only changes where the next safety check starts looking,
+	 * 	not whether a state is safe.
+	 */
+	@Override
+	protected void readState(DataInputStream in) throws IOException {
+		super.readState(in);
+		safety = new SafetyChecker(tasksFinalized, numResources);
+		for (Task t: tasksFinalized) {
+			if (isActive(t.getIndex())) {
+				for (int r = 0; r < numResources; r ++) {
+					safety.update(t.getIndex(), r, t.getUnitsHeld(r), t.getClaim(r));
+				}
+			} else {
+				safety.retire(t.getIndex());
+			}
+		}
+	}
+
+}
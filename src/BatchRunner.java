@@ -0,0 +1,157 @@
+import java.io.*;
+import java.nio.file.*;
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * The BatchRunner class runs the simulations of many input files in one JVM.
+ * The input files are given as a directory (every file in it is simulated) or as a glob pattern, i.e. "src/input-*".
+ * Each file is simulated on a thread of a ForkJoinPool, with as many threads as the parallelism level.
+ * The output of each file is written under a header with its name, in the order of the file names,
+ * 	as soon as the files before it are done, so the output is the same no matter how many threads are used.
+ * Every file is simulated with the same SimulationOptions, as if it had been given on its own with them.
+ *
+ * @author gayeonpark
+ *
+ */
+public class BatchRunner {
+
+	private int parallelism; //represents the number of files simulated at the same time
+	private SimulationOptions options; //represents the options every file is simulated with
+
+	/**
+	 * This constructor sets the parallelism level, and the options every file is simulated with.
+	 * @param parallelism is the number of files simulated at the same time
+	 * @param options is the options of the simulations, which must not write checkpoints or resume from them
+	 */
+	BatchRunner(int parallelism, SimulationOptions options) {
+		this.parallelism = parallelism;
+		this.options = options;
+	}
+
+	/**
+	 * This main method reads the command line arguments for the batch mode:
+	 * 	"--batch" followed by a directory or a glob pattern, and optionally "--parallelism" followed by a number.
+	 * 	The parallelism level is the number of available processors if it is not given.
+	 * 	The options of a single file can be given as well, except for "--checkpoint" and "--resume",
+	 * 	 since the checkpoints of all the files would be written to the same files.
+	 * @param args are the command line arguments passed in when running this Java program
+	 */
+	public static void main(String[] args) {
+		String pattern = null; //represents the directory or the glob pattern of the input files
+		int parallelism = Runtime.getRuntime().availableProcessors();
+		SimulationOptions options = new SimulationOptions();
+
+		try {
+			for (int i = 0; i < args.length; i ++) {
+				if (args[i].equals("--batch")) {
+					pattern = args[++ i];
+				} else if (args[i].equals("--parallelism")) {
+					parallelism = Integer.parseInt(args[++ i]);
+				} else if ((i = options.parse(args, i)) < 0) {
+					//not an option of a simulation either
+					pattern = null;
+					break;
+				}
+			}
+			options.validate();
+			if (options.checkpoint != null || options.resume != null) {
+				throw new IllegalArgumentException("--batch cannot be used with --checkpoint or --resume");
+			}
+		} catch (IllegalArgumentException e) {
+			//a NumberFormatException is an IllegalArgumentException as well
+			System.out.println(Banker.invalidOption(e));
+			return;
+		} catch (ArrayIndexOutOfBoundsException e) {
+			pattern = null;
+		}
+		if (pattern == null || parallelism < 1) {
+			System.out.println("Usage: java Banker --batch <directory or glob pattern> [--parallelism <number of threads>] [options of a single file]");
+			return;
+		}
+
+		try {
+			new BatchRunner(parallelism, options).run(findInputs(pattern), System.out);
+		} catch (IOException e) {
+			System.out.println("Could not read the input files: " + e.getMessage());
+		}
+	}
+
+	/**
+	 * This method returns the input files given by 'pattern', sorted by their names.
+	 * If 'pattern' is a directory, every regular file in it is returned.
+	 * Otherwise 'pattern' is a glob pattern, and the files in its parent directory whose name matches the last part of it are returned.
+	 * @param pattern is the directory or the glob pattern
+	 * @return a List of the input files
+	 * @throws IOException if the directory cannot be read
+	 */
+	static List<File> findInputs(String pattern) throws IOException {
+		Path path = Paths.get(pattern);
+		Path dir = Files.isDirectory(path) ? path : path.toAbsolutePath().getParent();
+		PathMatcher matcher = Files.isDirectory(path) ? null
+				: FileSystems.getDefault().getPathMatcher("glob:" + path.getFileName());
+
+		List<File> inputs = new ArrayList<>();
+		try (DirectoryStream<Path> files = Files.newDirectoryStream(dir)) {
+			for (Path file: files) {
+				if (Files.isRegularFile(file) && (matcher == null || matcher.matches(file.getFileName()))) {
+					inputs.add(Files.isDirectory(path) ? file.toFile() : path.resolveSibling(file.getFileName()).toFile());
+				}
+			}
+		}
+		Collections.sort(inputs);
+		return inputs;
+	}
+
+	/**
+	 * This method simulates every input file and writes the outputs to 'out' in the order of the list.
+	 * The output of a file is kept in memory until all the files before it have been written.
+	 * If a file cannot be simulated, the error is written in place of its output and the other files are still simulated.
+	 * @param inputs is a List of the input files
+	 * @param out is where the output is written
+	 */
+	void run(List<File> inputs, PrintStream out) {
+		ForkJoinPool pool = new ForkJoinPool(parallelism);
+		try {
+			List<Future<String>> results = new ArrayList<>();
+			for (File input: inputs) {
+				results.add(pool.submit(() -> simulateToString(input, options)));
+			}
+
+			for (int i = 0; i < inputs.size(); i ++) {
+				out.println("==> " + inputs.get(i).getPath() + " <==");
+				try {
+					out.print(results.get(i).get());
+				} catch (ExecutionException e) {
+					out.println("Could not simulate the file: " + e.getCause());
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+					return;
+				}
+			}
+		} finally {
+			pool.shutdownNow();
+		}
+	}
+
+	/**
+	 * This method simulates one input file and returns its output.
+	 * An input that is not valid gives the same "Invalid input" message as when the file is simulated on its own.
+	 * @param input is the input file
+	 * @param options is the options of the simulation
+	 * @return the output of both simulations, or the message if the input is not valid
+	 * @throws IOException if the file cannot be read
+	 */
+	private static String simulateToString(File input, SimulationOptions options) throws IOException {
+		ByteArrayOutputStream output = new ByteArrayOutputStream();
+		PrintStream out = new PrintStream(output);
+		try {
+			Banker.simulate(input, out, options);
+		} catch (IllegalArgumentException e) { //an activity is of a task or a resource type that does not exist, a task never terminates, or a token is malformed
+			return "Invalid input: " + e.getMessage() + "\n";
+		}
+		out.flush();
+		return output.toString();
+	}
+
+}
@@ -0,0 +1,23 @@
+import java.io.*;
+
+/**
+ * The CheckpointException class is thrown when a manager cannot write a checkpoint,
+ * 	so the failure can be told apart from an input file or a checkpoint that cannot be read.
+ * While a manager runs, it is wrapped in an UncheckedIOException, since running a manager does not throw checked exceptions.
+ *
+ * @author gayeonpark
+ *
+ */
+public class CheckpointException extends IOException {
+
+	private static final long serialVersionUID = 1L;
+
+	/**
+	 * This constructor creates the exception for the failure 'cause', with its message.
+	 * @param cause is why the checkpoint could not be written
+	 */
+	CheckpointException(IOException cause) {
+		super(cause.getMessage(), cause);
+	}
+
+}
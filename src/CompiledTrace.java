@@ -0,0 +1,691 @@
+import java.io.*;
+import java.nio.*;
+import java.nio.channels.*;
+import java.util.*;
+
+/**
+ * The CompiledTrace class is the binary form of an input, laid out so the activities of each task can be read where they are.
+ * The layout, in little-endian order, is:
+ * 	a header: the magic number, the version, T (the number of tasks), R (the number of resource types), and R values (the units present of each resource type);
+ * 	an index of T + 1 longs, the first of which is 0, where the activities of the task with index t are the records index[t] up to index[t + 1];
+ * 	the claims: R ints for each task, the initial claim of the task for each resource type (0 if it has none);
+ * 	the records: one fixed-width record (see Task) per activity, grouped by task, starting at a multiple of the record size.
+ *
+ * A trace is compiled from the text input with compile(), in two passes over the text, so only the counts and claims of the tasks
+ * 	are ever kept in memory. It is loaded with load(), which memory-maps the file and reads nothing but the header,
+ * 	the index, and the last record of each task, so a simulation can start right away; each Task is then handed the segment of the mapping holding its records, which is never copied.
+ * A Workload parsed from text is read by read() into a trace in memory instead, in a single pass over the text:
+ * 	the records are written in the order they are read, into segments that grow as they fill up,
+ * 	and are only moved into their places among the records of their tasks if the activities of the tasks are not in order in the input.
+ * The trace is kept in segments of at most SEGMENT_SIZE bytes, since a single ByteBuffer cannot hold more than 2 GB.
+ * A record never crosses the end of a segment; the rare task whose records do is given a copy of them instead.
+ *
+ * @author gayeonpark
+ *
+ */
+public class CompiledTrace {
+
+	static final int MAGIC = 0x4B4E4142; //represents the first four bytes of a compiled trace, "BANK" in little-endian order
+	static final int VERSION = 1; //represents the version of the layout
+	private static final long SEGMENT_SIZE = 1L << 30; //represents the size of a segment, which is a multiple of the record size
+
+	private ByteBuffer[] segments; //represents the whole trace, in little-endian segments of SEGMENT_SIZE bytes (the last one may be shorter)
+	private int numTasks; //represents the number of tasks
+	private int numResources; //represents the number of resource types
+	private int[] units; //represents the number of units present of each resource type
+	private long indexStart; //represents the offset of the index
+	private long claimsStart; //represents the offset of the claims
+	private long recordsStart; //represents the offset of the first record
+	private long[] counts; //represents the number of activities of each task, between the two passes over a text input (see scan())
+	private int[] claims; //represents the initial claim of each task for each resource type, between the two passes over a text input
+
+	/**
+	 * This constructor works out where each part of a trace with 'numTasks' tasks and the units given starts.
+	 * @param numTasks is the number of tasks
+	 * @param units is the number of units present of each resource type
+	 */
+	private CompiledTrace(int numTasks, int[] units) {
+		this.numTasks = numTasks;
+		this.numResources = units.length;
+		this.units = units;
+		indexStart = align(16 + 4L * numResources, 8);
+		claimsStart = indexStart + 8L * (numTasks + 1);
+		recordsStart = align(claimsStart + 4L * numTasks * numResources, Task.RECORD_SIZE);
+	}
+
+	/**
+	 * This method compiles the text input 'text' into the binary file 'binary'.
+	 * The first pass over the text counts the activities of each task and saves its claims (see scan()),
+	 * 	and the second pass writes every activity straight to its place among the records of its task.
+	 * @param text is the file containing the input in the text format
+	 * @param binary is the file to write the compiled trace to
+	 * @return the number of activities compiled
+	 * @throws IOException if a file cannot be read or written
+	 * @throws IllegalArgumentException if an activity belongs to a task-number, or is of a resource type, that is out of range,
+	 * 	or a task has no activities or does not end with a terminate, or a token is missing or malformed
+	 */
+	static long compile(File text, File binary) throws IOException {
+		CompiledTrace trace = scan(text);
+		long size = trace.recordsStart + countActivities(trace.counts) * Task.RECORD_SIZE;
+		try (RandomAccessFile file = new RandomAccessFile(binary, "rw")) {
+			file.setLength(size);
+			trace.segments = map(file.getChannel(), FileChannel.MapMode.READ_WRITE, size);
+			trace.writeRecords(text);
+			for (ByteBuffer segment: trace.segments) {
+				((MappedByteBuffer) segment).force();
+			}
+		}
+		return (size - trace.recordsStart) / Task.RECORD_SIZE;
+	}
+
+	/**
+	 * This method reads the text input 'text' into a compiled trace in memory, in one pass over the text.
+	 * Every activity is decoded straight into the next record after the ones read before it, so the text is never read twice.
+	 * 	The segments start out about as large as the text (a line of the input is never shorter than a record), and grow if they fill up.
+	 * If the activities of every task are in one run, and the tasks are in order, as in every input the lab gives,
+	 * 	the records are then already grouped by task; otherwise the task of each record is remembered from the first one out of order on,
+	 * 	and the records are moved to their places at the end.
+	 * @param text is the file containing the input in the text format
+	 * @return the CompiledTrace
+	 * @throws IOException if the file cannot be read
+	 * @throws IllegalArgumentException if an activity belongs to a task-number, or is of a resource type, that is out of range,
+	 * 	or a task has no activities or does not end with a terminate, or a token is missing or malformed
+	 */
+	static CompiledTrace read(File text) throws IOException {
+		try (InputReader in = new InputReader(text)) {
+			CompiledTrace trace = readHeader(in);
+			int numTasks = trace.numTasks;
+			int[] units = trace.units;
+			trace.segments = allocate(trace.recordsStart + align(text.length(), Task.RECORD_SIZE));
+			long[] counts = new long[numTasks];
+			int[] claims = new int[numTasks * units.length];
+			byte[] lastTypes = new byte[numTasks]; //represents the opcode of the last activity of each task
+			int[] tasks = null; //represents the index of the task of each record, once a record has been read out of order
+			long numRecords = 0;
+			int last = 0; //represents the index of the task of the last record
+			while (in.hasNext()) {
+				byte type = in.nextActivityType();
+				int t = trace.indexOf(in.nextInt());
+				int delay = in.nextInt();
+				int resourceType = in.nextInt();
+				int amount = in.nextInt();
+				if (type != Task.TERMINATE) {
+					int r = trace.resourceIndexOf(resourceType);
+					if (type == Task.INITIATE) {
+						claims[t * units.length + r] = amount;
+					}
+				}
+
+				//the records so far are grouped by task in order, so their tasks can be worked out from the counts
+				if (tasks == null && t < last) {
+					tasks = new int[(int) Math.max(16, numRecords * 2)];
+					int i = 0;
+					for (int u = 0; u <= last; u ++) {
+						for (long c = 0; c < counts[u]; c ++) {
+							tasks[i ++] = u;
+						}
+					}
+				}
+				if (tasks != null) {
+					if (numRecords == tasks.length) {
+						tasks = Arrays.copyOf(tasks, tasks.length * 2);
+					}
+					tasks[(int) numRecords] = t;
+				}
+				last = t;
+
+				long at = trace.recordsStart + numRecords * Task.RECORD_SIZE;
+				trace.reserve(at + Task.RECORD_SIZE);
+				Task.putRecord(trace.segments[(int) (at / SEGMENT_SIZE)], (int) (at % SEGMENT_SIZE), type, delay, resourceType - 1, amount);
+				counts[t] ++;
+				lastTypes[t] = type;
+				numRecords ++;
+			}
+			for (int t = 0; t < numTasks; t ++) {
+				checkTask(t, counts[t], lastTypes[t]);
+			}
+			trace.resize(trace.recordsStart + numRecords * Task.RECORD_SIZE);
+
+			if (tasks != null) {
+				//move every record to its place among the records of its task
+				CompiledTrace read = trace;
+				trace = new CompiledTrace(numTasks, units);
+				trace.segments = allocate(trace.recordsStart + numRecords * Task.RECORD_SIZE);
+				long[] next = trace.layOut(counts);
+				for (long i = 0; i < numRecords; i ++) {
+					long from = read.recordsStart + i * Task.RECORD_SIZE;
+					long to = trace.recordsStart + next[tasks[(int) i]] ++ * Task.RECORD_SIZE;
+					for (int b = 0; b < Task.RECORD_SIZE; b += 4) {
+						trace.putInt(to + b, read.getInt(from + b));
+					}
+				}
+			}
+			trace.writeHeader(counts, claims);
+			return trace;
+		}
+	}
+
+	/**
+	 * This method makes the first pass over the text input 'text': it reads the header,
+	 * 	counts the activities of each task, and saves the claims, checking the task-number and resource type of every activity,
+	 * 	and that every task ends with a terminate.
+	 * @param text is the file containing the input in the text format
+	 * @return the CompiledTrace, without its segments yet
+	 * @throws IOException if the file cannot be read
+	 * @throws IllegalArgumentException if an activity belongs to a task-number, or is of a resource type, that is out of range,
+	 * 	or a task has no activities or does not end with a terminate, or a token is missing or malformed
+	 */
+	private static CompiledTrace scan(File text) throws IOException {
+		try (InputReader in = new InputReader(text)) {
+			CompiledTrace trace = readHeader(in);
+			int numTasks = trace.numTasks;
+			int[] units = trace.units;
+			trace.counts = new long[numTasks];
+			trace.claims = new int[numTasks * units.length];
+			byte[] lastTypes = new byte[numTasks]; //represents the opcode of the last activity of each task
+			while (in.hasNext()) {
+				byte type = in.nextActivityType();
+				int t = trace.indexOf(in.nextInt());
+				in.nextInt(); //the delay
+				int resourceType = in.nextInt();
+				int amount = in.nextInt();
+				trace.counts[t] ++;
+				lastTypes[t] = type;
+				if (type != Task.TERMINATE) {
+					int r = trace.resourceIndexOf(resourceType);
+					if (type == Task.INITIATE) {
+						trace.claims[t * units.length + r] = amount;
+					}
+				}
+			}
+			for (int t = 0; t < numTasks; t ++) {
+				checkTask(t, trace.counts[t], lastTypes[t]);
+			}
+			return trace;
+		}
+	}
+
+	/**
+	 * This method reads the header of a text input: T (the number of tasks), R (the number of resource types), and R values.
+	 * 	An empty input has no header, and is taken as an input with no tasks and no resource types, as the original program did.
+	 * @param in is the reader of the text, at its start
+	 * @return the CompiledTrace, without its segments yet
+	 * @throws IOException if the file cannot be read
+	 * @throws IllegalArgumentException if the header is cut short, or has a token that is not an unsigned integer
+	 */
+	private static CompiledTrace readHeader(InputReader in) throws IOException {
+		if (!in.hasNext()) {
+			return new CompiledTrace(0, new int[0]);
+		}
+		int numTasks = in.nextInt();
+		int[] units = new int[in.nextInt()];
+		for (int r = 0; r < units.length; r ++) {
+			units[r] = in.nextInt();
+		}
+		return new CompiledTrace(numTasks, units);
+	}
+
+	/**
+	 * This method makes the second pass over the text input 'text', once scan() has been made and the segments are there:
+	 * 	it writes the header, the index, and the claims, and then every activity straight to its place among the records of its task.
+	 * @param text is the file containing the input in the text format
+	 * @throws IOException if the file cannot be read
+	 */
+	private void writeRecords(File text) throws IOException {
+		long[] next = layOut(counts);
+		writeHeader(counts, claims);
+		counts = null;
+		claims = null;
+		try (InputReader in = new InputReader(text)) {
+			readHeader(in); //the header has been read in the first pass
+			while (in.hasNext()) {
+				byte type = in.nextActivityType();
+				int t = in.nextInt() - 1;
+				int delay = in.nextInt();
+				int resourceType = in.nextInt();
+				int amount = in.nextInt();
+				putRecord(next, t, type, delay, resourceType - 1, amount);
+			}
+		}
+	}
+
+	/**
+	 * This method lays out activities kept in parallel arrays, where the i-th entry of each array belongs to the i-th activity,
+	 * 	in memory, as a compiled trace. It is how a workload is made up without writing it out as text first.
+	 * @param numTasks is the number of tasks
+	 * @param units is the number of units present of each resource type
+	 * @param numActivities is the number of activities
+	 * @param types is the opcode of each activity, in the order they were read
+	 * @param tasks is the task-number of each activity
+	 * @param delays is the delay of each activity
+	 * @param resources is the resource type of each activity, i.e. resource type 1 is given as 1
+	 * @param amounts is the initial claim, or the number of units requested/released, of each activity
+	 * @return the CompiledTrace
+	 * @throws IllegalArgumentException if an activity belongs to a task-number, or is of a resource type, that is out of range,
+	 * 	or a task has no activities or does not end with a terminate
+	 */
+	static CompiledTrace build(int numTasks, int[] units, int numActivities,
+			byte[] types, int[] tasks, int[] delays, int[] resources, int[] amounts) {
+		CompiledTrace trace = new CompiledTrace(numTasks, units.clone());
+		long[] counts = new long[numTasks];
+		int[] claims = new int[numTasks * units.length];
+		byte[] lastTypes = new byte[numTasks]; //represents the opcode of the last activity of each task
+		for (int a = 0; a < numActivities; a ++) {
+			int t = trace.indexOf(tasks[a]);
+			counts[t] ++;
+			lastTypes[t] = types[a];
+			if (types[a] != Task.TERMINATE) {
+				int r = trace.resourceIndexOf(resources[a]);
+				if (types[a] == Task.INITIATE) {
+					claims[t * units.length + r] = amounts[a];
+				}
+			}
+		}
+		for (int t = 0; t < numTasks; t ++) {
+			checkTask(t, counts[t], lastTypes[t]);
+		}
+
+		long[] next = trace.layOut(counts);
+		trace.segments = allocate(trace.recordsStart + (long) numActivities * Task.RECORD_SIZE);
+		trace.writeHeader(counts, claims);
+		for (int a = 0; a < numActivities; a ++) {
+			trace.putRecord(next, tasks[a] - 1, types[a], delays[a], resources[a] - 1, amounts[a]);
+		}
+		return trace;
+	}
+
+	/**
+	 * This method loads the compiled trace in the file 'binary' by memory-mapping it.
+	 * Only the header, the index, and the last record of each task are read, to check that every task ends with a terminate;
+	 * 	the claims and the rest of the records are read from the mapping when the Tasks are created.
+	 * @param binary is the file containing the compiled trace
+	 * @return the CompiledTrace
+	 * @throws IOException if the file cannot be read, or it is not a compiled trace
+	 * @throws IllegalArgumentException if a task has no activities or does not end with a terminate
+	 */
+	static CompiledTrace load(File binary) throws IOException {
+		try (RandomAccessFile file = new RandomAccessFile(binary, "r")) {
+			long size = file.length();
+			ByteBuffer[] segments = map(file.getChannel(), FileChannel.MapMode.READ_ONLY, size);
+			ByteBuffer header = segments.length == 0 ? ByteBuffer.allocate(0) : segments[0];
+			if (size < 16 || header.getInt(0) != MAGIC) {
+				throw new IOException(binary + " is not a compiled trace");
+			} else if (header.getInt(4) != VERSION) {
+				throw new IOException(binary + " is a compiled trace of version " + header.getInt(4) + " instead of " + VERSION);
+			}
+			int numTasks = header.getInt(8);
+			int[] units = new int[header.getInt(12)];
+			for (int r = 0; r < units.length; r ++) {
+				units[r] = header.getInt(16 + 4 * r);
+			}
+			CompiledTrace trace = new CompiledTrace(numTasks, units);
+			trace.segments = segments;
+			if (size < trace.recordsStart || size != trace.recordsStart + trace.getLong(trace.indexStart + 8L * numTasks) * Task.RECORD_SIZE) {
+				throw new IOException(binary + " is truncated");
+			}
+			for (int t = 0; t < numTasks; t ++) {
+				long count = trace.getRecordIndex(t + 1) - trace.getRecordIndex(t);
+				checkTask(t, count, count > 0 ? trace.getRecordType(trace.getRecordIndex(t + 1) - 1) : Task.TERMINATE);
+			}
+			return trace;
+		}
+	}
+
+	/**
+	 * This method checks if the file 'input' starts with the magic number of a compiled trace.
+	 * @param input is the file
+	 * @return true if it is a compiled trace, false if it is (presumably) text
+	 * @throws IOException if the file cannot be read
+	 */
+	static boolean isCompiled(File input) throws IOException {
+		try (FileChannel channel = FileChannel.open(input.toPath())) {
+			ByteBuffer magic = ByteBuffer.allocate(4).order(ByteOrder.LITTLE_ENDIAN);
+			while (magic.hasRemaining() && channel.read(magic) >= 0) {
+				//keep reading until the 4 bytes are in, or the file ends
+			}
+			return !magic.hasRemaining() && magic.getInt(0) == MAGIC;
+		}
+	}
+
+	/**
+	 * This method returns the number of tasks.
+	 * @return the number of tasks
+	 */
+	public int getNumTasks() {
+		return numTasks;
+	}
+
+	/**
+	 * This method returns the number of units present of each resource type.
+	 * @return an array of the units, indexed by the index of the resource type
+	 */
+	public int[] getUnits() {
+		return units.clone();
+	}
+
+	/**
+	 * This method returns the number of activities of all the tasks.
+	 * @return the number of activities
+	 */
+	public long getNumActivities() {
+		return getLong(indexStart + 8L * numTasks);
+	}
+
+	/**
+	 * This method creates a new list of Tasks, ordered by the task's index, which read their activities from the records of the trace.
+	 * Every Task is handed the segment its records are in and the offset of its first record, rather than a ByteBuffer of its own,
+	 * 	so a Task costs the same whether it has 1 activity or a million, and the records are kept once for every list ever created.
+	 * The claims of each task are read from the trace as well.
+	 * @return an ArrayList of new Tasks
+	 */
+	public ArrayList<Task> createTasks() {
+		ArrayList<Task> tasks = new ArrayList<>(numTasks);
+		for (int t = 0; t < numTasks; t ++) {
+			tasks.add(createTask(t, t));
+		}
+		return tasks;
+	}
+
+	/**
+	 * This method creates a new list of Tasks for some of the tasks of the trace only, just like createTasks().
+	 * The i-th Task has the index i, and the number of the task 'taskIndices[i]' of the trace.
+	 * @param taskIndices is the indices of the tasks in the trace, in increasing order
+	 * @return an ArrayList of new Tasks
+	 */
+	public ArrayList<Task> createTasks(int[] taskIndices) {
+		ArrayList<Task> tasks = new ArrayList<>(taskIndices.length);
+		for (int i = 0; i < taskIndices.length; i ++) {
+			tasks.add(createTask(i, taskIndices[i]));
+		}
+		return tasks;
+	}
+
+	/**
+	 * This method creates the Task of the task with index 't' in the trace.
+	 * @param i is the index the Task is given
+	 * @param t is the index of the task in the trace
+	 * @return the new Task
+	 */
+	private Task createTask(int i, int t) {
+		Task task = new Task(i, t + 1, numResources);
+		setActivities(task, recordsStart + getRecordIndex(t) * Task.RECORD_SIZE, recordsStart + getRecordIndex(t + 1) * Task.RECORD_SIZE);
+		for (int r = 0; r < numResources; r ++) {
+			task.setClaim(r, getInt(claimsStart + 4L * ((long) t * numResources + r)));
+		}
+		return task;
+	}
+
+	/**
+	 * This method returns the number of the first record of the task with index 't'.
+	 * 	The records of the task are the ones from getRecordIndex(t) up to getRecordIndex(t + 1).
+	 * @param t is the index of the task, or the number of tasks for the end of the records
+	 * @return the number of the record
+	 */
+	long getRecordIndex(int t) {
+		return getLong(indexStart + 8L * t);
+	}
+
+	/**
+	 * This method returns the opcode of the activity of the record 'record'.
+	 * @param record is the number of the record
+	 * @return the opcode of the activity type
+	 */
+	byte getRecordType(long record) {
+		return (byte) getInt(recordsStart + record * Task.RECORD_SIZE + Task.TYPE);
+	}
+
+	/**
+	 * This method returns the index of the resource type of the activity of the record 'record'.
+	 * @param record is the number of the record
+	 * @return the index of the resource type, i.e. resource type 1 has an index of 0
+	 */
+	int getRecordResource(long record) {
+		return getInt(recordsStart + record * Task.RECORD_SIZE + Task.RESOURCE);
+	}
+
+	/**
+	 * This method adds up the number of activities of each task.
+	 * @param counts is the number of activities of each task
+	 * @return the number of activities of all the tasks
+	 */
+	private static long countActivities(long[] counts) {
+		long total = 0;
+		for (long count: counts) {
+			total += count;
+		}
+		return total;
+	}
+
+	/**
+	 * This method works out the index from the number of activities of each task.
+	 * @param counts is the number of activities of each task
+	 * @return the number of the first record of each task, plus the total number of records at the end,
+	 * 	which are used as the cursors of the tasks while the records are written
+	 */
+	private long[] layOut(long[] counts) {
+		long[] next = new long[numTasks + 1];
+		for (int t = 0; t < numTasks; t ++) {
+			next[t + 1] = next[t] + counts[t];
+		}
+		return next;
+	}
+
+	/**
+	 * This method writes the header, the index, and the claims.
+	 * @param counts is the number of activities of each task
+	 * @param claims is the initial claim of each task for each resource type, R values per task
+	 */
+	private void writeHeader(long[] counts, int[] claims) {
+		putInt(0, MAGIC);
+		putInt(4, VERSION);
+		putInt(8, numTasks);
+		putInt(12, numResources);
+		for (int r = 0; r < numResources; r ++) {
+			putInt(16 + 4L * r, units[r]);
+		}
+		long first = 0;
+		for (int t = 0; t <= numTasks; t ++) {
+			putLong(indexStart + 8L * t, first);
+			if (t < numTasks) {
+				first += counts[t];
+			}
+		}
+		for (int i = 0; i < claims.length; i ++) {
+			putInt(claimsStart + 4L * i, claims[i]);
+		}
+	}
+
+	/**
+	 * This method writes the next record of the task 't' and moves its cursor on.
+	 * @param next is the number of the next record of each task
+	 * @param t is the index of the task
+	 * @param type is the opcode of the activity type
+	 * @param delay is the delay of the activity
+	 * @param resource is the index of the resource type of the activity
+	 * @param amount is the initial claim, or the number of units requested/released, of the activity
+	 */
+	private void putRecord(long[] next, int t, byte type, int delay, int resource, int amount) {
+		long at = recordsStart + next[t] * Task.RECORD_SIZE;
+		next[t] ++;
+		Task.putRecord(segments[(int) (at / SEGMENT_SIZE)], (int) (at % SEGMENT_SIZE), type, delay, resource, amount);
+	}
+
+	/**
+	 * This method hands the task 'task' its records, which are the bytes from 'from' up to 'to' of the trace:
+	 * 	the segment holding them, unless they cross the end of a segment, in which case a copy of them.
+	 * @param task is the task
+	 * @param from is the offset of the first byte
+	 * @param to is the offset after the last byte
+	 */
+	private void setActivities(Task task, long from, long to) {
+		int count = (int) ((to - from) / Task.RECORD_SIZE);
+		if (from == to) {
+			task.setActivities(Task.NO_RECORDS, 0, 0); //the task has no activities
+			return;
+		}
+		ByteBuffer segment = segments[(int) (from / SEGMENT_SIZE)];
+		int start = (int) (from % SEGMENT_SIZE);
+		if (start + (to - from) <= segment.capacity()) {
+			task.setActivities(segment, start, count);
+			return;
+		}
+		//the records cross the end of a segment, so copy them
+		ByteBuffer copy = ByteBuffer.allocate((int) (to - from)).order(ByteOrder.LITTLE_ENDIAN);
+		for (long at = from; at < to; at += 4) {
+			copy.putInt((int) (at - from), getInt(at));
+		}
+		task.setActivities(copy, 0, count);
+	}
+
+	/**
+	 * This method returns the index of a task-number, checking that it is in range.
+	 * @param task is the task-number
+	 * @return the index of the task
+	 * @throws IllegalArgumentException if there is no such task
+	 */
+	private int indexOf(int task) {
+		if (task < 1 || task > numTasks) {
+			throw new IllegalArgumentException("Task-number " + task + " is out of range (the tasks are numbered 1 to " + numTasks + ")");
+		}
+		return task - 1;
+	}
+
+	/**
+	 * This method returns the index of the resource type 'resourceType', which is given by an activity other than a terminate.
+	 * @param resourceType is the resource type, i.e. resource type 1 is given as 1
+	 * @return the index of the resource type
+	 * @throws IllegalArgumentException if there is no such resource type
+	 */
+	private int resourceIndexOf(int resourceType) {
+		if (resourceType < 1 || resourceType > numResources) {
+			throw new IllegalArgumentException("Resource type " + resourceType + " is out of range (the resource types are numbered 1 to " + numResources + ")");
+		}
+		return resourceType - 1;
+	}
+
+	/**
+	 * This method checks that the task with index 't' has activities, and that the last of them is a terminate,
+	 * 	since a task is run until it terminates.
+	 * @param t is the index of the task
+	 * @param count is the number of activities of the task
+	 * @param lastType is the opcode of the last activity of the task
+	 * @throws IllegalArgumentException if the task has no activities or does not end with a terminate
+	 */
+	private static void checkTask(int t, long count, byte lastType) {
+		if (count == 0) {
+			throw new IllegalArgumentException("Task " + (t + 1) + " has no activities");
+		} else if (lastType != Task.TERMINATE) {
+			throw new IllegalArgumentException("Task " + (t + 1) + " does not end with a terminate");
+		}
+	}
+
+	/**
+	 * This method maps the first 'size' bytes of a file as little-endian segments.
+	 * @param channel is the channel of the file
+	 * @param mode is the mode of the mapping
+	 * @param size is the number of bytes to map
+	 * @return the segments
+	 * @throws IOException if the file cannot be mapped
+	 */
+	private static ByteBuffer[] map(FileChannel channel, FileChannel.MapMode mode, long size) throws IOException {
+		ByteBuffer[] segments = new ByteBuffer[(int) ((size + SEGMENT_SIZE - 1) / SEGMENT_SIZE)];
+		for (int s = 0; s < segments.length; s ++) {
+			long start = s * SEGMENT_SIZE;
+			segments[s] = channel.map(mode, start, Math.min(SEGMENT_SIZE, size - start)).order(ByteOrder.LITTLE_ENDIAN);
+		}
+		return segments;
+	}
+
+	/**
+	 * This method allocates 'size' bytes on the heap as little-endian segments.
+	 * @param size is the number of bytes
+	 * @return the segments
+	 */
+	private static ByteBuffer[] allocate(long size) {
+		ByteBuffer[] segments = new ByteBuffer[(int) ((size + SEGMENT_SIZE - 1) / SEGMENT_SIZE)];
+		for (int s = 0; s < segments.length; s ++) {
+			segments[s] = ByteBuffer.allocate((int) Math.min(SEGMENT_SIZE, size - s * SEGMENT_SIZE)).order(ByteOrder.LITTLE_ENDIAN);
+		}
+		return segments;
+	}
+
+	/**
+	 * This method makes sure the segments hold at least 'size' bytes, doubling their size if they do not.
+	 * @param size is the number of bytes
+	 */
+	private void reserve(long size) {
+		long capacity = (segments.length - 1) * SEGMENT_SIZE + segments[segments.length - 1].capacity();
+		if (size > capacity) {
+			resize(Math.max(size, capacity * 2));
+		}
+	}
+
+	/**
+	 * This method makes the segments hold exactly 'size' bytes, keeping the bytes they already hold up to that size.
+	 * 	Only a segment whose size changes is copied, so the full segments are never copied while the trace grows.
+	 * @param size is the number of bytes
+	 */
+	private void resize(long size) {
+		ByteBuffer[] resized = Arrays.copyOf(segments, (int) ((size + SEGMENT_SIZE - 1) / SEGMENT_SIZE));
+		for (int s = 0; s < resized.length; s ++) {
+			int capacity = (int) Math.min(SEGMENT_SIZE, size - s * SEGMENT_SIZE);
+			if (resized[s] == null || resized[s].capacity() != capacity) {
+				ByteBuffer segment = ByteBuffer.allocate(capacity).order(ByteOrder.LITTLE_ENDIAN);
+				if (resized[s] != null) {
+					ByteBuffer bytes = resized[s].duplicate();
+					bytes.clear().limit(Math.min(bytes.capacity(), capacity));
+					segment.put(bytes).clear();
+				}
+				resized[s] = segment;
+			}
+		}
+		segments = resized;
+	}
+
+	/**
+	 * This method rounds 'offset' up to a multiple of 'alignment'.
+	 * @param offset is the offset
+	 * @param alignment is the alignment
+	 * @return the aligned offset
+	 */
+	private static long align(long offset, int alignment) {
+		return (offset + alignment - 1) / alignment * alignment;
+	}
+
+	/**
+	 * This method reads the int at the offset 'at' of the trace.
+	 * @param at is the offset
+	 * @return the int
+	 */
+	private int getInt(long at) {
+		return segments[(int) (at / SEGMENT_SIZE)].getInt((int) (at % SEGMENT_SIZE));
+	}
+
+	/**
+	 * This method reads the long at the offset 'at' of the trace.
+	 * @param at is the offset
+	 * @return the long
+	 */
+	private long getLong(long at) {
+		return segments[(int) (at / SEGMENT_SIZE)].getLong((int) (at % SEGMENT_SIZE));
+	}
+
+	/**
+	 * This method writes the int 'value' at the offset 'at' of the trace.
+	 * @param at is the offset
+	 * @param value is the int
+	 */
+	private void putInt(long at, int value) {
+		segments[(int) (at / SEGMENT_SIZE)].putInt((int) (at % SEGMENT_SIZE), value);
+	}
+
+	/**
+	 * This method writes the long 'value' at the offset 'at' of the trace.
+	 * @param at is the offset
+	 * @param value is the long
+	 */
+	private void putLong(long at, long value) {
+		segments[(int) (at / SEGMENT_SIZE)].putLong((int) (at % SEGMENT_SIZE), value);
+	}
+
+}
@@ -0,0 +1,142 @@
+import java.io.*;
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * The ComponentSimulation class runs the Optimistic resource manager on the independent components of a workload at the same time,
+ * 	each group of components on its own thread, and puts their results together into the results of one manager of all the tasks.
+ * Two tasks that never request or release a common resource type cannot affect each other under the Optimistic resource manager
+ * 	(see TaskComponents), and tasks of different components only meet in the order in which they are visited,
+ * 	which keeps the tasks of each component in the same order among themselves.
+ * 	So the manager of a group of components gives each of its tasks the same results as the manager of all the tasks,
+ * 	as long as deadlocks are detected among a subset of the tasks: the deadlocks found are then the deadlocks of each component,
+ * 	while a deadlock found only when no task at all can make progress ties the components together.
+ * 	(The Banker's algorithm is not split up either, since the task it aborts for a request exceeding its claim
+ * 	 keeps the task after it from being visited in the same cycle.)
+ * The components are packed into a few more groups than there are threads, of about the same number of activities,
+ * 	so the threads finish at about the same time; a workload of one component is simply run on this thread.
+ * 	The groups are run on a ForkJoinPool of their own, unless this thread already belongs to one (as in batch mode),
+ * 	 in which case they are forked into that pool, so no more threads are started than the pool has.
+ * The errors of the groups are put together in the order one manager of all the tasks would have found them (see EventLog.merge()).
+ *
+ * @author gayeonpark
+ *
+ */
+public class ComponentSimulation {
+
+	private static final int GROUPS_PER_THREAD = 4; //represents the number of groups of components for each thread
+
+	private Workload workload; //represents the parsed input
+	private int threads; //represents the number of groups simulated at the same time, i.e. the parallelism level of the pool they run on
+	private VictimPolicy victims; //represents how the task aborted to resolve a deadlock is chosen
+	private GrantPolicy grants; //represents the order in which the blocked requests are looked at
+
+	private EventLog events; //represents the errors of every group, put together
+	private ArrayList<Task> tasksFinalized; //represents every task, ordered by its index in the workload
+
+	/**
+	 * This constructor sets up the simulation of the workload 'workload' on 'threads' threads.
+	 * @param workload is the parsed input
+	 * @param threads is the number of groups simulated at the same time
+	 */
+	ComponentSimulation(Workload workload, int threads) {
+		this.workload = workload;
+		this.threads = threads;
+		victims = VictimPolicy.LOWEST_INDEX;
+		grants = GrantPolicy.FIFO;
+	}
+
+	/**
+	 * This method sets how the task aborted to resolve a deadlock is chosen in every group.
+	 * @param victims is the VictimPolicy
+	 */
+	void setVictimPolicy(VictimPolicy victims) {
+		this.victims = victims;
+	}
+
+	/**
+	 * This method sets the order in which the blocked requests are looked at in every group.
+	 * @param grants is the GrantPolicy
+	 */
+	void setGrantPolicy(GrantPolicy grants) {
+		this.grants = grants;
+	}
+
+	/**
+	 * This method splits the workload into its components, runs a manager for each group of them, and puts their results together.
+	 */
+	public void run() {
+		int[][] groups = TaskComponents.of(workload).pack(GROUPS_PER_THREAD * threads);
+
+		//a single group is just the whole workload
+		if (groups.length <= 1) {
+			OptimisticManager manager = createManager(workload);
+			manager.run();
+			events = manager.events;
+			tasksFinalized = manager.tasksFinalized;
+			return;
+		}
+
+		ForkJoinPool pool = ForkJoinTask.inForkJoinPool() ? null : new ForkJoinPool(Math.min(threads, groups.length));
+		List<ForkJoinTask<OptimisticManager>> runs = new ArrayList<>();
+		try {
+			for (int[] group: groups) {
+				ForkJoinTask<OptimisticManager> run = ForkJoinTask.adapt(() -> {
+					OptimisticManager manager = createManager(workload.subset(group));
+					manager.run();
+					return manager;
+				});
+				runs.add(pool == null ? run.fork() : pool.submit(run));
+			}
+
+			//put the tasks of each group back in their places, and the errors in order
+			tasksFinalized = new ArrayList<>(Collections.nCopies(workload.getNumTasks(), (Task) null));
+			List<EventLog> logs = new ArrayList<>();
+			for (int g = 0; g < groups.length; g ++) {
+				OptimisticManager manager = runs.get(g).get();
+				for (int i = 0; i < groups[g].length; i ++) {
+					tasksFinalized.set(groups[g][i], manager.tasksFinalized.get(i));
+				}
+				logs.add(manager.events);
+			}
+			events = EventLog.merge(logs);
+			for (EventLog log: logs) {
+				log.close();
+			}
+		} catch (ExecutionException e) { //the manager of a group failed, so pass its error on
+			throw new RuntimeException(e.getCause());
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		} finally {
+			//the groups not run yet are not needed if one of them failed
+			for (ForkJoinTask<OptimisticManager> run: runs) {
+				run.cancel(true);
+			}
+			if (pool != null) {
+				pool.shutdownNow();
+			}
+		}
+	}
+
+	/**
+	 * This method creates the manager of the tasks of 'workload', which detects deadlocks among a subset of the tasks.
+	 * @param workload is the parsed input, or a subset of it
+	 * @return the OptimisticManager
+	 */
+	private OptimisticManager createManager(Workload workload) {
+		OptimisticManager manager = new OptimisticManager(workload, true);
+		manager.setVictimPolicy(victims);
+		manager.setGrantPolicy(grants);
+		return manager;
+	}
+
+	/**
+	 * This method prints the errors and the results of every task, followed by the totals, to 'out',
+	 * 	just like the Optimistic resource manager of all the tasks does.
+	 * @param out is where the output is written
+	 */
+	public void printResults(PrintStream out) {
+		ResourceManager.printResults(out, OptimisticManager.TITLE, events, tasksFinalized);
+	}
+
+}
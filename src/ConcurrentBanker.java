@@ -0,0 +1,580 @@
+import java.util.*;
+import java.util.concurrent.atomic.*;
+import java.util.concurrent.locks.*;
+
+/**
+ * The ConcurrentBanker class runs the Banker's algorithm of Dijkstra live, for many client threads,
+ * 	without one lock around the whole state the way ResourceService does.
+ * Clients call initiate(task, claims), request(task, resourceType, units), release(task, resourceType, units), and terminate(task),
+ * 	numbering tasks and resource types from 1 as in the input files. Each task is expected to be driven by one thread at a time.
+ *
+ * The state is striped by resource type: the units available of a resource type, and the column of the Allocation and Need matrices
+ * 	for it, are guarded by a StampedLock of their own, so releases of different resource types never get in each other's way.
+ * A request runs the safety check optimistically: it reads the state without locking, under an optimistic stamp of every stripe,
+ * 	and then validates the stamps, so a check that raced with a write is thrown away.
+ * To commit, the stripe of the resource type requested is locked (only if it has not changed since it was read),
+ * 	and a version stamp counting the grants is moved on with a compare-and-set.
+ * Releases and terminations can only make a state safer, so they do not move the version stamp;
+ * 	only a grant can make another grant unsafe, and two grants checked against the same version can never both commit.
+ * On any conflict the request falls back to locking every stripe, in index order, and checks again while nothing can change.
+ * Initiating, terminating, and aborting a task also lock every stripe, since they change a whole row of the matrices.
+ *
+ * The safety check walks the tasks in the order of the last safe sequence found, which is shared by all the threads,
+ * 	so it usually succeeds in a single pass, the same way the SafetyChecker does.
+ * A request that cannot be granted (there are not enough units, or the state after it would not be safe) waits until units are handed back.
+ *
+ * @author gayeonpark
+ *
+ */
+public class ConcurrentBanker {
+
+	//the states of a task
+	private static final byte IDLE = 0; //the task has not been initiated, or has terminated
+	private static final byte RUNNING = 1; //the task has been initiated
+	private static final byte ABORTED = 2; //the task has been aborted
+
+	/**
+	 * The Scratch class is the working memory of the safety check of one thread.
+	 */
+	private static final class Scratch {
+		final int[] work; //represents the units of each resource type available while building the safe sequence
+		final int[] finished; //represents the check in which each task has been placed in the safe sequence being built
+		int check; //represents the number of checks made by the thread, so 'finished' never has to be cleared
+		final int[] sequence; //represents the safe sequence being built
+		final long[] stamps; //represents the optimistic stamp of each stripe
+
+		/**
+		 * This constructor creates the working memory for 'numTasks' tasks and 'numResources' resource types.
+		 * @param numTasks is the number of tasks
+		 * @param numResources is the number of resource types
+		 */
+		Scratch(int numTasks, int numResources) {
+			work = new int[numResources];
+			finished = new int[numTasks];
+			sequence = new int[numTasks];
+			stamps = new long[numResources];
+		}
+	}
+
+	private final int numTasks; //represents the number of task-numbers
+	private final int numResources; //represents the number of resource types
+	private final int[] unitsPresent; //represents the units present of each resource type
+	private final int[] available; //represents the units of each resource type available, each guarded by its stripe
+	private final int[][] allocation; //represents the units of each resource type held by each task, each column guarded by its stripe
+	private final int[][] need; //represents the units of each resource type each task may still request, each column guarded by its stripe
+	private final byte[] states; //represents the state of each task, guarded by every stripe
+	private int liveTasks; //represents the number of running tasks, guarded by every stripe
+	private final StampedLock[] stripes; //represents the lock of each resource type
+	private final AtomicLong grantVersion = new AtomicLong(); //represents the number of grants committed, moved on by every grant
+	private volatile int[] lastSequence; //represents the last safe sequence found, which holds every task index once
+	private final ThreadLocal<Scratch> scratch; //represents the working memory of the safety check of each thread
+
+	private final AtomicLong handedBack = new AtomicLong(); //represents the number of times units have been handed back
+	private final AtomicInteger waiters = new AtomicInteger(); //represents the number of threads waiting for units to be handed back
+	private final Object monitor = new Object(); //this is used for waking up the waiting threads
+
+	private final LongAdder optimisticGrants = new LongAdder(); //represents the number of grants committed without locking every stripe
+	private final LongAdder lockedGrants = new LongAdder(); //represents the number of grants committed after falling back to every stripe
+
+	/**
+	 * This constructor creates a Banker for the tasks numbered 1 to 'numTasks' and the units of each resource type given.
+	 * @param numTasks is the number of task-numbers
+	 * @param units is the units present of each resource type, i.e. resource type 1 has an index of 0
+	 */
+	public ConcurrentBanker(int numTasks, int[] units) {
+		this.numTasks = numTasks;
+		this.numResources = units.length;
+		unitsPresent = units.clone();
+		available = units.clone();
+		allocation = new int[numTasks][numResources];
+		need = new int[numTasks][numResources];
+		states = new byte[numTasks];
+		liveTasks = 0;
+		stripes = new StampedLock[numResources];
+		for (int r = 0; r < numResources; r ++) {
+			stripes[r] = new StampedLock();
+		}
+		int[] sequence = new int[numTasks];
+		for (int t = 0; t < numTasks; t ++) {
+			sequence[t] = t;
+		}
+		lastSequence = sequence;
+		scratch = ThreadLocal.withInitial(() -> new Scratch(numTasks, numResources));
+	}
+
+	/**
+	 * This method starts the task 'task' with its claim for each resource type.
+	 * The task is aborted if a claim exceeds the units present.
+	 * @param task is the task-number
+	 * @param claims is the claim of the task for each resource type, i.e. resource type 1 has an index of 0
+	 * @throws IllegalStateException if the task is running, or it has been aborted because a claim exceeds the units present
+	 */
+	public void initiate(int task, int[] claims) {
+		int t = indexOf(task);
+		if (claims.length != numResources) {
+			throw new IllegalArgumentException("Expected a claim for each of the " + numResources + " resource types");
+		}
+		long[] stamps = lockAll();
+		try {
+			if (states[t] == RUNNING) {
+				throw new IllegalStateException("Task " + task + " is already running");
+			}
+			for (int r = 0; r < numResources; r ++) {
+				if (claims[r] > unitsPresent[r]) {
+					states[t] = ABORTED;
+					throw new IllegalStateException("Banker aborts task " + task + ": its claim for resource " + (r + 1)
+							+ " (" + claims[r] + ") exceeds number of units present (" + unitsPresent[r] + ")");
+				}
+			}
+			//a task holding nothing whose claim fits in the units present can always finish last, so the state stays safe
+			for (int r = 0; r < numResources; r ++) {
+				allocation[t][r] = 0;
+				need[t][r] = claims[r];
+			}
+			states[t] = RUNNING;
+			liveTasks ++;
+		} finally {
+			unlockAll(stamps);
+		}
+	}
+
+	/**
+	 * This method requests 'units' units of the resource type 'resourceType' for the task 'task',
+	 * 	and waits until the units are available and granting them leaves the state safe.
+	 * The task is aborted if the request exceeds its claim.
+	 * @param task is the task-number
+	 * @param resourceType is the resource type, i.e. resource type 1 is given as 1
+	 * @param units is the number of units requested
+	 * @throws InterruptedException if the thread has been interrupted while waiting
+	 * @throws IllegalStateException if the task is not running, or it has been aborted
+	 */
+	public void request(int task, int resourceType, int units) throws InterruptedException {
+		int t = indexOf(task);
+		int r = resourceOf(resourceType);
+		if (units < 0) {
+			throw new IllegalArgumentException("Task " + task + " cannot request " + units + " units");
+		}
+		Scratch s = scratch.get();
+		while (true) {
+			long seen = handedBack.get();
+			if (tryOptimisticGrant(t, r, units, s) || tryLockedGrant(task, t, r, units, s)) {
+				return;
+			}
+			awaitHandBack(seen);
+		}
+	}
+
+	/**
+	 * This method hands back 'units' units of the resource type 'resourceType' held by the task 'task'.
+	 * The units released may be requested again, i.e. they go back to the claim of the task.
+	 * Only the stripe of the resource type is locked.
+	 * @param task is the task-number
+	 * @param resourceType is the resource type, i.e. resource type 1 is given as 1
+	 * @param units is the number of units released
+	 * @throws IllegalArgumentException if the task does not hold that many units
+	 * @throws IllegalStateException if the task is not running, or it has been aborted
+	 */
+	public void release(int task, int resourceType, int units) {
+		int t = indexOf(task);
+		int r = resourceOf(resourceType);
+		long stamp = stripes[r].writeLock();
+		try {
+			checkRunning(t, task);
+			if (units < 0 || units > allocation[t][r]) {
+				throw new IllegalArgumentException("Task " + task + " cannot release " + units + " units of resource " + resourceType
+						+ " since it holds " + allocation[t][r]);
+			}
+			allocation[t][r] -= units;
+			need[t][r] += units;
+			available[r] += units;
+		} finally {
+			stripes[r].unlockWrite(stamp);
+		}
+		wakeWaiters();
+	}
+
+	/**
+	 * This method ends the task 'task', handing back every unit it still holds.
+	 * Terminating a task that has been aborted just forgets about it.
+	 * @param task is the task-number
+	 * @throws IllegalStateException if the task has not been initiated
+	 */
+	public void terminate(int task) {
+		int t = indexOf(task);
+		long[] stamps = lockAll();
+		try {
+			if (states[t] == ABORTED) {
+				states[t] = IDLE;
+				return;
+			}
+			checkRunning(t, task);
+			retire(t);
+			states[t] = IDLE;
+		} finally {
+			unlockAll(stamps);
+		}
+		wakeWaiters();
+	}
+
+	/**
+	 * This method returns the units of the resource type 'resourceType' that are not held by any task.
+	 * @param resourceType is the resource type, i.e. resource type 1 is given as 1
+	 * @return the number of units available
+	 */
+	public int getAvailable(int resourceType) {
+		int r = resourceOf(resourceType);
+		long stamp = stripes[r].readLock();
+		try {
+			return available[r];
+		} finally {
+			stripes[r].unlockRead(stamp);
+		}
+	}
+
+	/**
+	 * This method returns the units of the resource type 'resourceType' held by the task 'task'.
+	 * @param task is the task-number
+	 * @param resourceType is the resource type, i.e. resource type 1 is given as 1
+	 * @return the number of units held
+	 */
+	public int getUnitsHeld(int task, int resourceType) {
+		int t = indexOf(task);
+		int r = resourceOf(resourceType);
+		long stamp = stripes[r].readLock();
+		try {
+			return allocation[t][r];
+		} finally {
+			stripes[r].unlockRead(stamp);
+		}
+	}
+
+	/**
+	 * This method returns the number of grants committed on the optimistic path, without locking every stripe.
+	 * @return the number of grants
+	 */
+	public long getOptimisticGrants() {
+		return optimisticGrants.sum();
+	}
+
+	/**
+	 * This method returns the number of grants committed after falling back to locking every stripe.
+	 * @return the number of grants
+	 */
+	public long getLockedGrants() {
+		return lockedGrants.sum();
+	}
+
+	/**
+	 * This method tries to grant the request without locking every stripe.
+	 * It reads the state under an optimistic stamp of every stripe and checks it, then validates the stamps,
+	 * 	upgrades the stamp of the stripe requested to a write lock, and moves the version stamp of the grants on.
+	 * @param t is the index of the task
+	 * @param r is the index of the resource type
+	 * @param units is the number of units requested
+	 * @param s is the working memory of the thread
+	 * @return true if the request has been granted,
+	 * 	false if it has to be decided with every stripe locked (there has been a conflict, or the request cannot be granted now)
+	 */
+	private boolean tryOptimisticGrant(int t, int r, int units, Scratch s) {
+		long version = grantVersion.get();
+		long[] stamps = s.stamps;
+		for (int rr = 0; rr < numResources; rr ++) {
+			stamps[rr] = stripes[rr].tryOptimisticRead();
+			if (stamps[rr] == 0) {
+				return false; //a stripe is being written
+			}
+		}
+
+		//what is read here may be torn by a concurrent write, so nothing is trusted until the stamps are validated
+		boolean grantable = states[t] == RUNNING && units <= need[t][r] && units <= available[r] && isSafeAfter(t, r, units, s);
+		for (int rr = 0; rr < numResources; rr ++) {
+			if (!stripes[rr].validate(stamps[rr])) {
+				return false;
+			}
+		}
+		if (!grantable) {
+			return false;
+		}
+
+		//commit, as long as the stripe requested has not been written and no other grant has committed since the check
+		long stamp = stripes[r].tryConvertToWriteLock(stamps[r]);
+		if (stamp == 0) {
+			return false;
+		}
+		try {
+			if (!grantVersion.compareAndSet(version, version + 1)) {
+				return false;
+			}
+			grant(t, r, units);
+		} finally {
+			stripes[r].unlockWrite(stamp);
+		}
+		optimisticGrants.increment();
+		return true;
+	}
+
+	/**
+	 * This method decides the request with every stripe locked, so nothing can change while it is checked.
+	 * @param task is the task-number
+	 * @param t is the index of the task
+	 * @param r is the index of the resource type
+	 * @param units is the number of units requested
+	 * @param s is the working memory of the thread
+	 * @return true if the request has been granted, false if the task has to wait
+	 * @throws IllegalStateException if the task is not running, or it has been aborted because the request exceeds its claim
+	 */
+	private boolean tryLockedGrant(int task, int t, int r, int units, Scratch s) {
+		long[] stamps = lockAll();
+		try {
+			checkRunning(t, task);
+			if (units > need[t][r]) {
+				//HANDLE the error where the request exceeds the claim, by aborting the task
+				retire(t);
+				states[t] = ABORTED;
+				wakeWaiters();
+				throw new IllegalStateException("Banker aborts task " + task + ": its request of " + units
+						+ " units of resource " + (r + 1) + " exceeds its claim");
+			}
+			if (units > available[r] || !isSafeAfter(t, r, units, s)) {
+				return false;
+			}
+			grantVersion.incrementAndGet();
+			grant(t, r, units);
+		} finally {
+			unlockAll(stamps);
+		}
+		lockedGrants.increment();
+		return true;
+	}
+
+	/**
+	 * This method grants 'units' units of the resource type 'r' to the task 't'.
+	 * The stripe of the resource type must be write-locked.
+	 * @param t is the index of the task
+	 * @param r is the index of the resource type
+	 * @param units is the number of units granted
+	 */
+	private void grant(int t, int r, int units) {
+		available[r] -= units;
+		allocation[t][r] += units;
+		need[t][r] -= units;
+	}
+
+	/**
+	 * This method checks if the state would be safe after granting 'units' units of the resource type 'r' to the task 't',
+	 * 	without changing the state.
+	 * The last safe sequence is walked first; the tasks that do not fit where they are in it are tried again until none fits.
+	 * If the check succeeds in a different order, the new safe sequence is shared with the other threads.
+	 * When the state is read optimistically it may be torn, and the answer is only trusted once the stamps have been validated.
+	 * @param t is the index of the task
+	 * @param r is the index of the resource type
+	 * @param units is the number of units requested
+	 * @param s is the working memory of the thread
+	 * @return true if there is a safe sequence after the grant
+	 */
+	private boolean isSafeAfter(int t, int r, int units, Scratch s) {
+		int[] work = s.work;
+		int[] finished = s.finished;
+		if (++ s.check == 0) {
+			//the count wrapped around, so the old marks could be mistaken for this check
+			Arrays.fill(finished, 0);
+			s.check = 1;
+		}
+		int check = s.check;
+		int[] sequence = s.sequence;
+		int[] last = lastSequence;
+
+		for (int rr = 0; rr < numResources; rr ++) {
+			work[rr] = available[rr];
+		}
+		work[r] -= units;
+		int toPlace = liveTasks;
+		int placed = 0;
+		boolean sameOrder = true;
+
+		//walk the last safe sequence, and keep walking over what is left until a pass places nothing
+		boolean progress = true;
+		while (progress && placed < toPlace) {
+			progress = false;
+			for (int i = 0; i < numTasks; i ++) {
+				int u = last[i];
+				if (finished[u] == check || states[u] != RUNNING) {
+					continue;
+				}
+				if (fits(u, t, r, units, work)) {
+					finished[u] = check;
+					giveBack(u, t, r, units, work);
+					sequence[placed ++] = u;
+					progress = true;
+				} else {
+					sameOrder = false;
+				}
+			}
+		}
+		if (placed < toPlace) {
+			return false;
+		}
+
+		if (!sameOrder) {
+			//share the new order, with the tasks that are not running kept after the running ones
+			int[] next = new int[numTasks];
+			System.arraycopy(sequence, 0, next, 0, placed);
+			int n = placed;
+			for (int i = 0; i < numTasks; i ++) {
+				if (finished[last[i]] != check) {
+					next[n ++] = last[i];
+				}
+			}
+			if (n == numTasks) {
+				lastSequence = next;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * This method checks if the need of the task 'u' for every resource type fits in 'work',
+	 * 	as if the request of the task 't' had been granted.
+	 * @param u is the index of the task checked
+	 * @param t is the index of the requesting task
+	 * @param r is the index of the resource type requested
+	 * @param units is the number of units requested
+	 * @param work is the units of each resource type available
+	 * @return true if the task can be given its remaining claim
+	 */
+	private boolean fits(int u, int t, int r, int units, int[] work) {
+		int[] row = need[u];
+		for (int rr = 0; rr < numResources; rr ++) {
+			int n = (u == t && rr == r) ? row[rr] - units : row[rr];
+			if (n > work[rr]) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * This method adds the units held by the task 'u' to 'work', as if the request of the task 't' had been granted.
+	 * @param u is the index of the task that can finish
+	 * @param t is the index of the requesting task
+	 * @param r is the index of the resource type requested
+	 * @param units is the number of units requested
+	 * @param work is the units of each resource type available
+	 */
+	private void giveBack(int u, int t, int r, int units, int[] work) {
+		int[] row = allocation[u];
+		for (int rr = 0; rr < numResources; rr ++) {
+			work[rr] += (u == t && rr == r) ? row[rr] + units : row[rr];
+		}
+	}
+
+	/**
+	 * This method hands back every unit held by the task 't' and makes it not running.
+	 * Every stripe must be locked.
+	 * @param t is the index of the task
+	 */
+	private void retire(int t) {
+		for (int r = 0; r < numResources; r ++) {
+			available[r] += allocation[t][r];
+			allocation[t][r] = 0;
+			need[t][r] = 0;
+		}
+		states[t] = IDLE;
+		liveTasks --;
+	}
+
+	/**
+	 * This method waits until units have been handed back since 'seen' was read.
+	 * @param seen is the number of hand-backs before the request was checked
+	 * @throws InterruptedException if the thread has been interrupted while waiting
+	 */
+	private void awaitHandBack(long seen) throws InterruptedException {
+		waiters.incrementAndGet();
+		try {
+			synchronized (monitor) {
+				while (handedBack.get() == seen) {
+					monitor.wait();
+				}
+			}
+		} finally {
+			waiters.decrementAndGet();
+		}
+	}
+
+	/**
+	 * This method records that units have been handed back, and wakes up the waiting threads if there are any.
+	 * The monitor is only taken when a thread is waiting, so a release without waiters touches no shared lock.
+	 */
+	private void wakeWaiters() {
+		handedBack.incrementAndGet();
+		if (waiters.get() > 0) {
+			synchronized (monitor) {
+				monitor.notifyAll();
+			}
+		}
+	}
+
+	/**
+	 * This method write-locks every stripe, in index order so two threads locking every stripe cannot deadlock.
+	 * @return the stamp of each stripe
+	 */
+	private long[] lockAll() {
+		long[] stamps = new long[numResources];
+		for (int r = 0; r < numResources; r ++) {
+			stamps[r] = stripes[r].writeLock();
+		}
+		return stamps;
+	}
+
+	/**
+	 * This method unlocks every stripe locked by lockAll.
+	 * @param stamps is the stamp of each stripe
+	 */
+	private void unlockAll(long[] stamps) {
+		for (int r = numResources - 1; r >= 0; r --) {
+			stripes[r].unlockWrite(stamps[r]);
+		}
+	}
+
+	/**
+	 * This method checks that the task 't' is running.
+	 * @param t is the index of the task
+	 * @param task is the task-number
+	 * @throws IllegalStateException otherwise
+	 */
+	private void checkRunning(int t, int task) {
+		if (states[t] == RUNNING) {
+			return;
+		} else if (states[t] == ABORTED) {
+			throw new IllegalStateException("Task " + task + " has been aborted");
+		}
+		throw new IllegalStateException("Task " + task + " has not been initiated");
+	}
+
+	/**
+	 * This method returns the index of a task-number.
+	 * @param task is the task-number
+	 * @return the index of the task
+	 * @throws IllegalArgumentException if there is no such task
+	 */
+	private int indexOf(int task) {
+		if (task < 1 || task > numTasks) {
+			throw new IllegalArgumentException("No task " + task + " (the tasks are numbered 1 to " + numTasks + ")");
+		}
+		return task - 1;
+	}
+
+	/**
+	 * This method returns the index of a resource type.
+	 * @param resourceType is the resource type, i.e. resource type 1 is given as 1
+	 * @return the index of the resource type
+	 * @throws IllegalArgumentException if there is no such resource type
+	 */
+	private int resourceOf(int resourceType) {
+		if (resourceType < 1 || resourceType > numResources) {
+			throw new IllegalArgumentException("No resource " + resourceType + " (the resource types are numbered 1 to " + numResources + ")");
+		}
+		return resourceType - 1;
+	}
+
+}
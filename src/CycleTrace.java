@@ -0,0 +1,290 @@
+import java.io.*;
+import java.util.*;
+
+/**
+ * The CycleTrace class writes the cycle-by-cycle trace of a manager, in the format of the detailed outputs in "Lab3_outputs":
+ * 	every cycle starts with a "During a - b" line, followed by one line for every task visited in it, in the order they are visited.
+ * 	If some tasks are blocked at the start of a cycle, the cycle starts with "First check blocked tasks:",
+ * 	 and a blocked task whose request still cannot be granted is indented under it.
+ * The lines are streamed into a large byte buffer, which is written to the output stream whenever it fills up,
+ * 	so a trace of millions of cycles is never kept in memory, and no String is built for a line.
+ * A manager always has a CycleTrace; the one given by CycleTrace.OFF writes nothing,
+ * 	and each of its methods returns right away, so a manager that is not traced does no more work than before.
+ *
+ * @author gayeonpark
+ *
+ */
+public class CycleTrace {
+
+	//the trace that writes nothing
+	static final CycleTrace OFF = new CycleTrace(null);
+
+	private OutputStream out; //represents where the trace is written, or null if nothing is written
+	private byte[] buffer; //represents the bytes not written to 'out' yet
+	private int length; //represents the number of bytes in the buffer
+	private BitSet waiting; //represents the indices of the tasks whose request is blocked
+
+	/**
+	 * This constructor creates a trace written to 'out'.
+	 * @param out is where the trace is written, or null if nothing is written
+	 */
+	CycleTrace(OutputStream out) {
+		this.out = out;
+		buffer = new byte[out == null ? 0 : 1 << 16];
+		length = 0;
+		waiting = new BitSet();
+	}
+
+	/**
+	 * This method tells if anything is written.
+	 * @return true if the trace is written to an output stream
+	 */
+	boolean isOn() {
+		return out != null;
+	}
+
+	/**
+	 * This method starts the cycle 'cycle', which is the time from 'cycle' - 1 to 'cycle'.
+	 * @param cycle is the cycle that starts
+	 */
+	void beginCycle(int cycle) {
+		if (out == null) {
+			return;
+		}
+		write("During  ");
+		writeInt(cycle - 1);
+		write(" - ");
+		writeInt(cycle);
+		writeByte('\n');
+		if (!waiting.isEmpty()) {
+			write("  First check blocked tasks:\n");
+		}
+	}
+
+	/**
+	 * This method writes that the task 't' completed an initiate.
+	 * @param t is the task
+	 */
+	void initiated(Task t) {
+		if (out == null) {
+			return;
+		}
+		writeTask(t);
+		write(" does initialization.\n");
+	}
+
+	/**
+	 * This method writes that the task 't' waited for the delay of its current activity.
+	 * @param t is the task
+	 * @param remaining is the number of cycles of the delay left, counting the current one
+	 */
+	void delayed(Task t, int remaining) {
+		if (out == null) {
+			return;
+		}
+		writeTask(t);
+		write(" delayed ");
+		writeInt(remaining);
+		write(".\n");
+	}
+
+	/**
+	 * This method writes that the request of the task 't' was granted.
+	 * @param t is the task
+	 * @param r is the index of the resource type
+	 * @param units is the number of units requested
+	 * @param remaining is the number of units of the resource type available after the grant
+	 */
+	void granted(Task t, int r, int units, int remaining) {
+		if (out == null) {
+			return;
+		}
+		waiting.clear(t.getIndex());
+		writeTask(t);
+		write(" completes its request (resource[");
+		writeInt(r + 1);
+		write("]: requested = ");
+		writeInt(units);
+		write(", remaining = ");
+		writeInt(remaining);
+		write(")\n");
+	}
+
+	/**
+	 * This method writes that the request of the task 't' could not be granted.
+	 * 	The first time, the request is written out (with the units available, or "unsafe" for the Banker's algorithm, as the detailed outputs do);
+	 * 	after that, only that the request still cannot be granted.
+	 * @param t is the task
+	 * @param r is the index of the resource type
+	 * @param units is the number of units requested
+	 * @param available is the number of units of the resource type available, or -1 if the request is not granted by the Banker's algorithm
+	 */
+	void blocked(Task t, int r, int units, int available) {
+		if (out == null) {
+			return;
+		}
+		if (waiting.get(t.getIndex())) {
+			write("  ");
+			writeTask(t);
+			write(" request still cannot be granted.\n");
+			return;
+		}
+		waiting.set(t.getIndex());
+		writeTask(t);
+		write(" waiting (resource[");
+		writeInt(r + 1);
+		write("]: requested = ");
+		writeInt(units);
+		if (available < 0) {
+			write(") unsafe\n");
+		} else {
+			write(", available = ");
+			writeInt(available);
+			write(")\n");
+		}
+	}
+
+	/**
+	 * This method writes that the task 't' released units.
+	 * @param t is the task
+	 * @param r is the index of the resource type
+	 * @param units is the number of units released
+	 * @param availableNext is the number of units of the resource type available next cycle
+	 */
+	void released(Task t, int r, int units, int availableNext) {
+		if (out == null) {
+			return;
+		}
+		writeTask(t);
+		write(" completes its release (resource[");
+		writeInt(r + 1);
+		write("]: released = ");
+		writeInt(units);
+		write(", available next cycle = ");
+		writeInt(availableNext);
+		write(")\n");
+	}
+
+	/**
+	 * This method writes that the task 't' terminated.
+	 * @param t is the task
+	 * @param delayed is true if the task waited for the delay of its terminate up to this cycle
+	 * @param cycle is the current cycle
+	 */
+	void terminated(Task t, boolean delayed, int cycle) {
+		if (out == null) {
+			return;
+		}
+		writeTask(t);
+		if (delayed) {
+			write(" delayed 1 and terminates (at ");
+			writeInt(cycle);
+			write(").\n");
+		} else {
+			write(" terminates.\n");
+		}
+	}
+
+	/**
+	 * This method writes that the task 't' has been aborted.
+	 * @param t is the task
+	 * @param reason is why the task has been aborted
+	 */
+	void aborted(Task t, String reason) {
+		if (out == null) {
+			return;
+		}
+		waiting.clear(t.getIndex());
+		writeTask(t);
+		write(" is aborted (");
+		write(reason);
+		write(")\n");
+	}
+
+	/**
+	 * This method writes what is left in the buffer to the output stream.
+	 */
+	void flush() {
+		if (out == null) {
+			return;
+		}
+		try {
+			out.write(buffer, 0, length);
+			length = 0;
+			out.flush();
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	/**
+	 * This method writes the start of a line about the task 't'.
+	 * @param t is the task
+	 */
+	private void writeTask(Task t) {
+		write("  Task ");
+		writeInt(t.getTaskNum());
+	}
+
+	/**
+	 * This method writes the text 's', which only holds ASCII characters.
+	 * @param s is the text
+	 */
+	private void write(String s) {
+		makeRoom(s.length());
+		for (int i = 0; i < s.length(); i ++) {
+			buffer[length ++] = (byte) s.charAt(i);
+		}
+	}
+
+	/**
+	 * This method writes one byte.
+	 * @param b is the byte
+	 */
+	private void writeByte(char b) {
+		makeRoom(1);
+		buffer[length ++] = (byte) b;
+	}
+
+	/**
+	 * This method writes the decimal digits of 'value'.
+	 * @param value is the number
+	 */
+	private void writeInt(int value) {
+		makeRoom(11);
+		if (value < 0) {
+			buffer[length ++] = '-';
+			value = -value;
+		}
+		int start = length;
+		do {
+			buffer[length ++] = (byte) ('0' + value % 10);
+			value /= 10;
+		} while (value > 0);
+		//the digits were written from the last one, so turn them around
+		for (int i = start, j = length - 1; i < j; i ++, j --) {
+			byte swap = buffer[i];
+			buffer[i] = buffer[j];
+			buffer[j] = swap;
+		}
+	}
+
+	/**
+	 * This method writes the buffer to the output stream if it does not have room for 'bytes' more bytes.
+	 * @param bytes is the number of bytes about to be put in the buffer
+	 */
+	private void makeRoom(int bytes) {
+		if (length + bytes > buffer.length) {
+			try {
+				out.write(buffer, 0, length);
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+			length = 0;
+			if (bytes > buffer.length) {
+				buffer = new byte[bytes];
+			}
+		}
+	}
+
+}
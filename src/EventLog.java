@@ -0,0 +1,375 @@
+import java.io.*;
+import java.nio.*;
+import java.nio.channels.*;
+import java.nio.file.*;
+import java.util.*;
+
+/**
+ * The EventLog class keeps the errors of a manager (deadlocks and aborted tasks) as structured events,
+ * 	rather than as the text printed above the results.
+ * Each event is a cycle, a task-number, a kind, a resource type, and a number of units; the fields an event of some kind does not use are 0.
+ * 	The latest events are kept back to back in one int array, which doubles in size when it is full, up to BUFFERED events.
+ * 	Once it holds that many, they are spilled to a temporary file (the sink) and the array is used again,
+ * 	so a run that aborts millions of tasks keeps at most BUFFERED events in memory, and adding an event still takes constant time.
+ * 	The events in the sink are read back WINDOW events at a time, which suits the way they are read: one after the other.
+ * 	The sink is only created if a log outgrows the array, and it is deleted when the log is closed:
+ * 	 a manager's log is closed once it has been printed (see ResourceManager.printResults()), or once its totals have been read in a sweep,
+ * 	 so a batch or a sweep of many runs never keeps the sinks of the runs it is done with.
+ * The text is only made when the events are printed, one event at a time, and it is the same as the text the managers used to build up:
+ * 	an abort is followed by one UNITS event for each resource type it mentions,
+ * 	which are printed as part of the same message.
+ *
+ * @author gayeonpark
+ *
+ */
+public class EventLog {
+
+	//the kinds of events
+	static final int DEADLOCK = 0; //a deadlock has been found at the end of the cycle
+	static final int DEADLOCK_REMAINS = 1; //the deadlock remains after a task has been aborted
+	static final int DEADLOCK_ABORT = 2; //the task has been aborted to resolve a deadlock
+	static final int CLAIM_ABORT = 3; //the task has been aborted since its claim for the resource type ('units') exceeds the units present
+	static final int REQUEST_ABORT = 4; //the task has been aborted since its request exceeds its claim
+	static final int UNITS = 5; //the units of the resource type present (after a CLAIM_ABORT) or returned (after a REQUEST_ABORT)
+
+	private static final int FIELDS = 5; //represents the number of ints of an event
+	private static final int BUFFERED = 1 << 16; //represents the number of events kept in memory before they are spilled to the sink
+	private static final int WINDOW = 1 << 12; //represents the number of events read back from the sink at a time
+
+	private int[] events; //represents the fields of the events not spilled yet, one event after the other
+	private int size; //represents the number of events
+	private int spilled; //represents the number of events in the sink, which come before the ones in memory
+	private FileChannel sink; //represents the file the events are spilled to, or null if none has been spilled
+	private ByteBuffer window; //represents some of the events in the sink, read back, or null if none has been read
+	private int windowStart; //represents the position in the log of the first event of the window
+	private int windowSize; //represents the number of events in the window
+
+	/**
+	 * This constructor creates an empty log.
+	 */
+	EventLog() {
+		events = new int[FIELDS * 16];
+		size = 0;
+		spilled = 0;
+	}
+
+	/**
+	 * This method adds an event at the end of the log.
+	 * @param cycle is the cycle of the event
+	 * @param task is the task-number, or 0
+	 * @param kind is the kind of the event
+	 * @param r is the index of the resource type, or 0
+	 * @param units is the number of units, or 0
+	 */
+	void add(int cycle, int task, int kind, int r, int units) {
+		if (FIELDS * (size - spilled + 1) > events.length) {
+			if (events.length < FIELDS * BUFFERED) {
+				events = Arrays.copyOf(events, 2 * events.length);
+			} else {
+				spill();
+			}
+		}
+		int at = FIELDS * (size ++ - spilled);
+		events[at] = cycle;
+		events[at + 1] = task;
+		events[at + 2] = kind;
+		events[at + 3] = r;
+		events[at + 4] = units;
+	}
+
+	/**
+	 * This method returns the number of events in the log.
+	 * @return the number of events
+	 */
+	int size() {
+		return size;
+	}
+
+	/**
+	 * This method returns the cycle of the event.
+	 * @param i is the position of the event in the log
+	 * @return the cycle of the event
+	 */
+	int getCycle(int i) {
+		return field(i, 0);
+	}
+
+	/**
+	 * This method returns the task-number of the event.
+	 * @param i is the position of the event in the log
+	 * @return the task-number of the event, or 0
+	 */
+	int getTask(int i) {
+		return field(i, 1);
+	}
+
+	/**
+	 * This method returns the kind of the event.
+	 * @param i is the position of the event in the log
+	 * @return the kind of the event
+	 */
+	int getKind(int i) {
+		return field(i, 2);
+	}
+
+	/**
+	 * This method returns the index of the resource type of the event.
+	 * @param i is the position of the event in the log
+	 * @return the index of the resource type of the event, or 0
+	 */
+	int getResource(int i) {
+		return field(i, 3);
+	}
+
+	/**
+	 * This method returns the number of units of the event.
+	 * @param i is the position of the event in the log
+	 * @return the number of units of the event, or 0
+	 */
+	int getUnits(int i) {
+		return field(i, 4);
+	}
+
+	/**
+	 * This method returns the field 'f' of the event at 'i', from the array if it has not been spilled,
+	 * 	and from the window otherwise, which is moved to the event first if it is not in it.
+	 * @param i is the position of the event in the log
+	 * @param f is the index of the field
+	 * @return the field of the event
+	 */
+	private int field(int i, int f) {
+		if (i >= spilled) {
+			return events[FIELDS * (i - spilled) + f];
+		}
+		if (i < windowStart || i >= windowStart + windowSize) {
+			readWindow(i);
+		}
+		return window.getInt(4 * (FIELDS * (i - windowStart) + f));
+	}
+
+	/**
+	 * This method writes the events in the array to the end of the sink, creating it first if there is none, and empties the array.
+	 */
+	private void spill() {
+		try {
+			if (sink == null) {
+				Path file = Files.createTempFile("events", ".log");
+				sink = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE, StandardOpenOption.DELETE_ON_CLOSE);
+			}
+			ByteBuffer out = ByteBuffer.allocate(4 * FIELDS * (size - spilled)).order(ByteOrder.LITTLE_ENDIAN);
+			out.asIntBuffer().put(events, 0, FIELDS * (size - spilled));
+			long at = 4L * FIELDS * spilled;
+			while (out.hasRemaining()) {
+				at += sink.write(out, at);
+			}
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+		spilled = size;
+	}
+
+	/**
+	 * This method reads the events of the sink from the one at 'i' on into the window, as many as fit in it.
+	 * @param i is the position of the first event, which is in the sink
+	 */
+	private void readWindow(int i) {
+		if (window == null) {
+			window = ByteBuffer.allocate(4 * FIELDS * WINDOW).order(ByteOrder.LITTLE_ENDIAN);
+		}
+		windowStart = i;
+		windowSize = Math.min(WINDOW, spilled - i);
+		window.clear().limit(4 * FIELDS * windowSize);
+		try {
+			long at = 4L * FIELDS * i;
+			while (window.hasRemaining()) {
+				int read = sink.read(window, at);
+				if (read < 0) {
+					throw new EOFException("The events spilled to the sink are cut short");
+				}
+				at += read;
+			}
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	/**
+	 * This method closes the sink, which deletes it, and leaves the log empty.
+	 */
+	void close() {
+		if (sink != null) {
+			try {
+				sink.close();
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+		}
+		sink = null;
+		window = null;
+		windowSize = 0;
+		size = 0;
+		spilled = 0;
+	}
+
+	/**
+	 * This method puts the logs of the Optimistic resource managers of several groups of tasks that never affect each other
+	 * 	(see ComponentSimulation) together into the log one manager of all the tasks would have made.
+	 * In every cycle, one manager of all the tasks finds one deadlock among all the deadlocked tasks of the groups,
+	 * 	and aborts the lowest numbered of them until none is left deadlocked.
+	 * 	Since aborting a task of one group does not change which tasks of another group are deadlocked,
+	 * 	that is the lowest numbered of the tasks each group would abort next, so the aborts of the groups are taken in that order,
+	 * 	with one DEADLOCK for the cycle and a DEADLOCK_REMAINS before every abort but the first.
+	 * 	(Under another VictimPolicy, the same tasks are aborted, but they may be listed in another order.)
+	 * Any other event is copied as it is, in the order of the cycles.
+	 * @param logs is the log of the manager of each group
+	 * @return the log put together
+	 */
+	static EventLog merge(List<EventLog> logs) {
+		EventLog merged = new EventLog();
+		int[] next = new int[logs.size()]; //represents the position of the next event of each log to be merged
+		while (true) {
+			//the earliest cycle of the events left
+			int cycle = Integer.MAX_VALUE;
+			for (int k = 0; k < next.length; k ++) {
+				if (next[k] < logs.get(k).size()) {
+					cycle = Math.min(cycle, logs.get(k).getCycle(next[k]));
+				}
+			}
+			if (cycle == Integer.MAX_VALUE) {
+				return merged;
+			}
+
+			//one deadlock is found in the cycle, however many groups found one
+			boolean deadlock = false;
+			for (int k = 0; k < next.length; k ++) {
+				if (logs.get(k).isAt(next[k], cycle, DEADLOCK)) {
+					next[k] ++;
+					deadlock = true;
+				}
+			}
+			if (deadlock) {
+				merged.add(cycle, 0, DEADLOCK, 0, 0);
+			}
+
+			int aborts = 0; //represents the number of tasks aborted in the cycle so far
+			while (true) {
+				int lowest = -1; //represents the log whose next abort has the lowest task-number
+				int other = -1; //represents a log with another event left in the cycle
+				for (int k = 0; k < next.length; k ++) {
+					EventLog log = logs.get(k);
+					//a deadlock remaining in the group is only told before the next abort, whichever group it comes from
+					if (log.isAt(next[k], cycle, DEADLOCK_REMAINS)) {
+						next[k] ++;
+					}
+					if (log.isAt(next[k], cycle, DEADLOCK_ABORT)) {
+						if (lowest < 0 || log.getTask(next[k]) < logs.get(lowest).getTask(next[lowest])) {
+							lowest = k;
+						}
+					} else if (next[k] < log.size() && log.getCycle(next[k]) == cycle) {
+						other = k;
+					}
+				}
+
+				if (lowest >= 0) {
+					if (aborts > 0) {
+						merged.add(cycle, 0, DEADLOCK_REMAINS, 0, 0);
+					}
+					next[lowest] = merged.copy(logs.get(lowest), next[lowest]);
+					aborts ++;
+				} else if (other >= 0) {
+					next[other] = merged.copy(logs.get(other), next[other]);
+				} else {
+					break;
+				}
+			}
+		}
+	}
+
+	/**
+	 * This method tells if the event at 'i' is there, and is of the cycle 'cycle' and of the kind 'kind'.
+	 * @param i is the position of the event in the log
+	 * @param cycle is the cycle
+	 * @param kind is the kind of the event
+	 * @return true if the event is of the cycle and of the kind
+	 */
+	private boolean isAt(int i, int cycle, int kind) {
+		return i < size && getCycle(i) == cycle && getKind(i) == kind;
+	}
+
+	/**
+	 * This method adds the event at 'i' of the log 'log' at the end of this log, along with the UNITS events that follow it.
+	 * @param log is the log the event is copied from
+	 * @param i is the position of the event in that log
+	 * @return the position of the next event of that log
+	 */
+	private int copy(EventLog log, int i) {
+		do {
+			add(log.getCycle(i), log.getTask(i), log.getKind(i), log.getResource(i), log.getUnits(i));
+			i ++;
+		} while (i < log.size() && log.getKind(i) == UNITS);
+		return i;
+	}
+
+	/**
+	 * This method writes every event to 'out', for a checkpoint.
+	 * @param out is where the events are written
+	 * @throws IOException if the events cannot be written
+	 */
+	void writeState(DataOutput out) throws IOException {
+		out.writeInt(size);
+		for (int i = 0; i < size; i ++) {
+			for (int f = 0; f < FIELDS; f ++) {
+				out.writeInt(field(i, f));
+			}
+		}
+	}
+
+	/**
+	 * This method replaces the events with the ones written by writeState().
+	 * @param in is where the events are read from
+	 * @throws IOException if the events cannot be read
+	 */
+	void readState(DataInput in) throws IOException {
+		close();
+		int numEvents = in.readInt();
+		for (int i = 0; i < numEvents; i ++) {
+			add(in.readInt(), in.readInt(), in.readInt(), in.readInt(), in.readInt());
+		}
+	}
+
+	/**
+	 * This method prints the text of every event to 'out', in the order they happened.
+	 * @param out is where the text is written
+	 */
+	void print(PrintStream out) {
+		for (int i = 0; i < size; i ++) {
+			int cycle = getCycle(i);
+			int kind = getKind(i);
+			if (kind == DEADLOCK) {
+				out.print("A deadlock has occured at cycle " + cycle + "!\n");
+			} else if (kind == DEADLOCK_REMAINS) {
+				out.print("The deadlock still remains!\n");
+			} else if (kind == DEADLOCK_ABORT) {
+				out.print("Task " + getTask(i) + " is aborted and its resources are\n"
+						+ "available next cycle (" + cycle + "-" + (cycle + 1) + ")\n");
+			} else if (kind == CLAIM_ABORT) {
+				out.print("Banker aborts Task " + getTask(i) + " before run begins:\n"
+						+ "\tclaim for resource " + (getResource(i) + 1) + " (" + getUnits(i) + ") exceeds number of units present");
+				//the units present follow
+				for (; i + 1 < size && getKind(i + 1) == UNITS; i ++) {
+					out.print(" (" + getUnits(i + 1) + ")");
+				}
+				out.print("\n");
+			} else if (kind == REQUEST_ABORT) {
+				out.print("During cycle " + (cycle - 1) + "-" + cycle + " of Banker's algorithms\n"
+						+ "\tTask " + getTask(i) + "'s request exceeds its claim; aborted;");
+				//the units returned of each resource type follow
+				for (; i + 1 < size && getKind(i + 1) == UNITS; i ++) {
+					out.print(" " + getUnits(i + 1) + " unit(s) of resource " + (getResource(i + 1) + 1));
+				}
+				out.print(" available next cycle\n");
+			}
+		}
+	}
+
+}
@@ -0,0 +1,66 @@
+import java.util.*;
+
+/**
+ * The GrantPolicy interface sets the order in which a manager looks at the blocked requests in every cycle.
+ * Since a request is granted as soon as there are enough units for it, the blocked tasks looked at first are served first.
+ * The policy gives every blocked task a rank, and the blocked tasks are visited from the lowest rank up;
+ * 	the tasks with the same rank are visited in the order they became blocked, so FIFO (which ranks every task the same) is the lab's order.
+ * 	The tasks executed in the previous cycle are still visited after the blocked ones, by their index.
+ * The rank of a task can change from one cycle to the next (it is asked for again in every cycle), but not within a cycle.
+ * 	FIFO serves the blocked requests in the order they were made.
+ * 	SHORTEST_REMAINING serves the task with the fewest activities left first.
+ * 	SMALLEST_REQUEST serves the request for the fewest units first.
+ * 	AGING serves the request for the fewest units first, except that every AGING_CYCLES cycles of waiting count as one unit less,
+ * 	 so a large request is not passed over forever.
+ * 	priorityClasses(...) serves the tasks of a lower class first.
+ *
+ * @author gayeonpark
+ *
+ */
+public interface GrantPolicy {
+
+	//the number of cycles of waiting that make a request count as one unit smaller under AGING
+	int AGING_CYCLES = 4;
+
+	//the policies, by the names they are given on the command line
+	GrantPolicy FIFO = t -> 0;
+	GrantPolicy SHORTEST_REMAINING = t -> t.getActivitiesLeft();
+	GrantPolicy SMALLEST_REQUEST = t -> t.getActivityType() == Task.REQUEST ? t.getActivityAmount() : 0;
+	GrantPolicy AGING = t -> t.getActivityType() == Task.REQUEST ? (long) t.getActivityAmount() - t.getWaitTime() / AGING_CYCLES : 0;
+
+	/**
+	 * This method returns the rank of the blocked task 't' in the current cycle.
+	 * @param t is a blocked task
+	 * @return the rank of the task: the lower it is, the sooner the task is visited
+	 */
+	long rank(Task t);
+
+	/**
+	 * This method returns the policy with the name given.
+	 * @param name is "fifo", "shortest-remaining", "smallest-request", or "aging"
+	 * @return the GrantPolicy
+	 * @throws IllegalArgumentException if there is no policy with the name
+	 */
+	static GrantPolicy forName(String name) {
+		switch (name) {
+		case "fifo": return FIFO;
+		case "shortest-remaining": return SHORTEST_REMAINING;
+		case "smallest-request": return SMALLEST_REQUEST;
+		case "aging": return AGING;
+		default: throw new IllegalArgumentException("unknown grant policy: " + name);
+		}
+	}
+
+	/**
+	 * This method returns a policy that serves the tasks by priority class, the lowest class first,
+	 * 	and the tasks of the same class in FIFO order.
+	 * @param classes is the class of each task, by its task-number less one
+	 * 	(rather than its index, which is only the same when the manager runs every task of the input)
+	 * @return the GrantPolicy
+	 */
+	static GrantPolicy priorityClasses(int[] classes) {
+		int[] copy = Arrays.copyOf(classes, classes.length);
+		return t -> copy[t.getTaskNum() - 1];
+	}
+
+}
@@ -0,0 +1,162 @@
+import java.io.*;
+import java.nio.*;
+import java.nio.channels.*;
+import java.util.*;
+
+/**
+ * The InputReader class reads the tokens of an input file: the activity types and unsigned integers, separated by whitespace.
+ * A token that is missing or malformed is an IllegalArgumentException, like any other input that is not valid.
+ * The file is read through a FileChannel into one reusable buffer, and each token is decoded straight from the bytes,
+ * 	so no String (or any other object) is created per token, unlike java.util.Scanner.
+ * This keeps parsing fast even for very large generated inputs.
+ * Only space and the control characters below it are whitespace. Any other byte, including one above 0x7F, is part of a token,
+ * 	so a token with a byte that is not ASCII is rejected rather than split.
+ *
+ * @author gayeonpark
+ *
+ */
+public class InputReader implements Closeable {
+
+	private static final int BUFFER_SIZE = 1 << 16; //represents the number of bytes read from the file at once
+
+	//the activity types as they are written in the input, indexed by their opcode
+	private static final byte[][] KEYWORDS = {
+			"initiate".getBytes(), "request".getBytes(), "release".getBytes(), "terminate".getBytes() };
+
+	private FileChannel channel; //represents the channel the file is read through
+	private ByteBuffer buffer; //represents the bytes read from the file that have not been decoded yet
+	private byte[] word; //represents the bytes of the activity type being decoded
+	private boolean endOfFile; //represents if every byte of the file has been read into the buffer
+
+	/**
+	 * This constructor opens the file given for reading.
+	 * @param input is the file to read
+	 * @throws FileNotFoundException if the file does not exist
+	 */
+	InputReader(File input) throws FileNotFoundException {
+		channel = new FileInputStream(input).getChannel();
+		buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+		buffer.flip(); //the buffer starts out empty
+		word = new byte[16];
+		endOfFile = false;
+	}
+
+	/**
+	 * This method tells if there is another token in the file.
+	 * @return true if there is a token left, false if only whitespace is left
+	 * @throws IOException if the file cannot be read
+	 */
+	public boolean hasNext() throws IOException {
+		return skipWhitespace();
+	}
+
+	/**
+	 * This method reads an unsigned integer.
+	 * @return the value of the integer
+	 * @throws IOException if the file cannot be read
+	 * @throws IllegalArgumentException if there is no token left, or the token is not an unsigned integer, or does not fit in an int
+	 */
+	public int nextInt() throws IOException {
+		if (!skipWhitespace()) {
+			throw new IllegalArgumentException("Expected a number at the end of the input");
+		}
+		long value = 0;
+		while (buffer.hasRemaining() || fill()) {
+			byte b = buffer.get(buffer.position());
+			if ((b & 0xFF) <= ' ') { //the end of the token
+				break;
+			}
+			if (b < '0' || b > '9') {
+				throw new IllegalArgumentException("Expected an unsigned integer, but found '" + (char) (b & 0xFF) + "'");
+			} else if (value > Integer.MAX_VALUE) {
+				throw new IllegalArgumentException("A number is larger than " + Integer.MAX_VALUE);
+			}
+			value = value * 10 + (b - '0');
+			buffer.position(buffer.position() + 1);
+		}
+		if (value > Integer.MAX_VALUE) {
+			throw new IllegalArgumentException("A number is larger than " + Integer.MAX_VALUE);
+		}
+		return (int) value;
+	}
+
+	/**
+	 * This method reads an activity type (one of: initiate, request, release, terminate) and returns its opcode.
+	 * @return the opcode of the activity type, as defined in the Task class
+	 * @throws IOException if the file cannot be read
+	 * @throws IllegalArgumentException if there is no token left, or the token is not one of the activity types
+	 */
+	public byte nextActivityType() throws IOException {
+		if (!skipWhitespace()) {
+			throw new IllegalArgumentException("Expected an activity at the end of the input");
+		}
+		int length = 0;
+		while (buffer.hasRemaining() || fill()) {
+			byte b = buffer.get(buffer.position());
+			if ((b & 0xFF) <= ' ') { //the end of the token
+				break;
+			}
+			if (length < word.length) {
+				word[length] = b;
+			}
+			length ++;
+			buffer.position(buffer.position() + 1);
+		}
+
+		//compare the bytes read against each of the activity types
+		for (byte type = 0; type < KEYWORDS.length; type ++) {
+			if (Arrays.equals(word, 0, Math.min(length, word.length), KEYWORDS[type], 0, KEYWORDS[type].length)
+					&& length == KEYWORDS[type].length) {
+				return type;
+			}
+		}
+		throw new IllegalArgumentException("Unknown activity: " + new String(word, 0, Math.min(length, word.length)));
+	}
+
+	/**
+	 * This method closes the file.
+	 * @throws IOException if the file cannot be closed
+	 */
+	@Override
+	public void close() throws IOException {
+		channel.close();
+	}
+
+	/**
+	 * This method moves past any whitespace, reading more of the file when the buffer runs out.
+	 * @return true if a token follows, false if the end of the file has been reached
+	 * @throws IOException if the file cannot be read
+	 */
+	private boolean skipWhitespace() throws IOException {
+		while (buffer.hasRemaining() || fill()) {
+			if ((buffer.get(buffer.position()) & 0xFF) > ' ') {
+				return true;
+			}
+			buffer.position(buffer.position() + 1);
+		}
+		return false;
+	}
+
+	/**
+	 * This method reads the next part of the file into the buffer, once every byte in it has been decoded.
+	 * @return true if at least one byte has been read, false if the end of the file has been reached
+	 * @throws IOException if the file cannot be read
+	 */
+	private boolean fill() throws IOException {
+		if (endOfFile) {
+			return false;
+		}
+		buffer.clear();
+		int read = 0;
+		while (read == 0) {
+			read = channel.read(buffer);
+		}
+		buffer.flip();
+		if (read < 0) {
+			endOfFile = true;
+			return false;
+		}
+		return true;
+	}
+
+}
@@ -0,0 +1,452 @@
+import java.io.*;
+import java.util.*;
+
+/**
+ * The OptimisticManager class runs the optimistic resource manager:
+ * 	a request is satisfied if possible, and if not, the task has to wait.
+ * 	The pending requests are satisfied in a FIFO manner.
+ * 	When no task can make progress in a cycle, there is a deadlock, and the lowest numbered task is aborted until the deadlock is gone.
+ * Every request, grant, and release is also recorded in an AllocationGraph.
+ * 	It answers the questions asked while resolving a deadlock (which task has the lowest index, and if any request can be granted now)
+ * 	without going through every task.
+ * 	If deadlocks among a subset of the tasks are to be detected, the graph is reduced after every cycle that could have formed one,
+ * 	so the deadlocked tasks are found (and aborted, the lowest numbered first) while the other tasks are still making progress.
+ * Which task is aborted to resolve a deadlock is up to a VictimPolicy; by default, it is the lowest numbered one, as the lab asks.
+ *
+ * @author gayeonpark
+ *
+ */
+public class OptimisticManager extends ResourceManager {
+
+	static final String TITLE = String.format("%14s","FIFO"); //represents the name of the manager, printed above its results
+
+	private AllocationGraph graph; //represents the resource-allocation graph of the tasks
+	private boolean subsetDeadlocks; //represents if deadlocks among a subset of the tasks are detected, rather than only when no task can make progress
+	private VictimPolicy victims; //represents how the task aborted to resolve a deadlock is chosen
+
+	private boolean taskExecuted; //used to indicate whether a Task has been executed (if Task tried to satisfy an activity) in the current cycle
+	private boolean activityCompleted; //used to indicate whether a Task completed an activity during the current cycle
+	private int idleCycles; //represents the number of cycles coming up in which no Task can complete an activity
+
+	/**
+	 * This constructor creates the tasks and the units of each resource type for the Optimistic resource manager.
+	 * 	A deadlock is only detected when no task can make progress, as the lab asks.
+	 * @param workload is the parsed input
+	 */
+	OptimisticManager(Workload workload) {
+		this(workload, false);
+	}
+
+	/**
+	 * This constructor creates the tasks and the units of each resource type for the Optimistic resource manager.
+	 * @param workload is the parsed input
+	 * @param subsetDeadlocks is true if deadlocks among a subset of the tasks are to be detected
+	 */
+	OptimisticManager(Workload workload, boolean subsetDeadlocks) {
+		super(workload);
+		graph = new AllocationGraph(tasksFinalized.size(), numResources);
+		this.subsetDeadlocks = subsetDeadlocks;
+		victims = VictimPolicy.LOWEST_INDEX;
+	}
+
+	/**
+	 * This method sets how the task aborted to resolve a deadlock is chosen.
+	 * @param victims is the VictimPolicy
+	 */
+	void setVictimPolicy(VictimPolicy victims) {
+		this.victims = victims;
+	}
+
+	@Override
+	protected String getTitle() {
+		return TITLE;
+	}
+
+	/**
+	 * The Optimistic resource manager makes a task wait while there aren't enough units for its request.
+	 */
+	@Override
+	protected boolean isBlocked(Task t) {
+		return t.getActivityAmount() > unitsOfEachResource[t.getActivityResource()];
+	}
+
+	/**
+	 * This method runs the Optimistic resource manager until every task has terminated or has been aborted.
+	 */
+	@Override
+	public void run() {
+		//run until there is no more task remaining in the list of tasks for the Optimistic resource manager
+		while (hasActiveTasks()) { 
+			runCycle();
+
+			//save the state of the manager, if it is time to
+			checkpointIfDue();
+		}
+	} //end of the run function
+
+	/**
+	 * This method runs one cycle of the Optimistic resource manager: every task is visited once (the blocked ones first, then the others by their index)
+	 * 	and its current activity is handed to the handler of its kind, then a deadlock is looked for and resolved.
+	 * Each handler is a small private method, so each one is compiled (and inlined here) on its own,
+	 * 	and this method is called once per cycle, so it is compiled as a whole rather than only while it is running.
+	 */
+	private void runCycle() {
+		cycle ++; //increment to indicate time passing
+
+		taskExecuted = false;
+		activityCompleted = false;
+		idleCycles = Integer.MAX_VALUE;
+
+		//the units returned in the previous cycle are available now
+		beginCycle();
+
+		//go through the entire list of tasks: the blocked ones first, then the others by their index
+		for (Task currTask = nextTask(); currTask != null; currTask = nextTask()) { 
+
+			//get the type of the current activity of the current task
+			byte currActivity = currTask.getActivityType();
+
+			if (currActivity == Task.INITIATE) {
+				initiate(currTask);
+			} else if (currActivity == Task.REQUEST) {
+				request(currTask);
+			} else if (currActivity == Task.RELEASE) {
+				release(currTask);
+			} else {
+				terminate(currTask);
+			}
+
+			//if the current task was neither executed nor removed, it stays blocked
+			keepIfBlocked(currTask);
+		} //end of the for loop for going through the entire list of tasks
+
+		//the tasks executed in the current cycle are visited after the blocked ones in the next cycle, by their index
+		endCycle();
+
+		//check for deadlock
+		BitSet deadlocked = null; //represents the deadlocked tasks found by reducing the graph, if deadlocks among a subset are detected
+		boolean deadlock; //represents if a deadlock has been found in the current cycle
+		if (subsetDeadlocks) {
+			//reduce the graph only if a new deadlock could have formed since the last time
+			deadlock = graph.hasChanged()
+					&& !(deadlocked = graph.findDeadlocked(unitsOfEachResource, returnedUnitsOfEachResource)).isEmpty();
+		} else {
+			//if not a single task executed (a sleeping task counts its delay up, so it executes) and the cycle is > 1, 
+			// meaning, some time has passed since the tasks' activities has been first executed
+			deadlock = !taskExecuted && !hasSleepingTasks() && cycle > 1;
+		}
+
+		//the idle cycles end when the first sleeping task wakes up
+		idleCycles = Math.min(idleCycles, cyclesUntilWakeUp());
+		if (deadlock) { //we encountered a deadlock!
+			resolveDeadlock(deadlocked);
+		} else if (!activityCompleted && idleCycles > 0 && idleCycles != Integer.MAX_VALUE) { 
+			//if no Task completed an activity in the current cycle, the following cycles look exactly the same
+			// until the first delay runs out, so jump straight to the cycle before that one
+			skipIdleCycles(idleCycles);
+		}
+	}
+
+	/**
+	 * This method handles the "initiate" activity of the task 'currTask', which is always granted.
+	 * @param currTask is the task visited
+	 */
+	private void initiate(Task currTask) {
+		//the current task has been executed
+		taskExecuted = true;
+
+		//since the activity is initiate, the current task holds no resource of any type
+		//so we put value 0 for the number of units the task holds of the current resource type
+		currTask.setUnitsHeld(currTask.getActivityResource(), 0);
+		trace.initiated(currTask);
+
+		//initiate has been granted, so move on to the next activity
+		currTask.nextActivity();
+		activityCompleted = true;
+	}
+
+	/**
+	 * This method handles the "request" activity of the task 'currTask':
+	 * 	it is granted if there are enough units for it once its delay is over, and the task waits otherwise.
+	 * @param currTask is the task visited
+	 */
+	private void request(Task currTask) {
+		int resourceIndex = currTask.getActivityResource(); //represents the index of the resource requested by the task's activity
+		int resourceRequested = currTask.getActivityAmount(); //represents the number of the resource requested by the task's activity
+		int resourceAvail = unitsOfEachResource[resourceIndex]; //represents the available units of the resource requested
+
+		int requestDelay = currTask.getRequestdelay(); //represents the delay counter kept by the current task
+		int activityDelay = currTask.getActivityDelay(); //represents the delay given by the current task's activity
+
+		//check if there are enough resources for the request to be satisfied
+		if (resourceRequested <= resourceAvail) {
+
+			//the current task has been executed
+			taskExecuted = true;
+
+			//if there are enough resources & the requestDelay counter is equal to the activityDelay, 
+			// the task's activity can be satisfied
+			if (requestDelay == activityDelay) {
+
+				//reset the requestDelay to 0
+				currTask.resetRequestdelay();
+
+				//first calculate the new amount of units held for the current resource as: 
+				//      current value of resourceHeld + value of resourceRequested
+				//  then update the units held for the current resource as the sum of those two numbers (shown above) 
+				currTask.adjustUnitsHeld(resourceIndex, resourceRequested);
+				graph.grant(currTask.getIndex(), resourceIndex, resourceRequested);
+
+				//take the units granted from the units available of the current resource type
+				takeUnits(resourceIndex, resourceRequested);
+				trace.granted(currTask, resourceIndex, resourceRequested, unitsOfEachResource[resourceIndex]);
+
+				//the request has been granted, so move on to the next activity
+				currTask.nextActivity();
+				activityCompleted = true;
+
+				//the current Task has been executed, so it is visited by its index next cycle
+				markExecuted(currTask);
+
+			} else { //the delay counter is NOT equal to the delay given by the current task's activity, 
+						//so it needs to wait for the delay to finish
+
+				//the request is not blocked while its units are there, so it has no request edge,
+				// and an edge left from a time it was blocked is taken out
+				graph.withdraw(currTask.getIndex());
+
+				//increase the requestdelay counter
+				currTask.increaseRequestdelay();
+				trace.delayed(currTask, activityDelay - requestDelay);
+				//the request can be made once the delay counter reaches the delay of the activity
+				idleCycles = Math.min(idleCycles, activityDelay - currTask.getRequestdelay());
+
+				//the current Task has been executed, so it is visited by its index next cycle,
+				// or once its delay is over, as long as there are still enough units for its request
+				markDelayed(currTask, activityDelay - currTask.getRequestdelay(), true);
+			}
+
+		} else { //there AREN'T enough resources for the request to be satisfied, so wait
+			currTask.increaseWaitTime();
+			trace.blocked(currTask, resourceIndex, resourceRequested, resourceAvail);
+			//the request is blocked until it is granted
+			graph.request(currTask.getIndex(), resourceIndex, resourceRequested);
+			//the task cannot be satisfied before units of the resource type are returned
+			waitForUnits(currTask, resourceIndex);
+		}
+	}
+
+	/**
+	 * This method handles the "release" activity of the task 'currTask', which is always granted once its delay is over.
+	 * 	If only the "terminate" activity is left after it, and the terminate has no delay, the task terminates in the same cycle.
+	 * @param currTask is the task visited
+	 */
+	private void release(Task currTask) {
+		int resourceIndex = currTask.getActivityResource(); //represents the index of the resource released by the task's activity
+		int resourceReleased = currTask.getActivityAmount(); //represents the number of the resource released by the task's activity
+
+		int releasedelay = currTask.getReleasedelay(); //represents the delay counter kept by the current task
+		int activitydelay = currTask.getActivityDelay(); //represents the delay given by the current task's activity
+		int remaining = 0; //represents the number of cycles the release still has to delay for after this one
+
+		//the current task has been executed
+		taskExecuted = true;
+
+		//if the releaseDelay counter is EQUAL to the activityDelay, 
+		// the task's activity can be satisfied
+		if (releasedelay == activitydelay) {
+
+			//reset the releasedelay to 0
+			currTask.resetReleasedelay();
+
+			//release the units of the resource type specified, keeping the ones the task does not hand back
+			int resourceHeld = currTask.adjustUnitsHeld(resourceIndex, -resourceReleased);
+			graph.release(currTask.getIndex(), resourceIndex, resourceHeld);
+
+			//add the resource units released by the current task 
+			// to the total units returned for the current resource type
+			returnUnits(resourceIndex, resourceReleased);
+			trace.released(currTask, resourceIndex, resourceReleased,
+					unitsOfEachResource[resourceIndex] + returnedUnitsOfEachResource[resourceIndex]);
+
+			//request has been granted, so move on to the next activity
+			currTask.nextActivity();
+			activityCompleted = true;
+
+		} else { //the releasedelay counter is NOT equal to the delay given by the current task's activity, 
+					//so it needs to wait for the delay to finish
+
+			//increase the releasedelay counter
+			currTask.increaseReleasedelay();
+			trace.delayed(currTask, activitydelay - releasedelay);
+			//the release can be made once the delay counter reaches the delay of the activity
+			idleCycles = Math.min(idleCycles, activitydelay - currTask.getReleasedelay());
+			remaining = activitydelay - currTask.getReleasedelay();
+		}		
+
+		//in the case where the last 'release' activity of the current task has been done
+		//and there is only one activity remaining: TERMINATE, which does NOT require another cycle to complete
+		if (currTask.getActivitiesLeft() == 1) {
+			//if the task does NOT have to delay to terminate, DO TERMINATE
+			if (currTask.getActivityDelay() == 0) {
+				finish(currTask, false);
+			} else { //the task DOES have to delay to terminate
+				//increase the terminatedelay counter for the current task
+				currTask.increaseTerminatedelay();
+
+				//the current Task has been executed, so it is visited by its index next cycle, or once its delay is over
+				markDelayed(currTask, currTask.getActivityDelay() - currTask.getTerminatedelay(), false);
+			}
+		} else { //in the case where there are still multiple activities left 
+					//that are waiting to be satisfied for the current task
+
+			//the current Task has been executed, so it is visited by its index next cycle, or once its delay is over
+			markDelayed(currTask, remaining, false);
+		}
+	}
+
+	/**
+	 * This method handles the "terminate" activity of the task 'currTask', which is always granted once its delay is over.
+	 * @param currTask is the task visited
+	 */
+	private void terminate(Task currTask) {
+		//the current task has been executed
+		taskExecuted = true;
+
+		//does NOT have to delay to terminate, so DO TERMINATE
+		if (currTask.getTerminatedelay() == currTask.getActivityDelay()) {
+			finish(currTask, currTask.getActivityDelay() > 0);
+		} else { //the task DOES have to delay to terminate
+			//the delay counts down to the cycle the task terminates in
+			trace.delayed(currTask, currTask.getActivityDelay() - currTask.getTerminatedelay() + 1);
+			//increase the terminatedelay counter for the current task
+			currTask.increaseTerminatedelay();
+			//the task can terminate once the delay counter reaches the delay of the activity
+			idleCycles = Math.min(idleCycles, currTask.getActivityDelay() - currTask.getTerminatedelay());
+
+			//the current Task has been executed, so it is visited by its index next cycle, or once its delay is over
+			markDelayed(currTask, currTask.getActivityDelay() - currTask.getTerminatedelay(), false);
+		}
+	}
+
+	/**
+	 * This method terminates the task 'currTask' in the current cycle and hands back the units it still holds.
+	 * @param currTask is the task that terminates
+	 * @param delayed is true if the task waited for the delay of its terminate up to this cycle
+	 */
+	private void finish(Task currTask, boolean delayed) {
+		//set the current cycle as the time the current task terminated
+		currTask.setTimeTerminated(cycle);
+		trace.terminated(currTask, delayed, cycle);
+		//the units the task still holds are handed back
+		returnHeldUnits(currTask);
+		graph.remove(currTask.getIndex());
+
+		//terminate has been granted, so move on to the next activity
+		currTask.nextActivity();
+		activityCompleted = true;
+
+		//store the current task to the right index in the finalized list holding tasks for Opt. resource manager
+		tasksFinalized.set(currTask.getIndex(), currTask);
+		//remove the CURRENT TASK from the list of tasks since it is COMPLETED
+		removeTask(currTask);
+	}
+
+	/**
+	 * This method resolves the deadlock found at the end of the current cycle,
+	 * 	by aborting the task chosen by the victim policy until the other tasks can go on.
+	 * @param deadlocked is the deadlocked tasks, if deadlocks among a subset of the tasks are detected, or null
+	 */
+	private void resolveDeadlock(BitSet deadlocked) {
+		//store the error message
+		events.add(cycle, 0, EventLog.DEADLOCK, 0, 0);
+
+		boolean canExecute = false;
+		//the counter for how many times a task had to be aborted
+		int keeper = 0;
+		//try to resolve the deadlock
+		while (!canExecute && hasActiveTasks()) {
+			//if the counter for the number of times a task had been aborted 
+			// is greater than 0
+			if (keeper > 0) {
+				//the deadlock is remaining after aborting at least one task, so store additional error message
+				events.add(cycle, 0, EventLog.DEADLOCK_REMAINS, 0, 0);
+			}
+
+			//GET the Task chosen by the victim policy (among the deadlocked tasks, if they are known)
+			// and abort it
+			int taskIndexToAbort = victims.choose(subsetDeadlocks ? deadlocked : graph.liveTasks(),
+					tasksFinalized, unitsOfEachResource, returnedUnitsOfEachResource);
+			abort(tasksFinalized.get(taskIndexToAbort));
+
+			if (subsetDeadlocks) {
+				//the deadlock is resolved once no task is left deadlocked
+				deadlocked = graph.findDeadlocked(unitsOfEachResource, returnedUnitsOfEachResource);
+				canExecute = deadlocked.isEmpty();
+			} else {
+				//the deadlock is resolved if the sum of the units available and the units released
+				// of some resource type is enough to satisfy a pending request of it
+				canExecute = graph.canAnyRequestProceed(unitsOfEachResource, returnedUnitsOfEachResource);
+			}
+
+			//increase the counter that keeps track of
+			// how many times a task had to be aborted
+			keeper ++;
+
+		} //end of the while loop for resolving the deadlock
+	}
+
+	/**
+	 * The Optimistic resource manager also saves the request edges of its resource-allocation graph.
+	 */
+	@Override
+	protected void writeState(DataOutputStream out) throws IOException {
+		super.writeState(out);
+		graph.writeState(out);
+	}
+
+	/**
+	 * The resource-allocation graph is rebuilt from the tasks and the request edges saved.
+	 */
+	@Override
+	protected void readState(DataInputStream in) throws IOException {
+		super.readState(in);
+		BitSet active = new BitSet(tasksFinalized.size());
+		for (int i = 0; i < tasksFinalized.size(); i ++) {
+			if (isActive(i)) {
+				active.set(i);
+			}
+		}
+		graph.readState(in, tasksFinalized, active);
+	}
+
+	/**
+	 * This method aborts the task 'taskAbort' to resolve a deadlock.
+	 * The units it holds are available from the next cycle on.
+	 * @param taskAbort is the task to be aborted
+	 */
+	private void abort(Task taskAbort) {
+		//store the info for the task being aborted
+		events.add(cycle, taskAbort.getTaskNum(), EventLog.DEADLOCK_ABORT, 0, 0);
+
+		//the task is to be aborted
+		taskAbort.doAbort();
+		trace.aborted(taskAbort, "deadlock; its resources are available next cycle");
+
+		//release the resources of the task to be aborted
+		for (int n = 0; n < numResources; n ++) {
+			//get the units held of the current resource type by the current task
+			int resourceHeld = taskAbort.getUnitsHeld(n); 
+
+			//add the resource release by the current task to the total units returned for the current resource
+			returnUnits(n, resourceHeld);
+		}
+		graph.remove(taskAbort.getIndex());
+
+		//store the current task to the right index in the finalized list holding tasks for Opt. resource manager
+		tasksFinalized.set(taskAbort.getIndex(),taskAbort);
+		//remove the CURRENT TASK from the list of tasks since it is ABORTED
+		removeTask(taskAbort);
+	}
+
+}
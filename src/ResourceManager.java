@@ -0,0 +1,910 @@
+import java.io.*;
+import java.nio.file.*;
+import java.util.*;
+
+/**
+ * The ResourceManager class contains the state shared by the Optimistic resource manager and the Banker's algorithm.
+ * Each manager gets its own copy of the tasks and of the units of each resource type from the Workload,
+ * 	so two managers never share any mutable state and can be run on different threads.
+ * A manager is run once with run(), and then its results are printed with printResults().
+ * In every cycle the tasks are visited in the same order: first the blocked tasks (the ones that did not move in the previous cycle),
+ * 	in the order they were visited, and then the tasks executed in the previous cycle, by their index.
+ * 	The blocked tasks are kept in a FIFO queue and the executed ones in a BitSet over the task indices,
+ * 	so keeping this order costs nothing more than visiting the tasks, and nothing has to be sorted.
+ * A task whose request is blocked because there aren't enough units is put on the wait queue of the resource type instead.
+ * 	Since the units available of a resource type only go up when units of it are returned,
+ * 	such a task would stay blocked in every cycle until then, so it is not visited again until units of its resource type are returned.
+ * 	Its waiting time for the cycles it was not visited is added when it is woken up,
+ * 	and it is visited in the same place among the blocked tasks as if it had been visited all along.
+ * 	When the task right after one that was visited is skipped (see skipNextTask()) and that task is on a wait queue,
+ * 	it is the one skipped, so it does not wait in that cycle, just as if it had been visited all along.
+ * A task in the middle of a delay is put to sleep in the same way (see markDelayed()): it is not visited again until the cycle its delay is over in,
+ * 	which is kept in a heap of wake-ups, and its delay counter is moved on by the cycles it slept through when it wakes up.
+ * 	So a cycle only costs as much as the tasks that can do something in it, however many tasks are delaying.
+ * 	A request of the Optimistic resource manager only counts its delay down while there are enough units for it, though,
+ * 	 so such a task is also woken up as soon as a grant leaves fewer units of its resource type than it requests,
+ * 	 and then it is visited in its place, as if it had been visited all along.
+ * A manager can be given a GrantPolicy, which changes the order in which the blocked tasks are visited in every cycle.
+ * 	Then all the blocked tasks to visit are taken out of the queue at the start of the cycle, and sorted by their rank.
+ * A manager can write a checkpoint of its whole state every so many cycles, and a new manager of the same workload
+ * 	can be resumed from it, which leads to the same results as if the first manager had never stopped.
+ * A manager can be given a CycleTrace, which writes what happens to every task visited in every cycle.
+ * 	A traced manager visits the tasks in the same way: the line of a task on a wait queue is written from the wait queues,
+ * 	 in its place among the blocked tasks, without visiting it.
+ * 	Since the trace has a line for every cycle, a traced manager runs the idle cycles one by one and puts no task to sleep, which leads to the same results.
+ *
+ * @author gayeonpark
+ *
+ */
+public abstract class ResourceManager {
+
+	protected int numResources; //represents the number of resource types
+	protected int[] unitsOfEachResource; //represents the units of each resource type available
+	protected int[] returnedUnitsOfEachResource; //represents the units returned of each resource type, which are available next cycle
+	protected ArrayList<Task> tasksFinalized; //represents the list of all the tasks in the system, ordered by their index
+	private ArrayDeque<Task> blockedTasks; //represents the tasks that were not executed in the previous cycle, in the order they were visited
+	private BitSet readyTasks; //represents the indices of the tasks that were executed in the previous cycle
+	private BitSet executedTasks; //represents the indices of the tasks that were executed during the current cycle
+	private BitSet activeTasks; //represents the indices of the tasks that are still running
+	private int blockedToVisit; //represents the number of entries of the blocked queue not visited yet in the current cycle
+	private int readyCursor; //represents the index of the last task visited from the ready tasks in the current cycle
+	private long[] blockedOrder; //represents the position of each blocked task in the order the blocked tasks are visited, or -1 if it is not blocked
+	private long nextBlockedOrder; //represents the position given to the next task that becomes blocked
+	private List<ArrayList<Task>> waitQueues; //represents the tasks waiting for units of each resource type to be returned
+	private int[] waitingOn; //represents the resource type each task is waiting for, or -1 if it is not on a wait queue
+	private int[] waitingSince; //represents the last cycle in which each waiting task was visited (moved on by one for every cycle it was skipped in)
+	private ArrayList<Task> wokenTasks; //represents the waiting tasks woken up in the current cycle (or, unless the grant policy is FIFO, every blocked task), in the order they are visited
+	private int wokenCursor; //represents the number of woken tasks visited in the current cycle
+	private ArrayList<Task> tracedWaiting; //represents the tasks on a wait queue at the start of the current cycle, in the order of the blocked tasks, if the manager is traced
+	private int tracedWaitingCursor; //represents the number of traced waiting tasks passed over in the current cycle
+	private Task lastBlocked; //represents the last blocked task visited in the current cycle, or null if none has been or the executed tasks are being visited
+	private boolean skipNext; //used to indicate whether the next task in the order of the current cycle is not to be visited
+	private BitSet sleepingTasks; //represents the indices of the tasks sleeping through a delay, which are not visited until it is over
+	private int[] sleepingSince; //represents the last cycle in which each sleeping task was visited
+	private TaskHeap wakeUps; //represents the sleeping tasks, by the cycle in which each of them is to be visited again
+	private List<TaskHeap> sleepingRequests; //represents the sleeping tasks of each resource type whose delay only counts down while their request fits, by the units requested, largest first
+	private int[] returnedResources; //represents the resource types with units returned in the current cycle
+	private int numReturnedResources; //represents the number of resource types with units returned in the current cycle
+	protected int cycle; //represents the fixed unit of time. So 1 cycle means 1 unit of time has passed
+	protected EventLog events; //represents the errors generated by the manager
+	protected CycleTrace trace; //represents where the cycle-by-cycle trace is written
+	private GrantPolicy grants; //represents the order in which the blocked tasks are visited
+	private long[] ranks; //represents the rank of each blocked task in the current cycle, given by the grant policy
+	private File checkpoint; //represents the file the checkpoints are written to, or null if none are
+	private int checkpointEvery; //represents the number of cycles between two checkpoints
+	private int nextCheckpoint; //represents the cycle after which the next checkpoint is written
+
+	//the first bytes of a checkpoint, "BKCP", and the version of its layout
+	private static final int CHECKPOINT_MAGIC = 0x50434B42;
+	private static final int CHECKPOINT_VERSION = 1;
+
+	/**
+	 * This constructor creates the tasks of the workload and the units of each resource type for this manager.
+	 * @param workload is the parsed input
+	 */
+	ResourceManager(Workload workload) {
+		numResources = workload.getNumResources();
+		unitsOfEachResource = new int[numResources];
+		//before the resource allocation, no resource has been allocated
+		// and hence there is 0 unit of each resource type returned
+		returnedUnitsOfEachResource = new int[numResources];
+		for (int r = 0; r < numResources; r ++) {
+			unitsOfEachResource[r] = workload.getUnits(r);
+		}
+		tasksFinalized = workload.createTasks();
+		//in the first cycle, every task is visited in the order of its index
+		blockedTasks = new ArrayDeque<>(tasksFinalized);
+		readyTasks = new BitSet(tasksFinalized.size());
+		executedTasks = new BitSet(tasksFinalized.size());
+		activeTasks = new BitSet(tasksFinalized.size());
+		activeTasks.set(0, tasksFinalized.size());
+		blockedOrder = new long[tasksFinalized.size()];
+		for (int i = 0; i < blockedOrder.length; i ++) {
+			blockedOrder[i] = i;
+		}
+		nextBlockedOrder = blockedOrder.length;
+		waitQueues = new ArrayList<>(numResources);
+		for (int r = 0; r < numResources; r ++) {
+			waitQueues.add(new ArrayList<>());
+		}
+		waitingOn = new int[tasksFinalized.size()];
+		Arrays.fill(waitingOn, -1);
+		waitingSince = new int[tasksFinalized.size()];
+		wokenTasks = new ArrayList<>();
+		tracedWaiting = new ArrayList<>();
+		sleepingTasks = new BitSet(tasksFinalized.size());
+		sleepingSince = new int[tasksFinalized.size()];
+		wakeUps = new TaskHeap(tasksFinalized.size());
+		sleepingRequests = new ArrayList<>(numResources);
+		int[] requestPositions = TaskHeap.newPositions(tasksFinalized.size()); //a task sleeps on at most one resource type
+		for (int r = 0; r < numResources; r ++) {
+			sleepingRequests.add(new TaskHeap(requestPositions));
+		}
+		returnedResources = new int[numResources];
+		numReturnedResources = 0;
+		cycle = 0;
+		events = new EventLog();
+		trace = CycleTrace.OFF;
+		grants = GrantPolicy.FIFO;
+	}
+
+	/**
+	 * This method sets the order in which the blocked tasks are visited in every cycle.
+	 * @param grants is the GrantPolicy
+	 */
+	void setGrantPolicy(GrantPolicy grants) {
+		this.grants = grants;
+		if (grants != GrantPolicy.FIFO && ranks == null) {
+			ranks = new long[tasksFinalized.size()];
+		}
+	}
+
+	/**
+	 * This method makes the manager write its cycle-by-cycle trace to 'trace' while it runs.
+	 * @param trace is the CycleTrace
+	 */
+	void setTrace(CycleTrace trace) {
+		this.trace = trace;
+	}
+
+	/**
+	 * This method makes the manager write a checkpoint to the file 'file' right away, and then every 'cycles' cycles while it runs.
+	 * The first checkpoint is written before the manager runs, so the file is there to resume from as soon as the run has started,
+	 * 	even if the manager finishes (or the program stops) before the next one.
+	 * Each checkpoint is written to a file next to it first, and then moved in its place,
+	 * 	so the file always holds a whole checkpoint, even if the program stops while one is being written.
+	 * @param file is the file the checkpoints are written to
+	 * @param cycles is the number of cycles between two checkpoints
+	 * @throws CheckpointException if the first checkpoint cannot be written
+	 */
+	void setCheckpoint(File file, int cycles) throws CheckpointException {
+		checkpoint = file;
+		checkpointEvery = cycles;
+		nextCheckpoint = cycle + cycles;
+		writeCheckpoint();
+	}
+
+	/**
+	 * This method writes a checkpoint if the number of cycles set has passed since the last one.
+	 * It must only be called at the end of a cycle.
+	 * @throws UncheckedIOException wrapping a CheckpointException, if the checkpoint cannot be written
+	 */
+	protected void checkpointIfDue() {
+		if (checkpoint == null || cycle < nextCheckpoint) {
+			return;
+		}
+		nextCheckpoint = cycle + checkpointEvery;
+		try {
+			writeCheckpoint();
+		} catch (CheckpointException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	/**
+	 * This method writes the state of the manager to its checkpoint file, in between two cycles.
+	 * @throws CheckpointException if the checkpoint cannot be written
+	 */
+	private void writeCheckpoint() throws CheckpointException {
+		//the sleeping tasks are woken up, so their delay counters are saved as if they had been visited all along;
+		// they go back to sleep the next time they are visited
+		for (int i = sleepingTasks.nextSetBit(0); i >= 0; i = sleepingTasks.nextSetBit(i + 1)) {
+			wakeUp(i, cycle - sleepingSince[i]);
+			readyTasks.set(i);
+		}
+		File partial = new File(checkpoint.getPath() + ".partial");
+		try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(partial), 1 << 16))) {
+			out.writeInt(CHECKPOINT_MAGIC);
+			out.writeInt(CHECKPOINT_VERSION);
+			out.writeUTF(getClass().getName());
+			out.writeInt(tasksFinalized.size());
+			out.writeInt(numResources);
+			for (Task t: tasksFinalized) {
+				out.writeInt(t.getActivitiesDone() + t.getActivitiesLeft());
+			}
+			writeState(out);
+		} catch (IOException e) {
+			throw new CheckpointException(e);
+		}
+		try {
+			Files.move(partial.toPath(), checkpoint.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		} catch (IOException e) {
+			throw new CheckpointException(e);
+		}
+	}
+
+	/**
+	 * This method puts the manager, which has not been run yet, in the state saved in the checkpoint 'file',
+	 * 	so running it goes on from the cycle after the checkpoint.
+	 * @param file is the checkpoint
+	 * @throws IOException if the file cannot be read, or it is not a checkpoint of this kind of manager for the same workload
+	 */
+	void resume(File file) throws IOException {
+		try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file), 1 << 16))) {
+			if (in.readInt() != CHECKPOINT_MAGIC || in.readInt() != CHECKPOINT_VERSION) {
+				throw new IOException(file + " is not a checkpoint");
+			}
+			if (!in.readUTF().equals(getClass().getName()) || in.readInt() != tasksFinalized.size() || in.readInt() != numResources) {
+				throw new IOException(file + " is a checkpoint of another manager or another workload");
+			}
+			for (Task t: tasksFinalized) {
+				if (in.readInt() != t.getActivitiesLeft()) {
+					throw new IOException(file + " is a checkpoint of another workload");
+				}
+			}
+			readState(in);
+		} catch (EOFException e) {
+			throw new IOException(file + " is cut short");
+		}
+		nextCheckpoint = cycle + checkpointEvery;
+	}
+
+	/**
+	 * This method writes the state of the manager to 'out', in between two cycles.
+	 * A manager that keeps more state adds it after this state.
+	 * @param out is where the state is written
+	 * @throws IOException if the state cannot be written
+	 */
+	protected void writeState(DataOutputStream out) throws IOException {
+		out.writeInt(cycle);
+		for (int r = 0; r < numResources; r ++) {
+			out.writeInt(unitsOfEachResource[r]);
+			out.writeInt(returnedUnitsOfEachResource[r]);
+		}
+		out.writeInt(numReturnedResources);
+		for (int i = 0; i < numReturnedResources; i ++) {
+			out.writeInt(returnedResources[i]);
+		}
+		writeBitSet(out, activeTasks);
+		writeBitSet(out, readyTasks);
+		out.writeInt(blockedTasks.size());
+		for (Task t: blockedTasks) {
+			out.writeInt(t.getIndex());
+		}
+		out.writeLong(nextBlockedOrder);
+		for (int r = 0; r < numResources; r ++) {
+			out.writeInt(waitQueues.get(r).size());
+			for (Task t: waitQueues.get(r)) {
+				out.writeInt(t.getIndex());
+			}
+		}
+		for (Task t: tasksFinalized) {
+			int i = t.getIndex();
+			out.writeLong(blockedOrder[i]);
+			out.writeInt(waitingOn[i]);
+			out.writeInt(waitingSince[i]);
+			t.writeState(out);
+		}
+		events.writeState(out);
+	}
+
+	/**
+	 * This method reads back the state written by writeState().
+	 * A manager that keeps more state reads it after this state.
+	 * @param in is where the state is read from
+	 * @throws IOException if the state cannot be read
+	 */
+	protected void readState(DataInputStream in) throws IOException {
+		cycle = in.readInt();
+		for (int r = 0; r < numResources; r ++) {
+			unitsOfEachResource[r] = in.readInt();
+			returnedUnitsOfEachResource[r] = in.readInt();
+		}
+		numReturnedResources = in.readInt();
+		for (int i = 0; i < numReturnedResources; i ++) {
+			returnedResources[i] = in.readInt();
+		}
+		activeTasks = readBitSet(in);
+		readyTasks = readBitSet(in);
+		blockedTasks.clear();
+		for (int n = in.readInt(); n > 0; n --) {
+			blockedTasks.add(tasksFinalized.get(in.readInt()));
+		}
+		nextBlockedOrder = in.readLong();
+		for (int r = 0; r < numResources; r ++) {
+			waitQueues.get(r).clear();
+			for (int n = in.readInt(); n > 0; n --) {
+				waitQueues.get(r).add(tasksFinalized.get(in.readInt()));
+			}
+		}
+		for (Task t: tasksFinalized) {
+			int i = t.getIndex();
+			blockedOrder[i] = in.readLong();
+			waitingOn[i] = in.readInt();
+			waitingSince[i] = in.readInt();
+			t.readState(in);
+		}
+		events.readState(in);
+	}
+
+	/**
+	 * This method writes the BitSet 'bits' to 'out'.
+	 * @param out is where the bits are written
+	 * @param bits is the BitSet
+	 * @throws IOException if the bits cannot be written
+	 */
+	private static void writeBitSet(DataOutputStream out, BitSet bits) throws IOException {
+		long[] words = bits.toLongArray();
+		out.writeInt(words.length);
+		for (long word: words) {
+			out.writeLong(word);
+		}
+	}
+
+	/**
+	 * This method reads a BitSet written by writeBitSet().
+	 * @param in is where the bits are read from
+	 * @return the BitSet
+	 * @throws IOException if the bits cannot be read
+	 */
+	private static BitSet readBitSet(DataInputStream in) throws IOException {
+		long[] words = new long[in.readInt()];
+		for (int i = 0; i < words.length; i ++) {
+			words[i] = in.readLong();
+		}
+		return BitSet.valueOf(words);
+	}
+
+	/**
+	 * This method tells if the task with the index 'i' is still running.
+	 * @param i is the index of the task
+	 * @return true if the task has neither terminated nor been aborted
+	 */
+	protected boolean isActive(int i) {
+		return activeTasks.get(i);
+	}
+
+	/**
+	 * This method runs the simulation until every task has terminated or has been aborted.
+	 */
+	public abstract void run();
+
+	/**
+	 * This method returns the title printed above the results of the manager.
+	 * @return the title, already padded
+	 */
+	protected abstract String getTitle();
+
+	/**
+	 * This method tells if the task 't' is blocked (waiting for its request to be granted) in a cycle in which no activity was completed.
+	 * @param t is a task whose current activity is a request
+	 * @return true if the task waits, false if its delay counter goes up instead
+	 */
+	protected abstract boolean isBlocked(Task t);
+
+	/**
+	 * This method tells if there are tasks that are still running.
+	 * @return true if at least one task has neither terminated nor been aborted
+	 */
+	protected boolean hasActiveTasks() {
+		return !activeTasks.isEmpty();
+	}
+
+	/**
+	 * This method adds 'units' units of the resource type 'r' to the units returned, which are available next cycle.
+	 * @param r is the index of the resource type
+	 * @param units is the number of units returned
+	 */
+	protected void returnUnits(int r, int units) {
+		int returned = returnedUnitsOfEachResource[r];
+		if (returned == 0 && units > 0) {
+			returnedResources[numReturnedResources ++] = r;
+		}
+		returnedUnitsOfEachResource[r] = returned + units;
+	}
+
+	/**
+	 * This method starts visiting the tasks for a new cycle.
+	 * The units returned in the previous cycle become available, and the tasks waiting for them are woken up.
+	 */
+	protected void beginCycle() {
+		wokenTasks.clear();
+		for (int i = 0; i < numReturnedResources; i ++) {
+			int r = returnedResources[i];
+			//add back the returned amount from the previous run, and reset it to 0
+			unitsOfEachResource[r] += returnedUnitsOfEachResource[r];
+			returnedUnitsOfEachResource[r] = 0;
+
+			//wake up the tasks waiting for the resource type
+			for (Task t: waitQueues.get(r)) {
+				if (activeTasks.get(t.getIndex()) && waitingOn[t.getIndex()] == r) {
+					waitingOn[t.getIndex()] = -1;
+					//the task would have waited in every cycle it was not visited
+					t.increaseWaitTime(cycle - 1 - waitingSince[t.getIndex()]);
+					wokenTasks.add(t);
+				}
+			}
+			waitQueues.get(r).clear();
+		}
+		numReturnedResources = 0;
+
+		//wake up the sleeping tasks whose delay is over in this cycle, which are visited in their place among the executed tasks
+		while (!wakeUps.isEmpty() && wakeUps.peekValue() <= cycle) {
+			int i = wakeUps.poll();
+			//the delay counter would have gone up in every cycle the task was not visited
+			wakeUp(i, cycle - 1 - sleepingSince[i]);
+			readyTasks.set(i);
+		}
+		blockedToVisit = blockedTasks.size();
+
+		if (grants == GrantPolicy.FIFO) {
+			//the woken tasks are visited in their place among the blocked tasks
+			wokenTasks.sort((a, b) -> Long.compare(blockedOrder[a.getIndex()], blockedOrder[b.getIndex()]));
+		} else {
+			//every blocked task is visited by its rank, and then in the order it became blocked
+			for (; blockedToVisit > 0; blockedToVisit --) {
+				Task t = blockedTasks.poll();
+				if (activeTasks.get(t.getIndex())) {
+					wokenTasks.add(t);
+				}
+			}
+			for (Task t: wokenTasks) {
+				ranks[t.getIndex()] = grants.rank(t);
+			}
+			wokenTasks.sort((a, b) -> ranks[a.getIndex()] != ranks[b.getIndex()] ? Long.compare(ranks[a.getIndex()], ranks[b.getIndex()])
+					: Long.compare(blockedOrder[a.getIndex()], blockedOrder[b.getIndex()]));
+		}
+
+		wokenCursor = 0;
+		readyCursor = -1;
+		lastBlocked = null;
+		skipNext = false;
+		if (trace.isOn()) {
+			collectTracedWaiting();
+		}
+		trace.beginCycle(cycle);
+	}
+
+	/**
+	 * This method returns the next task to visit in the current cycle:
+	 * 	first the blocked tasks (the ones in the queue and the ones woken up) in the order they became blocked,
+	 * 	and then the tasks executed in the previous cycle by their index.
+	 * A blocked task that has been aborted since it was queued is dropped from the queue here.
+	 * If the next task is to be skipped (see skipNextTask()), it is kept blocked and the one after it is returned.
+	 * @return the next task, or null if every task has been visited
+	 */
+	protected Task nextTask() {
+		while (true) {
+			while (blockedToVisit > 0 && !activeTasks.get(blockedTasks.peek().getIndex())) {
+				blockedToVisit --;
+				blockedTasks.poll();
+			}
+			Task woken = wokenCursor < wokenTasks.size() ? wokenTasks.get(wokenCursor) : null;
+			Task next = null;
+			if (blockedToVisit > 0
+					&& (woken == null || blockedOrder[blockedTasks.peek().getIndex()] < blockedOrder[woken.getIndex()])) {
+				next = blockedTasks.peek();
+			} else {
+				next = woken;
+			}
+
+			//a task on a wait queue in between the last blocked task visited and the next one is passed over:
+			// its line is written if the manager is traced, or it is the one skipped
+			Task waiting = null;
+			if (trace.isOn()) {
+				waiting = tracedWaitingCursor < tracedWaiting.size() ? tracedWaiting.get(tracedWaitingCursor) : null;
+			} else if (skipNext && lastBlocked != null) {
+				waiting = firstWaitingAfter(lastBlocked);
+			}
+			if (waiting != null && (next == null || visitedBefore(waiting, next))) {
+				if (trace.isOn()) {
+					tracedWaitingCursor ++;
+				}
+				if (!activeTasks.get(waiting.getIndex())) {
+					continue;
+				}
+				lastBlocked = waiting;
+				if (skipNext) {
+					skipNext = false;
+					//it does not wait in the current cycle, so its waiting time added when it is woken up is one cycle less
+					waitingSince[waiting.getIndex()] ++;
+				} else {
+					traceWaiting(waiting, waitingOn[waiting.getIndex()]);
+				}
+				continue;
+			}
+
+			if (next == null) {
+				lastBlocked = null;
+				int from = readyCursor + 1;
+				readyCursor = readyTasks.nextSetBit(from);
+				if (skipNext) {
+					//a sleeping task would have been visited in its place, so it is the one skipped if it comes first
+					int sleeper = sleepingTasks.nextSetBit(from);
+					if (sleeper >= 0 && (readyCursor < 0 || sleeper < readyCursor)) {
+						readyCursor = sleeper;
+						wakeUp(sleeper, cycle - 1 - sleepingSince[sleeper]);
+					}
+				}
+				next = readyCursor < 0 ? null : tasksFinalized.get(readyCursor);
+			} else if (next == woken) {
+				wokenCursor ++;
+				lastBlocked = next;
+			} else {
+				blockedToVisit --;
+				blockedTasks.poll();
+				lastBlocked = next;
+			}
+
+			if (skipNext && next != null) {
+				//the task is not visited in the current cycle, so it stays blocked
+				skipNext = false;
+				keepIfBlocked(next);
+				continue;
+			}
+			return next;
+		}
+	}
+
+	/**
+	 * This method makes the task that comes right after the last one returned by nextTask() not be visited in the current cycle,
+	 * 	whether it is on a wait queue or not.
+	 */
+	protected void skipNextTask() {
+		skipNext = true;
+	}
+
+	/**
+	 * This method returns the task on a wait queue that comes first among the blocked tasks after the task 'last'.
+	 * It goes through every wait queue, which is fine since a task is only skipped after another task has been aborted.
+	 * @param last is the last blocked task visited
+	 * @return the task, or null if no task on a wait queue comes after it
+	 */
+	private Task firstWaitingAfter(Task last) {
+		Task first = null;
+		for (int r = 0; r < numResources; r ++) {
+			for (Task t: waitQueues.get(r)) {
+				int i = t.getIndex();
+				if (!activeTasks.get(i) || waitingOn[i] != r) {
+					continue;
+				}
+				if (grants != GrantPolicy.FIFO) {
+					//the task has not been visited since it was put on the wait queue, so its rank is the one it had at the start of the cycle
+					ranks[i] = grants.rank(t);
+				}
+				if (visitedBefore(last, t) && (first == null || visitedBefore(t, first))) {
+					first = t;
+				}
+			}
+		}
+		return first;
+	}
+
+	/**
+	 * This method puts every task on a wait queue in the list of the traced waiting tasks, in the order of the blocked tasks,
+	 * 	so their lines are written in their place among the blocked tasks in the current cycle.
+	 */
+	private void collectTracedWaiting() {
+		tracedWaiting.clear();
+		tracedWaitingCursor = 0;
+		for (int r = 0; r < numResources; r ++) {
+			for (Task t: waitQueues.get(r)) {
+				int i = t.getIndex();
+				if (activeTasks.get(i) && waitingOn[i] == r) {
+					if (grants != GrantPolicy.FIFO) {
+						ranks[i] = grants.rank(t);
+					}
+					tracedWaiting.add(t);
+				}
+			}
+		}
+		tracedWaiting.sort((a, b) -> visitedBefore(a, b) ? -1 : visitedBefore(b, a) ? 1 : 0);
+	}
+
+	/**
+	 * This method writes the line of the trace of the task 't', which is on the wait queue of the resource type 'r',
+	 * 	in the current cycle, as if it had been visited.
+	 * @param t is the task on the wait queue
+	 * @param r is the index of the resource type requested
+	 */
+	protected void traceWaiting(Task t, int r) {
+		trace.blocked(t, r, t.getActivityAmount(), unitsOfEachResource[r]);
+	}
+
+	/**
+	 * This method tells if the blocked task 'a' is visited before the blocked task 'b' in the current cycle.
+	 * @param a is a blocked task
+	 * @param b is another blocked task
+	 * @return true if 'a' comes first in the order given by the grant policy
+	 */
+	private boolean visitedBefore(Task a, Task b) {
+		int i = a.getIndex();
+		int j = b.getIndex();
+		if (grants != GrantPolicy.FIFO && ranks[i] != ranks[j]) {
+			return ranks[i] < ranks[j];
+		}
+		return blockedOrder[i] < blockedOrder[j];
+	}
+
+	/**
+	 * This method puts the task 't' on the wait queue of the resource type 'r',
+	 * 	since its request cannot be granted until units of the resource type are returned.
+	 * It is not visited again until then.
+	 * @param t is the task visited, whose waiting time has already been increased for the current cycle
+	 * @param r is the index of the resource type requested
+	 */
+	protected void waitForUnits(Task t, int r) {
+		waitingOn[t.getIndex()] = r;
+		waitingSince[t.getIndex()] = cycle;
+		waitQueues.get(r).add(t);
+	}
+
+	/**
+	 * This method marks the task 't' as executed in the current cycle, so it is visited by its index in the next cycle.
+	 * @param t is the task visited
+	 */
+	protected void markExecuted(Task t) {
+		executedTasks.set(t.getIndex());
+		blockedOrder[t.getIndex()] = -1;
+	}
+
+	/**
+	 * This method marks the task 't' as executed in the current cycle, in which it counted its delay up, and puts it to sleep
+	 * 	if its delay is not over in the next cycle either: it is not visited again until the cycle after 'remaining' more cycles of delay.
+	 * 	A traced manager puts no task to sleep, since the trace has a line for the task in every cycle.
+	 * @param t is the task visited
+	 * @param remaining is the number of cycles the task still has to delay for after the current one
+	 * @param needsUnits is true if the delay only counts down while the units available are enough for the request of the task
+	 */
+	protected void markDelayed(Task t, int remaining, boolean needsUnits) {
+		markExecuted(t);
+		if (remaining <= 0 || trace.isOn()) {
+			return;
+		}
+		int i = t.getIndex();
+		executedTasks.clear(i);
+		sleepingTasks.set(i);
+		sleepingSince[i] = cycle;
+		wakeUps.add(i, cycle + remaining + 1);
+		if (needsUnits) {
+			//the largest request comes first, since it is the first one to stop fitting
+			sleepingRequests.get(t.getActivityResource()).add(i, -t.getActivityAmount());
+		}
+	}
+
+	/**
+	 * This method takes 'units' units of the resource type 'r' from the units available, since they have been granted.
+	 * Every sleeping task whose request no longer fits is woken up, and is visited in its place among the executed tasks:
+	 * 	later in the current cycle if its place has not been reached yet, and otherwise in the next cycle, having delayed in this one.
+	 * @param r is the index of the resource type
+	 * @param units is the number of units granted
+	 */
+	protected void takeUnits(int r, int units) {
+		unitsOfEachResource[r] -= units;
+		TaskHeap requests = sleepingRequests.get(r);
+		while (!requests.isEmpty() && -requests.peekValue() > unitsOfEachResource[r]) {
+			int i = requests.poll();
+			if (sleepingSince[i] == cycle || (readyCursor >= 0 && i < readyCursor)) {
+				wakeUp(i, cycle - sleepingSince[i]);
+				executedTasks.set(i);
+			} else {
+				wakeUp(i, cycle - 1 - sleepingSince[i]);
+				readyTasks.set(i);
+			}
+		}
+	}
+
+	/**
+	 * This method wakes up the sleeping task with the index 'i', moving its delay counter on by the cycles it slept through.
+	 * @param i is the index of the task
+	 * @param cycles is the number of cycles the task would have counted its delay up in since it was last visited
+	 */
+	private void wakeUp(int i, int cycles) {
+		sleepingTasks.clear(i);
+		wakeUps.remove(i);
+		Task t = tasksFinalized.get(i);
+
+		//get the type of the current activity of the task
+		byte activity = t.getActivityType();
+		if (activity == Task.REQUEST) {
+			sleepingRequests.get(t.getActivityResource()).remove(i);
+			t.increaseRequestdelay(cycles);
+		} else if (activity == Task.RELEASE) {
+			t.increaseReleasedelay(cycles);
+		} else if (activity == Task.TERMINATE) {
+			t.increaseTerminatedelay(cycles);
+		}
+	}
+
+	/**
+	 * This method tells if some task is sleeping through a delay, i.e. it would have counted its delay up in the current cycle.
+	 * @return true if at least one task is sleeping
+	 */
+	protected boolean hasSleepingTasks() {
+		return !sleepingTasks.isEmpty();
+	}
+
+	/**
+	 * This method returns the number of cycles after the current one before the first sleeping task wakes up,
+	 * 	which bounds the idle cycles that can be skipped.
+	 * @return the number of cycles, or Integer.MAX_VALUE if no task is sleeping
+	 */
+	protected int cyclesUntilWakeUp() {
+		return wakeUps.isEmpty() ? Integer.MAX_VALUE : wakeUps.peekValue() - cycle - 1;
+	}
+
+	/**
+	 * This method puts the indices of the tasks that are visited in the current cycle into 'indices',
+	 * 	i.e. every task that is still running, except for the ones sleeping or on a wait queue.
+	 * It must only be called right after beginCycle().
+	 * @param indices is where the indices are put, which must have room for every task
+	 * @return the number of indices put
+	 */
+	protected int tasksToVisit(int[] indices) {
+		int count = 0;
+		for (Task t: blockedTasks) {
+			if (activeTasks.get(t.getIndex())) {
+				indices[count ++] = t.getIndex();
+			}
+		}
+		//the woken tasks are never in the blocked queue as well
+		for (Task t: wokenTasks) {
+			indices[count ++] = t.getIndex();
+		}
+		for (int i = readyTasks.nextSetBit(0); i >= 0; i = readyTasks.nextSetBit(i + 1)) {
+			indices[count ++] = i;
+		}
+		return count;
+	}
+
+	/**
+	 * This method removes the task 't' since it terminated or has been aborted, so it is never visited again.
+	 * @param t is the task to remove
+	 */
+	protected void removeTask(Task t) {
+		activeTasks.clear(t.getIndex());
+		readyTasks.clear(t.getIndex());
+	}
+
+	/**
+	 * This method keeps the task 't' blocked, if it was neither executed nor removed while it was visited.
+	 * A task that just became blocked is placed after all the other blocked tasks.
+	 * Unless the task is on a wait queue, it is put at the end of the blocked queue.
+	 * It must be called once for every task returned by nextTask().
+	 * @param t is the task visited
+	 */
+	protected void keepIfBlocked(Task t) {
+		int i = t.getIndex();
+		if (activeTasks.get(i) && !executedTasks.get(i) && !sleepingTasks.get(i)) {
+			if (blockedOrder[i] == -1) {
+				blockedOrder[i] = nextBlockedOrder ++;
+			}
+			if (waitingOn[i] == -1) {
+				blockedTasks.add(t);
+			}
+		}
+	}
+
+	/**
+	 * This method ends the cycle: the tasks executed in it are the ones visited after the blocked tasks in the next cycle.
+	 */
+	protected void endCycle() {
+		BitSet swap = readyTasks;
+		readyTasks = executedTasks;
+		executedTasks = swap;
+		executedTasks.clear();
+	}
+
+	/**
+	 * This method skips over cycles in which no task can complete an activity.
+	 * A cycle like that only moves the delay counters forward (or adds to the waiting time of blocked tasks),
+	 * 	so instead of running it cycle by cycle, the counters of every task are moved forward by 'cycles' units at once.
+	 * It must only be called right after a cycle in which no activity was completed,
+	 * 	since then no resource changed hands and the same thing happens again until the next event.
+	 * 	The cycles skipped must end before the first sleeping task wakes up (see cyclesUntilWakeUp()).
+	 * Only the tasks visited in every cycle (the blocked and the executed ones) are moved forward here:
+	 * 	the waiting time of a task on a wait queue is added when it is woken up, and so is the delay of a sleeping task.
+	 * A traced manager skips nothing, since the trace has a line for every cycle.
+	 * @param cycles is the number of idle cycles to skip
+	 */
+	protected void skipIdleCycles(int cycles) {
+		if (trace.isOn()) {
+			return;
+		}
+		for (Task t: blockedTasks) {
+			if (activeTasks.get(t.getIndex())) {
+				skipIdleCycles(t, cycles);
+			}
+		}
+		for (int i = readyTasks.nextSetBit(0); i >= 0; i = readyTasks.nextSetBit(i + 1)) {
+			skipIdleCycles(tasksFinalized.get(i), cycles);
+		}
+		cycle += cycles;
+	}
+
+	/**
+	 * This method moves the counters of the task 't' forward by 'cycles' idle cycles.
+	 * @param t is a task visited in every cycle
+	 * @param cycles is the number of idle cycles skipped
+	 */
+	private void skipIdleCycles(Task t, int cycles) {
+		//get the type of the current activity of the task
+		byte activity = t.getActivityType();
+
+		if (activity == Task.REQUEST) {
+			if (isBlocked(t)) {
+				t.increaseWaitTime(cycles);
+			} else {
+				t.increaseRequestdelay(cycles);
+			}
+		} else if (activity == Task.RELEASE) {
+			t.increaseReleasedelay(cycles);
+		} else if (activity == Task.TERMINATE) {
+			t.increaseTerminatedelay(cycles);
+		}
+	}
+
+	/**
+	 * This method hands back every unit the task 't' still holds, since it terminated.
+	 * The units are available from the next cycle on, just like released units.
+	 * @param t is the task that terminated
+	 */
+	protected void returnHeldUnits(Task t) {
+		for (int r = 0; r < numResources; r ++) {
+			returnUnits(r, t.getUnitsHeld(r));
+			t.setUnitsHeld(r, 0);
+		}
+	}
+
+	/**
+	 * This method prints the errors and the results of every task, followed by the totals, to 'out'.
+	 * @param out is where the output is written
+	 */
+	public void printResults(PrintStream out) {
+		printResults(out, getTitle(), events, tasksFinalized);
+	}
+
+	/**
+	 * This method prints the errors 'events' and the results of the tasks 'tasks', followed by the totals, to 'out',
+	 * 	so the results of several managers put together (see ComponentSimulation) are printed just like those of one.
+	 * The log 'events' is then closed, which lets go of the file it may have spilled to, so the results can only be printed once.
+	 * @param out is where the output is written
+	 * @param title is the name of the manager, printed above the results
+	 * @param events is the errors detected
+	 * @param tasks is every task, ordered by its task-number
+	 */
+	static void printResults(PrintStream out, String title, EventLog events, List<Task> tasks) {
+		//print any error detected
+		out.print("\n-----------------------------\n");
+		events.print(out);
+		events.close();
+		out.println();
+		out.println(title);
+		//print out each Task info after the manager finishes
+		for (Task ee: tasks) { //go through the finalized list of tasks, sorted by the task's index
+			//print each Task's info for the time taken, the waiting time, and the percentage of time spent waiting
+			ee.printTaskInfo(out);
+		}
+
+		//Print the total time for all tasks, the total waiting time, and the overall percentage of time spent waiting
+		long[] totals = totals(tasks);
+		out.printf("total %8d %4d %5d%s",totals[0],totals[1],waitingPercentage(totals),"%");
+		out.println("\n-----------------------------");
+	}
+
+	/**
+	 * This method adds up the time taken and the waiting time of all the tasks 'tasks', for the totals of the output.
+	 * 	The totals are longs, since they can exceed an int for a large input.
+	 * @param tasks is every task, after the manager has run
+	 * @return an array of the total time and the total waiting time, in that order
+	 */
+	static long[] totals(List<Task> tasks) {
+		long totalTime = 0; //represents the total time it took for all Tasks to terminate
+		long totalWaitingTime = 0; //represents the total waiting time of all Tasks
+		for (Task t: tasks) {
+			totalTime += t.getTimeTerminated(); //add up all Task's time taken
+			totalWaitingTime += t.getWaitTime(); //add up all Task's waiting time
+		}
+		return new long[] {totalTime, totalWaitingTime};
+	}
+
+	/**
+	 * This method returns the overall percentage of time spent waiting, rounded, from the totals given by totals().
+	 * @param totals is the total time and the total waiting time
+	 * @return the percentage, which is 0 if no time has been taken at all
+	 */
+	static long waitingPercentage(long[] totals) {
+		return Math.round((totals[1]/(totals[0]*1.0)) * 100);
+	}
+
+}
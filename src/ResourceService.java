@@ -0,0 +1,619 @@
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.locks.*;
+
+/**
+ * The ResourceService class is a live resource manager that many threads can use at the same time,
+ * 	making the same decisions as the simulations of the Optimistic resource manager and of the Banker's algorithm.
+ * Instead of reading the activities from an input file, the clients call:
+ * 	initiate(task, claims) before anything else, with the claim of the task for each resource type;
+ * 	request(task, resourceType, units), which blocks until the units are granted, or requestAsync(...), which returns a future;
+ * 	release(task, resourceType, units);
+ * 	terminate(task), which hands back every unit the task still holds.
+ * As in the input files, tasks and resource types are numbered from 1, and a task has at most one request pending at a time.
+ *
+ * Under the Optimistic policy, a request is granted if there are enough units for it.
+ * A request that has to wait adds an edge to an AllocationGraph, and if the waiting tasks are then deadlocked,
+ * 	the lowest-numbered deadlocked task is aborted (and its units handed back) until the deadlock is gone.
+ * Under the Banker policy, a request is also checked against the claim of the task and granted only if the state after it is safe.
+ * 	A task whose claim exceeds the units present, or whose request exceeds its claim, is aborted.
+ * A task that has been aborted gets an IllegalStateException from its pending request and from every call made for it afterwards.
+ *
+ * Every decision is made under one lock, which is held only for the bookkeeping:
+ * 	a blocking request that can be granted right away allocates nothing and never parks the thread,
+ * 	and the futures of the requests granted by a release are completed after the lock has been let go,
+ * 	so neither the callbacks of the clients nor the threads they wake up hold up the other clients.
+ * The requests waiting for a resource type are kept in arrival order, and are looked at again only when units of it are handed back
+ * 	(or, under the Banker policy, when any units are handed back, since that can make another request safe).
+ * A task-number can be initiated again once the task has terminated or has been aborted.
+ *
+ * @author gayeonpark
+ *
+ */
+public class ResourceService {
+
+	/**
+	 * The Policy enum is the way the service decides whether to grant a request.
+	 */
+	public enum Policy {
+		OPTIMISTIC, BANKER
+	}
+
+	//the states of a task
+	private static final byte IDLE = 0; //the task has not been initiated, or has terminated
+	private static final byte RUNNING = 1; //the task has been initiated and has no request pending
+	private static final byte WAITING = 2; //the task has a request pending
+	private static final byte ABORTED = 3; //the task has been aborted
+
+	/**
+	 * The Pending class is a request that has not been granted yet.
+	 */
+	private static final class Pending {
+		final int task; //represents the index of the task
+		final int resource; //represents the index of the resource type
+		final int units; //represents the number of units requested
+		final int generation; //represents the generation of the task when the request was made
+		final CompletableFuture<Void> future = new CompletableFuture<>(); //represents the outcome handed to the client
+		RuntimeException failure; //represents why the request will never be granted, or null if it has been granted
+
+		/**
+		 * This constructor creates a pending request of 'units' units of the resource type 'resource' by the task 'task'.
+		 * @param task is the index of the task
+		 * @param resource is the index of the resource type
+		 * @param units is the number of units requested
+		 * @param generation is the generation of the task
+		 */
+		Pending(int task, int resource, int units, int generation) {
+			this.task = task;
+			this.resource = resource;
+			this.units = units;
+			this.generation = generation;
+		}
+	}
+
+	private final Policy policy; //represents the way requests are granted
+	private final int numTasks; //represents the number of task-numbers
+	private final int numResources; //represents the number of resource types
+	private final int[] unitsPresent; //represents the units present of each resource type
+	private final int[] available; //represents the units of each resource type that are not held by any task
+	private final int[] noneReturned; //represents no units returned, since the service hands back units right away
+	private final int[][] held; //represents the units of each resource type held by each task
+	private final int[][] claims; //represents the units of each resource type each task may still request (Banker policy only)
+	private final byte[] states; //represents the state of each task
+	private final int[] generations; //represents the number of times each task-number has been initiated, which tells its runs apart
+	private final Pending[] pending; //represents the pending request of each task, or null if there is none
+	private final List<ArrayDeque<Pending>> waitQueues; //represents the requests waiting for each resource type, in arrival order
+	private final SafetyChecker safety; //this is used for checking if the state after a grant is safe (Banker policy only)
+	private final AllocationGraph graph; //this is used for finding the deadlocked tasks (Optimistic policy only)
+	private final ReentrantLock lock = new ReentrantLock(); //guards everything above
+
+	private ArrayList<Pending> settled = new ArrayList<>(); //represents the pending requests decided while holding the lock, whose futures are not completed yet
+
+	/**
+	 * This constructor creates a service for the tasks numbered 1 to 'numTasks' and the units of each resource type given.
+	 * @param policy is the way requests are granted
+	 * @param numTasks is the number of task-numbers
+	 * @param units is the units present of each resource type, i.e. resource type 1 has an index of 0
+	 */
+	public ResourceService(Policy policy, int numTasks, int[] units) {
+		this.policy = policy;
+		this.numTasks = numTasks;
+		this.numResources = units.length;
+		unitsPresent = units.clone();
+		available = units.clone();
+		noneReturned = new int[numResources];
+		held = new int[numTasks][numResources];
+		claims = new int[numTasks][numResources];
+		states = new byte[numTasks];
+		generations = new int[numTasks];
+		pending = new Pending[numTasks];
+		waitQueues = new ArrayList<>(numResources);
+		for (int r = 0; r < numResources; r ++) {
+			waitQueues.add(new ArrayDeque<>());
+		}
+		if (policy == Policy.BANKER) {
+			safety = new SafetyChecker(numTasks, numResources);
+			graph = null;
+		} else {
+			safety = null;
+			graph = new AllocationGraph(numTasks, numResources);
+		}
+	}
+
+	/**
+	 * This method starts the task 'task' with its claim for each resource type.
+	 * Under the Banker policy, the task is aborted if a claim exceeds the units present.
+	 * @param task is the task-number
+	 * @param taskClaims is the claim of the task for each resource type, i.e. resource type 1 has an index of 0
+	 * @throws IllegalStateException if the task is running, or it has been aborted because a claim exceeds the units present
+	 */
+	public void initiate(int task, int[] taskClaims) {
+		int t = indexOf(task);
+		if (taskClaims.length != numResources) {
+			throw new IllegalArgumentException("Expected a claim for each of the " + numResources + " resource types");
+		}
+		lock.lock();
+		try {
+			if (states[t] == RUNNING || states[t] == WAITING) {
+				throw new IllegalStateException("Task " + task + " is already running");
+			}
+			states[t] = RUNNING;
+			generations[t] ++;
+			for (int r = 0; r < numResources; r ++) {
+				claims[t][r] = taskClaims[r];
+			}
+			if (policy == Policy.BANKER) {
+				for (int r = 0; r < numResources; r ++) {
+					if (taskClaims[r] > unitsPresent[r]) {
+						states[t] = ABORTED;
+						throw new IllegalStateException("Banker aborts task " + task + ": its claim for resource " + (r + 1)
+								+ " (" + taskClaims[r] + ") exceeds number of units present (" + unitsPresent[r] + ")");
+					}
+				}
+				safety.admit(t, taskClaims);
+			} else {
+				graph.admit(t);
+			}
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * This method requests 'units' units of the resource type 'resourceType' for the task 'task',
+	 * 	and waits until they have been granted.
+	 * If the thread is interrupted while waiting, the request is withdrawn, unless it has been granted already.
+	 * @param task is the task-number
+	 * @param resourceType is the resource type, i.e. resource type 1 is given as 1
+	 * @param units is the number of units requested
+	 * @throws InterruptedException if the thread has been interrupted while waiting, and the request has been withdrawn
+	 * @throws IllegalStateException if the task is not running, or it has been aborted
+	 */
+	public void request(int task, int resourceType, int units) throws InterruptedException {
+		Pending p = submit(task, resourceType, units);
+		if (p == null) {
+			return; //granted right away
+		}
+		try {
+			p.future.get();
+		} catch (ExecutionException e) {
+			throw (RuntimeException) e.getCause();
+		} catch (InterruptedException e) {
+			if (withdraw(p)) {
+				throw e;
+			}
+			//the request has been decided in the meantime, so report that instead and keep the interrupt for the caller
+			Thread.currentThread().interrupt();
+			if (p.failure != null) {
+				throw p.failure;
+			}
+		}
+	}
+
+	/**
+	 * This method requests 'units' units of the resource type 'resourceType' for the task 'task' without waiting.
+	 * The future completes once the units have been granted,
+	 * 	or completes exceptionally with an IllegalStateException if the task is aborted before that.
+	 * Cancelling the future withdraws the request. The request may have been granted just before, with its future not completed yet;
+	 * 	the client then never sees the grant, so the units are handed back, and a cancelled request never leaves units with the task.
+	 * @param task is the task-number
+	 * @param resourceType is the resource type, i.e. resource type 1 is given as 1
+	 * @param units is the number of units requested
+	 * @return the future of the request, which is already completed if the request has been granted right away
+	 * @throws IllegalStateException if the task is not running, or it has been aborted
+	 */
+	public CompletableFuture<Void> requestAsync(int task, int resourceType, int units) {
+		Pending p = submit(task, resourceType, units);
+		if (p == null) {
+			return CompletableFuture.completedFuture(null);
+		}
+		p.future.whenComplete((result, failure) -> {
+			if (failure instanceof CancellationException && !withdraw(p) && p.failure == null) {
+				takeBack(p);
+			}
+		});
+		return p.future;
+	}
+
+	/**
+	 * This method hands back 'units' units of the resource type 'resourceType' held by the task 'task',
+	 * 	and grants the waiting requests that can be granted now.
+	 * Under the Banker policy, the units released may be requested again.
+	 * @param task is the task-number
+	 * @param resourceType is the resource type, i.e. resource type 1 is given as 1
+	 * @param units is the number of units released
+	 * @throws IllegalArgumentException if the task does not hold that many units
+	 * @throws IllegalStateException if the task is not running, or it has been aborted
+	 */
+	public void release(int task, int resourceType, int units) {
+		int t = indexOf(task);
+		int r = resourceOf(resourceType);
+		ArrayList<Pending> decided;
+		lock.lock();
+		try {
+			checkRunning(t, task);
+			if (units < 0 || units > held[t][r]) {
+				throw new IllegalArgumentException("Task " + task + " cannot release " + units + " units of resource " + resourceType
+						+ " since it holds " + held[t][r]);
+			}
+			handBack(t, r, units);
+			decided = takeSettled();
+		} finally {
+			lock.unlock();
+		}
+		complete(decided);
+	}
+
+	/**
+	 * This method ends the task 'task', handing back every unit it still holds.
+	 * Terminating a task that has been aborted just forgets about it.
+	 * @param task is the task-number
+	 * @throws IllegalStateException if the task has not been initiated, or has a request pending
+	 */
+	public void terminate(int task) {
+		int t = indexOf(task);
+		ArrayList<Pending> decided;
+		lock.lock();
+		try {
+			if (states[t] == ABORTED) {
+				states[t] = IDLE;
+				return;
+			}
+			checkRunning(t, task);
+			retire(t);
+			states[t] = IDLE;
+			decided = takeSettled();
+		} finally {
+			lock.unlock();
+		}
+		complete(decided);
+	}
+
+	/**
+	 * This method returns the units of the resource type 'resourceType' that are not held by any task.
+	 * @param resourceType is the resource type, i.e. resource type 1 is given as 1
+	 * @return the number of units available
+	 */
+	public int getAvailable(int resourceType) {
+		int r = resourceOf(resourceType);
+		lock.lock();
+		try {
+			return available[r];
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * This method returns the units of the resource type 'resourceType' held by the task 'task'.
+	 * @param task is the task-number
+	 * @param resourceType is the resource type, i.e. resource type 1 is given as 1
+	 * @return the number of units held
+	 */
+	public int getUnitsHeld(int task, int resourceType) {
+		int t = indexOf(task);
+		int r = resourceOf(resourceType);
+		lock.lock();
+		try {
+			return held[t][r];
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * This method checks if the task 'task' has been aborted and not terminated since.
+	 * @param task is the task-number
+	 * @return true if the task has been aborted
+	 */
+	public boolean isAborted(int task) {
+		int t = indexOf(task);
+		lock.lock();
+		try {
+			return states[t] == ABORTED;
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * This method grants the request right away if it can, and otherwise adds it to the wait queue of its resource type.
+	 * @param task is the task-number
+	 * @param resourceType is the resource type, i.e. resource type 1 is given as 1
+	 * @param units is the number of units requested
+	 * @return null if the request has been granted, or the pending request otherwise
+	 */
+	private Pending submit(int task, int resourceType, int units) {
+		int t = indexOf(task);
+		int r = resourceOf(resourceType);
+		if (units < 0) {
+			throw new IllegalArgumentException("Task " + task + " cannot request " + units + " units");
+		}
+		ArrayList<Pending> decided;
+		Pending p = null;
+		RuntimeException failure = null;
+		lock.lock();
+		try {
+			checkRunning(t, task);
+			if (policy == Policy.BANKER && units > claims[t][r]) {
+				//HANDLE the error where the request exceeds the claim, by aborting the task
+				failure = new IllegalStateException("Banker aborts task " + task + ": its request of " + units
+						+ " units of resource " + resourceType + " exceeds its claim");
+				abort(t);
+			} else if (!tryGrant(t, r, units)) {
+				//the request has to wait
+				p = new Pending(t, r, units, generations[t]);
+				pending[t] = p;
+				states[t] = WAITING;
+				waitQueues.get(r).add(p);
+				if (policy == Policy.OPTIMISTIC) {
+					graph.request(t, r, units);
+					resolveDeadlocks();
+				}
+			}
+			decided = takeSettled();
+		} finally {
+			lock.unlock();
+		}
+		complete(decided);
+		if (failure != null) {
+			throw failure;
+		}
+		return p;
+	}
+
+	/**
+	 * This method gives up on the pending request 'p' if it is still waiting.
+	 * @param p is the pending request
+	 * @return true if the request has been withdrawn, false if it has been decided already
+	 */
+	private boolean withdraw(Pending p) {
+		ArrayList<Pending> decided;
+		lock.lock();
+		try {
+			if (pending[p.task] != p) {
+				return false;
+			}
+			pending[p.task] = null;
+			states[p.task] = RUNNING;
+			waitQueues.get(p.resource).remove(p);
+			if (policy == Policy.OPTIMISTIC) {
+				graph.withdraw(p.task);
+			}
+			decided = takeSettled();
+		} finally {
+			lock.unlock();
+		}
+		complete(decided);
+		return true;
+	}
+
+	/**
+	 * This method takes back the units of the pending request 'p', which has been granted but whose future has been cancelled.
+	 * 	The units are handed back as if the task had released them, unless the task has been aborted or has terminated since,
+	 * 	 which has handed them back already.
+	 * 	The task may even have been initiated again since, in which case the units it holds belong to its new run,
+	 * 	 so the generation of the task is checked as well as its state.
+	 * @param p is the pending request
+	 */
+	private void takeBack(Pending p) {
+		ArrayList<Pending> decided;
+		lock.lock();
+		try {
+			if (generations[p.task] != p.generation || (states[p.task] != RUNNING && states[p.task] != WAITING)
+					|| held[p.task][p.resource] < p.units) {
+				return;
+			}
+			handBack(p.task, p.resource, p.units);
+			decided = takeSettled();
+		} finally {
+			lock.unlock();
+		}
+		complete(decided);
+	}
+
+	/**
+	 * This method hands back 'units' units of the resource type 'r' held by the task 't',
+	 * 	and grants the waiting requests that can be granted now.
+	 * The lock must be held.
+	 * @param t is the index of the task
+	 * @param r is the index of the resource type
+	 * @param units is the number of units handed back
+	 */
+	private void handBack(int t, int r, int units) {
+		held[t][r] -= units;
+		available[r] += units;
+		if (policy == Policy.BANKER) {
+			claims[t][r] += units;
+			safety.update(t, r, held[t][r], claims[t][r]);
+			grantWaiting();
+		} else {
+			graph.release(t, r, held[t][r]);
+			grantWaiting(r);
+		}
+	}
+
+	/**
+	 * This method grants 'units' units of the resource type 'r' to the task 't' if there are enough of them,
+	 * 	and under the Banker policy, if the state after the grant is safe.
+	 * The lock must be held.
+	 * @param t is the index of the task
+	 * @param r is the index of the resource type
+	 * @param units is the number of units requested
+	 * @return true if the request has been granted
+	 */
+	private boolean tryGrant(int t, int r, int units) {
+		if (units > available[r]) {
+			return false;
+		}
+		if (policy == Policy.BANKER) {
+			//the safety checker records the grant itself if it is safe
+			if (!safety.tryGrant(t, r, units, available)) {
+				return false;
+			}
+			claims[t][r] -= units;
+		} else {
+			graph.grant(t, r, units);
+		}
+		available[r] -= units;
+		held[t][r] += units;
+		return true;
+	}
+
+	/**
+	 * This method grants the requests waiting for the resource type 'r' that can be granted now, in arrival order.
+	 * The lock must be held.
+	 * @param r is the index of the resource type
+	 */
+	private void grantWaiting(int r) {
+		Iterator<Pending> it = waitQueues.get(r).iterator();
+		while (it.hasNext() && available[r] > 0) {
+			Pending p = it.next();
+			if (tryGrant(p.task, r, p.units)) {
+				it.remove();
+				pending[p.task] = null;
+				states[p.task] = RUNNING;
+				settled.add(p);
+			}
+		}
+	}
+
+	/**
+	 * This method grants the requests waiting for any resource type that can be granted now.
+	 * Under the Banker policy, a grant of one resource type can be refused because it is unsafe, and handing back units
+	 * 	of another resource type can make it safe, so every wait queue is looked at.
+	 * The lock must be held.
+	 */
+	private void grantWaiting() {
+		for (int r = 0; r < numResources; r ++) {
+			grantWaiting(r);
+		}
+	}
+
+	/**
+	 * This method aborts the lowest-numbered deadlocked task until the waiting tasks are no longer deadlocked.
+	 * It only looks for a deadlock if a request has started waiting since it last looked.
+	 * The lock must be held.
+	 */
+	private void resolveDeadlocks() {
+		if (!graph.hasChanged()) {
+			return;
+		}
+		for (BitSet deadlocked = graph.findDeadlocked(available, noneReturned); !deadlocked.isEmpty();
+				deadlocked = graph.findDeadlocked(available, noneReturned)) {
+			abort(deadlocked.nextSetBit(0));
+		}
+	}
+
+	/**
+	 * This method aborts the task 't': its pending request fails, and every unit it holds is handed back.
+	 * The lock must be held.
+	 * @param t is the index of the task
+	 */
+	private void abort(int t) {
+		Pending p = pending[t];
+		if (p != null) {
+			pending[t] = null;
+			waitQueues.get(p.resource).remove(p);
+			p.failure = new IllegalStateException("Task " + (t + 1) + " has been aborted");
+			settled.add(p);
+		}
+		retire(t);
+		states[t] = ABORTED;
+	}
+
+	/**
+	 * This method hands back every unit held by the task 't', takes it out of the safety checker or the allocation graph,
+	 * 	and grants the waiting requests that can be granted now.
+	 * The lock must be held.
+	 * @param t is the index of the task
+	 */
+	private void retire(int t) {
+		for (int r = 0; r < numResources; r ++) {
+			available[r] += held[t][r];
+			held[t][r] = 0;
+			claims[t][r] = 0;
+		}
+		if (policy == Policy.BANKER) {
+			safety.retire(t);
+		} else {
+			graph.remove(t);
+		}
+		grantWaiting();
+	}
+
+	/**
+	 * This method checks that the task 't' is running and has no request pending.
+	 * @param t is the index of the task
+	 * @param task is the task-number
+	 * @throws IllegalStateException otherwise
+	 */
+	private void checkRunning(int t, int task) {
+		if (states[t] == RUNNING) {
+			return;
+		} else if (states[t] == ABORTED) {
+			throw new IllegalStateException("Task " + task + " has been aborted");
+		} else if (states[t] == WAITING) {
+			throw new IllegalStateException("Task " + task + " already has a request pending");
+		}
+		throw new IllegalStateException("Task " + task + " has not been initiated");
+	}
+
+	/**
+	 * This method returns the pending requests decided since it was last called, or null if there are none.
+	 * The lock must be held.
+	 * @return an ArrayList of the pending requests, or null
+	 */
+	private ArrayList<Pending> takeSettled() {
+		if (settled.isEmpty()) {
+			return null;
+		}
+		ArrayList<Pending> decided = settled;
+		settled = new ArrayList<>();
+		return decided;
+	}
+
+	/**
+	 * This method completes the future of every pending request decided, outside the lock.
+	 * @param decided is an ArrayList of the pending requests, or null
+	 */
+	private static void complete(ArrayList<Pending> decided) {
+		if (decided == null) {
+			return;
+		}
+		for (Pending p: decided) {
+			if (p.failure == null) {
+				p.future.complete(null);
+			} else {
+				p.future.completeExceptionally(p.failure);
+			}
+		}
+	}
+
+	/**
+	 * This method returns the index of a task-number.
+	 * @param task is the task-number
+	 * @return the index of the task
+	 * @throws IllegalArgumentException if there is no such task
+	 */
+	private int indexOf(int task) {
+		if (task < 1 || task > numTasks) {
+			throw new IllegalArgumentException("No task " + task + " (the tasks are numbered 1 to " + numTasks + ")");
+		}
+		return task - 1;
+	}
+
+	/**
+	 * This method returns the index of a resource type.
+	 * @param resourceType is the resource type, i.e. resource type 1 is given as 1
+	 * @return the index of the resource type
+	 * @throws IllegalArgumentException if there is no such resource type
+	 */
+	private int resourceOf(int resourceType) {
+		if (resourceType < 1 || resourceType > numResources) {
+			throw new IllegalArgumentException("No resource " + resourceType + " (the resource types are numbered 1 to " + numResources + ")");
+		}
+		return resourceType - 1;
+	}
+
+}
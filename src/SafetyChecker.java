@@ -0,0 +1,530 @@
+import java.util.*;
+
+/**
+ * The SafetyChecker class runs the safety algorithm of Dijkstra's Banker's algorithm.
+ * It keeps the Allocation and Need matrices of all the live tasks (the ones that are neither terminated nor aborted)
+ * 	and is told about every change to them, so the matrices never have to be rebuilt from the Tasks.
+ * A state is safe if there is an order (a safe sequence) in which every live task can be given its remaining claim,
+ * 	finish, and hand back everything it holds.
+ * Since the check is done on every request, the safe sequence found last time is kept around, together with the slack of each task in it:
+ * 	the units of each resource type held by the tasks before it in the sequence, minus what it may still request.
+ * 	A task can still finish in its place as long as the units available plus its slack is not negative.
+ * 	The slacks are kept in blocks of slots, each with its smallest slack and an amount added to every slack in it,
+ * 	so a grant or a release changes the slacks of all the tasks after it by updating only a few blocks,
+ * 	and a check finds the first task that can no longer finish in its place without walking the tasks before it one by one.
+ * 	Only the tasks from that one on are searched again; if the state is still safe in the same order, nothing is searched at all.
+ * A probe of the checker (see probe()) shares its matrices and its safe sequence, but has scratch arrays of its own,
+ * 	so several probes can check different requests on different threads at the same time, as long as the checker is not changed meanwhile.
+ * 	A probe checks a request as if it had been granted, without granting it.
+ *
+ * @author gayeonpark
+ *
+ */
+public class SafetyChecker {
+
+	private static final int EMPTY = Integer.MAX_VALUE / 2; //represents the slack of a slot without a task in it, more than any task can be short of
+
+	private int numResources; //represents the number of resource types
+	private int[] allocation; //represents the units of each resource type held by each task, R values per task
+	private int[] need; //represents the units of each resource type each task may still request, R values per task
+	private boolean[] live; //represents if the task is still running, i.e. false means the task has terminated or has been aborted
+	private int[] sequence; //represents the last safe sequence found, as the task in each slot, or -1 for the slot of a task retired since
+	private int[] slotOf; //represents the slot of each live task in the safe sequence
+	private int sequenceLength; //represents the number of slots used in the safe sequence
+	private int[] slack; //represents the slack of the task in each slot for each resource type (see the comment at the top), R values per slot
+	private int blockSize; //represents the number of slots in a block
+	private int[] blockMin; //represents the smallest slack in each block for each resource type, R values per block
+	private int[] blockAdd; //represents the units added to every slack in each block for each resource type, R values per block
+	private int[] totalHeld; //represents the units of each resource type held by all the live tasks
+	private int[] suffix; //represents the tasks searched again in a check
+	private int[] found; //represents those tasks in the order they have been placed in
+	private int[] held; //represents the units of each resource type held by the tasks before the ones searched again
+	private int[] work; //represents the units of each resource type available while searching
+	private boolean[] finished; //represents if a task has been placed in the safe sequence being built
+	private long changes; //represents the number of changes made to the matrices so far
+	private long retirements; //represents the number of tasks retired so far
+
+	private SafetyChecker owner; //represents the checker whose matrices a probe shares, or this checker if it is not a probe
+	private int grantTask; //represents the task of the grant being checked as if it had been made, or -1
+	private int grantResource; //represents the resource type of that grant
+	private int grantUnits; //represents the units of that grant
+
+	/**
+	 * This constructor builds the matrices from the claims of the tasks.
+	 * Every task starts out live, holding nothing, and in the order of its index.
+	 * @param tasks is an ArrayList of all the Tasks, ordered by their index
+	 * @param numResources is the number of resource types
+	 */
+	SafetyChecker(ArrayList<Task> tasks, int numResources) {
+		this(tasks.size(), numResources);
+		int[] claims = new int[numResources];
+		for (Task task: tasks) {
+			for (int r = 0; r < numResources; r ++) {
+				claims[r] = task.getClaim(r);
+			}
+			admit(task.getIndex(), claims);
+		}
+	}
+
+	/**
+	 * This constructor creates the matrices for 'numTasks' tasks, none of which is live yet.
+	 * Each task becomes live once it is admitted.
+	 * 	There are a quarter more slots than tasks, so the slots of the retired tasks are reclaimed only once in a while (see admit()).
+	 * @param numTasks is the number of tasks
+	 * @param numResources is the number of resource types
+	 */
+	SafetyChecker(int numTasks, int numResources) {
+		this.numResources = numResources;
+		allocation = new int[numTasks * numResources];
+		need = new int[numTasks * numResources];
+		live = new boolean[numTasks];
+		int numSlots = numTasks + numTasks / 4 + 1;
+		sequence = new int[numSlots];
+		slotOf = new int[numTasks];
+		sequenceLength = 0;
+		slack = new int[numSlots * numResources];
+		Arrays.fill(slack, EMPTY);
+		blockSize = Math.max(16, (int) Math.sqrt(numSlots));
+		int numBlocks = (numSlots + blockSize - 1) / blockSize;
+		blockMin = new int[numBlocks * numResources];
+		Arrays.fill(blockMin, EMPTY);
+		blockAdd = new int[numBlocks * numResources];
+		totalHeld = new int[numResources];
+		suffix = new int[numTasks];
+		found = new int[numTasks];
+		held = new int[numResources];
+		work = new int[numResources];
+		finished = new boolean[numTasks];
+		changes = 0;
+		retirements = 0;
+		owner = this;
+		grantTask = -1;
+	}
+
+	/**
+	 * This constructor creates a probe of the checker 'owner', sharing its matrices and its safe sequence.
+	 * @param owner is the checker
+	 */
+	private SafetyChecker(SafetyChecker owner) {
+		numResources = owner.numResources;
+		allocation = owner.allocation;
+		need = owner.need;
+		live = owner.live;
+		suffix = new int[owner.suffix.length];
+		found = new int[owner.found.length];
+		held = new int[numResources];
+		work = new int[numResources];
+		finished = new boolean[owner.finished.length];
+		this.owner = owner;
+		grantTask = -1;
+	}
+
+	/**
+	 * This method makes the task 'task' live, holding nothing and claiming 'claims'.
+	 * The task goes at the end of the safe sequence: once every other live task has finished, all the units are free,
+	 * 	so a state that was safe stays safe as long as no claim exceeds the units present.
+	 * If every slot has been used, the live tasks are first moved to the front of the sequence, in the same order.
+	 * @param task is the index of the task, which must not be live
+	 * @param claims is the claim of the task for each resource type
+	 */
+	public void admit(int task, int[] claims) {
+		if (sequenceLength == sequence.length) {
+			int j = 0;
+			for (int i = 0; i < sequenceLength; i ++) {
+				if (sequence[i] >= 0) {
+					sequence[j ++] = sequence[i];
+				}
+			}
+			rebuild(0, j, new int[numResources]);
+		}
+		for (int r = 0; r < numResources; r ++) {
+			allocation[task * numResources + r] = 0;
+			need[task * numResources + r] = claims[r];
+		}
+		live[task] = true;
+		int slot = sequenceLength ++;
+		sequence[slot] = task;
+		slotOf[task] = slot;
+		//the tasks before it hold every unit held
+		for (int r = 0; r < numResources; r ++) {
+			setSlack(slot, r, totalHeld[r] - claims[r]);
+		}
+		changes ++;
+	}
+
+	/**
+	 * This method grants 'units' units of resource type 'resource' to the task 'task' if the state after the grant is safe.
+	 * The caller is expected to have checked that the request fits both the claim of the task and the units available.
+	 * @param task is the index of the requesting task
+	 * @param resource is the index of the resource type requested
+	 * @param units is the number of units requested
+	 * @param available is the units of each resource type available
+	 * @return true if the grant has been made (the state is safe), false if the task has to wait
+	 */
+	public boolean tryGrant(int task, int resource, int units, int[] available) {
+		if (!check(task, resource, units, available)) {
+			return false;
+		}
+		grant(task, resource, units);
+		return true;
+	}
+
+	/**
+	 * This method grants 'units' units of resource type 'resource' to the task 'task' without checking the safety of the state,
+	 * 	since a probe has already found it safe and nothing has changed since (see getChanges()).
+	 * The task holds that many more units and may request that many fewer, so its own slack and that of every task after it grow by 'units'.
+	 * @param task is the index of the requesting task
+	 * @param resource is the index of the resource type requested
+	 * @param units is the number of units requested
+	 */
+	public void grant(int task, int resource, int units) {
+		allocation[task * numResources + resource] += units;
+		need[task * numResources + resource] -= units;
+		totalHeld[resource] += units;
+		addSlack(resource, slotOf[task], sequenceLength, units);
+		changes ++;
+	}
+
+	/**
+	 * This method creates a probe of this checker (see the comment at the top), which is to be used only with isSafeAfterGrant().
+	 * @return the probe
+	 */
+	public SafetyChecker probe() {
+		return new SafetyChecker(this);
+	}
+
+	/**
+	 * This method checks, in a probe, if the state would be safe after granting 'units' units of resource type 'resource' to the task 'task'.
+	 * The shared matrices and safe sequence are only read, so many probes can do this at the same time.
+	 * @param task is the index of the requesting task
+	 * @param resource is the index of the resource type requested
+	 * @param units is the number of units requested
+	 * @param available is the units of each resource type available, which must not change during the check
+	 * @return true if the state after the grant would be safe
+	 */
+	public boolean isSafeAfterGrant(int task, int resource, int units, int[] available) {
+		return check(task, resource, units, available);
+	}
+
+	/**
+	 * This method returns the number of changes made to the matrices so far: every grant, update, and retirement is one change.
+	 * 	A request found safe or unsafe when the number was the same is still safe or unsafe.
+	 * @return the number of changes
+	 */
+	public long getChanges() {
+		return changes;
+	}
+
+	/**
+	 * This method returns the number of tasks retired so far.
+	 * 	Granting or releasing units only leaves fewer units to the other tasks, so a request found unsafe stays unsafe after it;
+	 * 	only a task retiring (whose claim then no longer counts) can make it safe.
+	 * @return the number of tasks retired
+	 */
+	public long getRetirements() {
+		return retirements;
+	}
+
+	/**
+	 * This method records the new allocation and need of the task 'task' for the resource type 'resource',
+	 * 	i.e. after the task released some of its units.
+	 * @param task is the index of the task
+	 * @param resource is the index of the resource type
+	 * @param held is the number of units of the resource type the task holds now
+	 * @param remaining is the number of units of the resource type the task may still request
+	 */
+	public void update(int task, int resource, int held, int remaining) {
+		int heldChange = held - allocation[task * numResources + resource];
+		int needChange = remaining - need[task * numResources + resource];
+		allocation[task * numResources + resource] = held;
+		need[task * numResources + resource] = remaining;
+		if (live[task]) {
+			int slot = slotOf[task];
+			totalHeld[resource] += heldChange;
+			addSlack(resource, slot, slot + 1, -needChange);
+			addSlack(resource, slot + 1, sequenceLength, heldChange);
+		}
+		changes ++;
+	}
+
+	/**
+	 * This method removes the task 'task' from the live tasks since it terminated or has been aborted.
+	 * Its slot is left empty, and the units it holds no longer count for the tasks after it.
+	 * @param task is the index of the task
+	 */
+	public void retire(int task) {
+		if (!live[task]) {
+			return;
+		}
+		live[task] = false;
+		changes ++;
+		retirements ++;
+		int slot = slotOf[task];
+		for (int r = 0; r < numResources; r ++) {
+			int held = allocation[task * numResources + r];
+			totalHeld[r] -= held;
+			addSlack(r, slot + 1, sequenceLength, -held);
+			setSlack(slot, r, EMPTY);
+		}
+		sequence[slot] = -1;
+	}
+
+	/**
+	 * This method checks if the state is safe after granting 'units' units of resource type 'resource' to the task 'task',
+	 * 	without changing the matrices.
+	 * After the grant, the tasks before the task in the safe sequence have 'units' fewer units of the resource type to finish with,
+	 * 	while the task and the ones after it have just as many as before, since the task hands the units back when it finishes.
+	 * So the blocks find the first task that can no longer finish in its place, and only the tasks from it on are searched again,
+	 * 	by repeatedly picking any remaining task whose need fits in 'work' (the usual safety algorithm).
+	 * A checker (but not a probe) keeps the new order of those tasks if the state is safe.
+	 * @param task is the index of the requesting task
+	 * @param resource is the index of the resource type requested
+	 * @param units is the number of units requested
+	 * @param available is the units of each resource type available
+	 * @return true if a safe sequence has been found
+	 */
+	private boolean check(int task, int resource, int units, int[] available) {
+		SafetyChecker c = owner;
+		int length = c.sequenceLength;
+		int grantSlot = c.slotOf[task];
+
+		//find the first slot whose task cannot finish in its place
+		int first = length;
+		for (int r = 0; r < numResources; r ++) {
+			if (r == resource) {
+				int end = Math.min(grantSlot, first);
+				int below = c.firstBelow(r, 0, end, units - available[r]);
+				if (below < end) {
+					first = below;
+				}
+			}
+			first = c.firstBelow(r, 0, first, -available[r]);
+		}
+		if (first == length) {
+			return true;
+		}
+
+		//the units available at that slot are the ones available plus the ones held by the tasks before it
+		int firstTask = c.sequence[first];
+		for (int r = 0; r < numResources; r ++) {
+			held[r] = c.slackAt(first, r) + need[firstTask * numResources + r];
+			work[r] = available[r] + held[r];
+		}
+		if (grantSlot >= first) {
+			work[resource] -= units;
+		}
+
+		//search again for the tasks from that slot on
+		int numSuffix = 0;
+		for (int i = first; i < length; i ++) {
+			int t = c.sequence[i];
+			if (t >= 0) {
+				finished[t] = false;
+				suffix[numSuffix ++] = t;
+			}
+		}
+		grantTask = task;
+		grantResource = resource;
+		grantUnits = units;
+		int placed = 0;
+		boolean progress = true;
+		while (progress && placed < numSuffix) {
+			progress = false;
+			for (int k = 0; k < numSuffix; k ++) {
+				int t = suffix[k];
+				if (!finished[t] && fits(t)) {
+					finished[t] = true;
+					giveBack(t);
+					found[placed ++] = t;
+					progress = true;
+				}
+			}
+		}
+		grantTask = -1;
+		if (placed < numSuffix) {
+			return false;
+		}
+
+		//keep the new order, which the next checks start from
+		if (c == this) {
+			System.arraycopy(found, 0, sequence, first, placed);
+			rebuild(first, first + placed, held);
+		}
+		return true;
+	}
+
+	/**
+	 * This method writes again the slacks of the slots from 'from' on, after the tasks in them have been put in a new order,
+	 * 	and empties the slots after the last of those tasks.
+	 * @param from is the first slot rewritten
+	 * @param newLength is the number of slots used afterwards; the slots from 'from' to it hold the tasks in their new order
+	 * @param held is the units of each resource type held by the tasks before 'from', which is changed
+	 */
+	private void rebuild(int from, int newLength, int[] held) {
+		int oldLength = sequenceLength;
+		int end = Math.max(oldLength, newLength);
+		if (end > from) {
+			//the first block is only partly rewritten, so the units added to it go into its slots
+			int firstBlock = from / blockSize;
+			for (int r = 0; r < numResources; r ++) {
+				int add = blockAdd[firstBlock * numResources + r];
+				for (int i = firstBlock * blockSize; i < from; i ++) {
+					slack[i * numResources + r] += add;
+				}
+				for (int b = firstBlock; b * blockSize < end; b ++) {
+					blockAdd[b * numResources + r] = 0;
+				}
+			}
+			for (int i = from; i < end; i ++) {
+				int t = i < newLength ? sequence[i] : -1;
+				for (int r = 0; r < numResources; r ++) {
+					if (t >= 0) {
+						slack[i * numResources + r] = held[r] - need[t * numResources + r];
+						held[r] += allocation[t * numResources + r];
+					} else {
+						slack[i * numResources + r] = EMPTY;
+					}
+				}
+				if (t >= 0) {
+					slotOf[t] = i;
+				} else {
+					sequence[i] = -1;
+				}
+			}
+			for (int b = firstBlock; b * blockSize < end; b ++) {
+				for (int r = 0; r < numResources; r ++) {
+					refresh(b, r);
+				}
+			}
+		}
+		sequenceLength = newLength;
+	}
+
+	/**
+	 * This method returns the slack of the task in the slot 'slot' for the resource type 'r'.
+	 * @param slot is the slot
+	 * @param r is the index of the resource type
+	 * @return the slack
+	 */
+	private int slackAt(int slot, int r) {
+		return slack[slot * numResources + r] + blockAdd[(slot / blockSize) * numResources + r];
+	}
+
+	/**
+	 * This method sets the slack of the task in the slot 'slot' for the resource type 'r'.
+	 * @param slot is the slot
+	 * @param r is the index of the resource type
+	 * @param value is the slack, or EMPTY for a slot without a task
+	 */
+	private void setSlack(int slot, int r, int value) {
+		int b = (slot / blockSize) * numResources + r;
+		int old = slack[slot * numResources + r];
+		slack[slot * numResources + r] = value - blockAdd[b];
+		if (slack[slot * numResources + r] < blockMin[b]) {
+			blockMin[b] = slack[slot * numResources + r];
+		} else if (old == blockMin[b]) {
+			refresh(b / numResources, r);
+		}
+	}
+
+	/**
+	 * This method adds 'units' to the slacks of the slots from 'from' to 'to' (excluded) for the resource type 'r'.
+	 * 	The blocks entirely in between only have the units added to them as a whole.
+	 * @param r is the index of the resource type
+	 * @param from is the first slot
+	 * @param to is the slot after the last one
+	 * @param units is the number of units added, which may be negative
+	 */
+	private void addSlack(int r, int from, int to, int units) {
+		if (units == 0) {
+			return;
+		}
+		int i = from;
+		while (i < to) {
+			int b = i / blockSize;
+			int end = Math.min((b + 1) * blockSize, to);
+			if (i == b * blockSize && end == (b + 1) * blockSize) {
+				blockAdd[b * numResources + r] += units;
+			} else {
+				for (int j = i; j < end; j ++) {
+					slack[j * numResources + r] += units;
+				}
+				refresh(b, r);
+			}
+			i = end;
+		}
+	}
+
+	/**
+	 * This method finds the first slot from 'from' to 'to' (excluded) whose slack for the resource type 'r' is less than 'limit',
+	 * 	skipping the blocks whose smallest slack is not.
+	 * @param r is the index of the resource type
+	 * @param from is the first slot
+	 * @param to is the slot after the last one
+	 * @param limit is the limit
+	 * @return the slot, or 'to' if there is none
+	 */
+	private int firstBelow(int r, int from, int to, int limit) {
+		int i = from;
+		while (i < to) {
+			int b = i / blockSize;
+			int end = Math.min((b + 1) * blockSize, to);
+			int add = blockAdd[b * numResources + r];
+			if (i == b * blockSize && blockMin[b * numResources + r] + add >= limit) {
+				i = end;
+				continue;
+			}
+			for (; i < end; i ++) {
+				if (slack[i * numResources + r] + add < limit) {
+					return i;
+				}
+			}
+		}
+		return to;
+	}
+
+	/**
+	 * This method finds again the smallest slack in the block 'b' for the resource type 'r'.
+	 * @param b is the block
+	 * @param r is the index of the resource type
+	 */
+	private void refresh(int b, int r) {
+		int min = EMPTY;
+		int end = Math.min((b + 1) * blockSize, sequence.length);
+		for (int i = b * blockSize; i < end; i ++) {
+			min = Math.min(min, slack[i * numResources + r]);
+		}
+		blockMin[b * numResources + r] = min;
+	}
+
+	/**
+	 * This method checks if the need of the task 't' for every resource type fits in 'work'.
+	 * 	The grant being checked counts as made, i.e. the need of its task for its resource type is that many units smaller.
+	 * @param t is the index of the task
+	 * @return true if the task can be given its remaining claim
+	 */
+	private boolean fits(int t) {
+		for (int r = 0; r < numResources; r ++) {
+			if (need[t * numResources + r] > work[r]
+					&& !(t == grantTask && r == grantResource && need[t * numResources + r] - grantUnits <= work[r])) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * This method adds the units held by the task 't' to 'work', since the task can finish and hand them back.
+	 * 	The grant being checked counts as made, i.e. its task holds that many more units of its resource type.
+	 * @param t is the index of the task
+	 */
+	private void giveBack(int t) {
+		for (int r = 0; r < numResources; r ++) {
+			work[r] += allocation[t * numResources + r];
+		}
+		if (t == grantTask) {
+			work[grantResource] += grantUnits;
+		}
+	}
+
+}
@@ -0,0 +1,107 @@
+import java.io.*;
+
+/**
+ * The SimulationOptions class holds the options of a simulation given on the command line,
+ * 	so they can be handed to Banker.simulate() as one value, and each of them has a default when it is not given.
+ *
+ * @author gayeonpark
+ *
+ */
+public class SimulationOptions {
+
+	boolean subsetDeadlocks = false; //represents if the Optimistic resource manager detects deadlocks among a subset of the tasks
+	boolean components = false; //represents if the Optimistic resource manager runs the independent components of the tasks on their own threads
+	boolean detailed = false; //represents if the cycle-by-cycle trace of each manager is written before the output
+	VictimPolicy victims = VictimPolicy.LOWEST_INDEX; //represents how the Optimistic resource manager chooses the task to abort in a deadlock
+	GrantPolicy grants = GrantPolicy.FIFO; //represents the order in which the Optimistic resource manager looks at the blocked requests
+	int checkThreads = 1; //represents the number of threads the Banker's algorithm runs the safety checks of each cycle on
+	String checkpoint = null; //represents the start of the names of the checkpoint files, or null if no checkpoint is written
+	int checkpointEvery = 100000; //represents the number of cycles between two checkpoints
+	String resume = null; //represents the start of the names of the checkpoint files to resume from, or null to start from the beginning
+
+	/**
+	 * This method reads the option at 'args[i]' (and the value after it, if it takes one).
+	 * @param args are the command line arguments
+	 * @param i is the index of the option
+	 * @return the index of the last argument read, or -1 if 'args[i]' is not an option
+	 * @throws IllegalArgumentException if the value of the option is missing or not valid
+	 */
+	int parse(String[] args, int i) {
+		String option = args[i];
+		if (option.equals("--subset-deadlocks")) {
+			subsetDeadlocks = true;
+			return i;
+		} else if (option.equals("--detailed")) {
+			detailed = true;
+			return i;
+		} else if (option.equals("--components")) {
+			components = true;
+			return i;
+		}
+		if (i + 1 >= args.length) {
+			return -1;
+		}
+		String value = args[i + 1];
+		switch (option) {
+		case "--victim": victims = VictimPolicy.forName(value); break;
+		case "--grant": grants = GrantPolicy.forName(value); break;
+		case "--check-threads":
+			checkThreads = Integer.parseInt(value);
+			if (checkThreads < 1) {
+				throw new IllegalArgumentException("the number of threads for the safety checks must be at least 1");
+			}
+			break;
+		case "--checkpoint": checkpoint = value; break;
+		case "--checkpoint-every":
+			checkpointEvery = Integer.parseInt(value);
+			if (checkpointEvery < 1) {
+				throw new IllegalArgumentException("the number of cycles between checkpoints must be at least 1");
+			}
+			break;
+		case "--resume": resume = value; break;
+		default: return -1;
+		}
+		return i + 1;
+	}
+
+	/**
+	 * This method checks that the options given can be used together.
+	 * 	The components of the tasks are only independent when deadlocks are detected among a subset of the tasks (see ComponentSimulation),
+	 * 	and they are simulated by several managers at once, so there is no single trace or checkpoint of them.
+	 * @throws IllegalArgumentException if the options cannot be used together
+	 */
+	void validate() {
+		if (components && !subsetDeadlocks) {
+			throw new IllegalArgumentException("--components needs --subset-deadlocks");
+		}
+		if (components && (detailed || checkpoint != null || resume != null)) {
+			throw new IllegalArgumentException("--components cannot be used with --detailed, --checkpoint or --resume");
+		}
+	}
+
+	/**
+	 * This method sets up the manager 'manager' for the checkpoint options:
+	 * 	it is resumed from its checkpoint file, and it writes its checkpoints to its own file.
+	 * The file of a manager is the name given followed by 'suffix', i.e. "run.fifo" for the name "run" and the suffix ".fifo".
+	 * 	Since a manager writes its first checkpoint before it runs, the file of a run that was started is always there,
+	 * 	 so a file that is not there means the name is wrong, and the run is not silently started over.
+	 * @param manager is the manager, which has not been run yet
+	 * @param suffix is the end of the name of the checkpoint file of the manager
+	 * @throws IOException if the checkpoint to resume from does not exist or cannot be read
+	 * @throws CheckpointException if the first checkpoint cannot be written
+	 */
+	void setUpCheckpoints(ResourceManager manager, String suffix) throws IOException {
+		if (resume != null) {
+			File file = new File(resume + suffix);
+			if (!file.isFile()) {
+				//not a FileNotFoundException, which is taken for a missing input file
+				throw new IOException("the checkpoint " + file + " to resume from does not exist");
+			}
+			manager.resume(file);
+		}
+		if (checkpoint != null) {
+			manager.setCheckpoint(new File(checkpoint + suffix), checkpointEvery);
+		}
+	}
+
+}
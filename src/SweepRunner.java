@@ -0,0 +1,277 @@
+import java.io.*;
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * The SweepRunner class runs both simulations of one input over many numbers of units of each resource type, for capacity planning.
+ * The input is parsed once, and each unit vector is given to a workload of the same tasks (see Workload.withUnits()),
+ * 	so the activities are shared by every configuration rather than read again for each one.
+ * The unit vectors are given as one term for each resource type, separated by commas, and every combination of them is run (a grid):
+ * 	"N" is N units, "A-B" is every number from A to B, "A-B:S" is every S-th number from A to B, and "*" is the units given in the input.
+ * 	A single term with more than one resource type gives every resource type the same number of units (a range).
+ * Each configuration is simulated on a thread of a ForkJoinPool, with as many threads as the parallelism level,
+ * 	and its line of the table is written as soon as the configurations before it are done, so the table is the same no matter how many threads are used.
+ * Each line holds the units of each resource type, and for each manager the total time, the overall percentage of time spent waiting, and the number of tasks aborted.
+ * Every configuration is simulated with the same SimulationOptions, as if the input had been given on its own with them and the units of the configuration.
+ *
+ * @author gayeonpark
+ *
+ */
+public class SweepRunner {
+
+	private int parallelism; //represents the number of configurations simulated at the same time
+	private SimulationOptions options; //represents the options every configuration is simulated with
+
+	/**
+	 * This constructor sets the parallelism level, and the options every configuration is simulated with.
+	 * @param parallelism is the number of configurations simulated at the same time
+	 * @param options is the options of the simulations, which must not write a trace or checkpoints, resume from them, or split the tasks into components
+	 */
+	SweepRunner(int parallelism, SimulationOptions options) {
+		this.parallelism = parallelism;
+		this.options = options;
+	}
+
+	/**
+	 * This main method reads the command line arguments for the sweep mode:
+	 * 	"--sweep" followed by the unit vectors and the input file, and optionally "--parallelism" followed by a number.
+	 * 	The parallelism level is the number of available processors if it is not given.
+	 * 	The options of a single file can be given as well, except for "--detailed", "--components", "--checkpoint" and "--resume",
+	 * 	 since the table has no room for a trace, the configurations already fill the threads, and the checkpoints would be written to the same files.
+	 * @param args are the command line arguments passed in when running this Java program
+	 */
+	public static void main(String[] args) {
+		String spec = null; //represents the unit vectors to run
+		String input = null; //represents the name of the input file
+		int parallelism = Runtime.getRuntime().availableProcessors();
+		SimulationOptions options = new SimulationOptions();
+
+		try {
+			for (int i = 0; i < args.length; i ++) {
+				int last; //represents the index of the last argument of an option
+				if (args[i].equals("--sweep")) {
+					spec = args[++ i];
+				} else if (args[i].equals("--parallelism")) {
+					parallelism = Integer.parseInt(args[++ i]);
+				} else if ((last = options.parse(args, i)) >= 0) {
+					i = last;
+				} else if (input == null && !args[i].startsWith("--")) {
+					input = args[i];
+				} else {
+					//neither an option of a simulation nor the only input file
+					spec = null;
+					break;
+				}
+			}
+			options.validate();
+			if (options.detailed || options.components || options.checkpoint != null || options.resume != null) {
+				throw new IllegalArgumentException("--sweep cannot be used with --detailed, --components, --checkpoint or --resume");
+			}
+		} catch (IllegalArgumentException e) {
+			//a NumberFormatException is an IllegalArgumentException as well
+			System.out.println(Banker.invalidOption(e));
+			return;
+		} catch (ArrayIndexOutOfBoundsException e) {
+			spec = null;
+		}
+		if (spec == null || input == null || parallelism < 1) {
+			System.out.println("Usage: java Banker --sweep <units of each resource type, i.e. 2-8,4,*> [--parallelism <number of threads>] [options of a single file] <input file>");
+			return;
+		}
+
+		try {
+			Workload workload = Workload.parse(new File(input));
+			List<int[]> vectors;
+			try {
+				vectors = unitVectors(spec, workload);
+			} catch (IllegalArgumentException e) {
+				System.out.println("Invalid unit vectors: " + e.getMessage());
+				return;
+			}
+			new SweepRunner(parallelism, options).run(workload, vectors, System.out);
+		} catch (IllegalArgumentException e) { //an activity is of a task or a resource type that does not exist, a task never terminates, or a token is malformed
+			System.out.println("Invalid input: " + e.getMessage());
+		} catch (FileNotFoundException e) {
+			System.out.println("Please make sure that you are giving the file name as a command line argument.");
+		} catch (IOException e) {
+			System.out.println("Could not read the input file: " + e.getMessage());
+		}
+	}
+
+	/**
+	 * This method returns every unit vector given by 'spec' (see the comment at the top), in order:
+	 * 	the last resource type changes the fastest, as in nested loops.
+	 * @param spec is the terms of the resource types, separated by commas
+	 * @param workload is the parsed input, whose units "*" stands for
+	 * @return a List of the unit vectors
+	 * @throws IllegalArgumentException if a term is not valid, or there are not as many terms as resource types
+	 */
+	static List<int[]> unitVectors(String spec, Workload workload) {
+		int numResources = workload.getNumResources();
+		String[] terms = spec.split(",");
+
+		//a single term is the same number of units for every resource type
+		if (terms.length == 1 && numResources > 1) {
+			List<int[]> vectors = new ArrayList<>();
+			for (int units: values(terms[0], -1)) {
+				int[] vector = new int[numResources];
+				Arrays.fill(vector, units);
+				vectors.add(vector);
+			}
+			return vectors;
+		}
+		if (terms.length != numResources) {
+			throw new IllegalArgumentException("expected " + numResources + " terms but got " + terms.length);
+		}
+
+		int[][] values = new int[numResources][];
+		for (int r = 0; r < numResources; r ++) {
+			values[r] = values(terms[r], workload.getUnits(r));
+		}
+
+		//go through every combination, like an odometer whose last digit turns the fastest
+		List<int[]> vectors = new ArrayList<>();
+		int[] digits = new int[numResources];
+		while (true) {
+			int[] vector = new int[numResources];
+			for (int r = 0; r < numResources; r ++) {
+				vector[r] = values[r][digits[r]];
+			}
+			vectors.add(vector);
+
+			int r = numResources - 1;
+			while (r >= 0 && ++ digits[r] == values[r].length) {
+				digits[r] = 0;
+				r --;
+			}
+			if (r < 0) {
+				return vectors;
+			}
+		}
+	}
+
+	/**
+	 * This method returns the numbers of units given by one term.
+	 * @param term is "N", "A-B", "A-B:S", or "*"
+	 * @param input is the units given in the input, which "*" stands for, or -1 if "*" cannot be used
+	 * @return the numbers of units, in increasing order
+	 * @throws IllegalArgumentException if the term is not valid
+	 */
+	private static int[] values(String term, int input) {
+		if (term.equals("*")) {
+			if (input < 0) {
+				throw new IllegalArgumentException("* needs a term for each resource type");
+			}
+			return new int[] {input};
+		}
+
+		int step = 1;
+		int colon = term.indexOf(':');
+		if (colon >= 0) {
+			step = Integer.parseInt(term.substring(colon + 1));
+			term = term.substring(0, colon);
+		}
+		int dash = term.indexOf('-');
+		int from = Integer.parseInt(dash < 0 ? term : term.substring(0, dash));
+		int to = dash < 0 ? from : Integer.parseInt(term.substring(dash + 1));
+		if (from < 0 || to < from || step < 1) {
+			throw new IllegalArgumentException(term + " is not a range of numbers of units");
+		}
+
+		int[] values = new int[(to - from) / step + 1];
+		for (int i = 0; i < values.length; i ++) {
+			values[i] = from + i * step;
+		}
+		return values;
+	}
+
+	/**
+	 * This method simulates every unit vector and writes the table to 'out', one line per unit vector in the order of the list.
+	 * The line of a unit vector is kept in memory until all the lines before it have been written.
+	 * @param workload is the parsed input
+	 * @param vectors is a List of the unit vectors
+	 * @param out is where the table is written
+	 */
+	void run(Workload workload, List<int[]> vectors, PrintStream out) {
+		ForkJoinPool pool = new ForkJoinPool(parallelism);
+		try {
+			List<Future<String>> lines = new ArrayList<>();
+			for (int[] units: vectors) {
+				lines.add(pool.submit(() -> simulateToLine(workload.withUnits(units), options)));
+			}
+
+			out.printf("%-20s %8s %6s %7s %8s %6s %7s%n", "units", "fifo", "wait", "aborts", "banker", "wait", "aborts");
+			for (int i = 0; i < vectors.size(); i ++) {
+				try {
+					out.println(lines.get(i).get());
+				} catch (ExecutionException e) {
+					out.printf("%-20s Could not simulate the configuration: %s%n", format(vectors.get(i)), e.getCause());
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+					return;
+				}
+			}
+		} finally {
+			pool.shutdownNow();
+		}
+	}
+
+	/**
+	 * This method runs both simulations of one configuration and returns its line of the table.
+	 * @param workload is the parsed input, with the units of the configuration
+	 * @param options is the options of the simulations
+	 * @return the line of the table
+	 */
+	private static String simulateToLine(Workload workload, SimulationOptions options) {
+		OptimisticManager optimistic = new OptimisticManager(workload, options.subsetDeadlocks);
+		optimistic.setVictimPolicy(options.victims);
+		optimistic.setGrantPolicy(options.grants);
+		BankerManager banker = new BankerManager(workload);
+		banker.setCheckThreads(options.checkThreads);
+		try {
+			optimistic.run();
+			banker.run();
+		} finally {
+			//the errors are not printed in a sweep, so their logs are closed here
+			optimistic.events.close();
+			banker.events.close();
+		}
+
+		int[] units = new int[workload.getNumResources()];
+		for (int r = 0; r < units.length; r ++) {
+			units[r] = workload.getUnits(r);
+		}
+		return String.format("%-20s %s %s", format(units), summarize(optimistic.tasksFinalized), summarize(banker.tasksFinalized));
+	}
+
+	/**
+	 * This method returns the total time, the overall percentage of time spent waiting, and the number of tasks aborted,
+	 * 	with the totals worked out by ResourceManager.totals(), just as in the output of a manager.
+	 * @param tasks is every task, after the manager has run
+	 * @return the three columns of the manager
+	 */
+	private static String summarize(List<Task> tasks) {
+		long[] totals = ResourceManager.totals(tasks);
+		int aborted = 0; //represents the number of Tasks aborted
+		for (Task t: tasks) {
+			if (t.isAborted()) {
+				aborted ++;
+			}
+		}
+		return String.format("%8d %5d%% %7d", totals[0], ResourceManager.waitingPercentage(totals), aborted);
+	}
+
+	/**
+	 * This method returns the units of each resource type separated by spaces.
+	 * @param units is the units of each resource type
+	 * @return the text
+	 */
+	private static String format(int[] units) {
+		StringBuilder text = new StringBuilder();
+		for (int r = 0; r < units.length; r ++) {
+			text.append(r == 0 ? "" : " ").append(units[r]);
+		}
+		return text.toString();
+	}
+
+}
@@ -1,22 +1,47 @@
+import java.io.*;
+import java.nio.*;
 import java.util.*;
 
 /**
  * The Task class contains all the information about a Task.
- * It includes an ArrayList of HashMap of <String, ArrayList<Integer>> pair that represents a list of all the activities of a task
- * 		**note that an activity is specified by a String (tells you the type of an activity: initiate, request, release, and terminate)
+ * It includes the list of all the activities of a task, stored as fixed-width records in a ByteBuffer, one record per activity:
+ * 		**note that an activity is specified by its type (one of: initiate, request, release, and terminate, kept as an opcode)
  *        and four unsigned integers that indicate information about the activity.
+ *        The task-number is not stored since it is the same for every activity of the task.
+ * The records have the same layout as in a compiled trace (see CompiledTrace), so the activities of a task loaded from one
+ * 	are read straight from the memory-mapped file instead of being copied.
+ * 	The ByteBuffer is the one holding the records of every task of the workload, and the task only knows where its own records start,
+ * 	 so the activities are kept once however many managers run over the workload; a Task only holds what changes while it runs.
+ * The activities are never removed; a cursor points at the activity the task is currently working on.
  * It also contains other private instance variables and public methods to store/manage information about the Task and the state of the Task.
- * It has one constructor that takes in an integer as its parameter.
+ * 	The units of each resource type held by the task and the units it still claims are kept together in one int array, 'units'.
+ * It has two constructors: one that takes in the index of the task and the number of resource types (the task-number is the index plus one),
+ * 	and one that takes in the task-number as well, for a task simulated among a group of tasks (see ComponentSimulation).
  *            
  * @author gayeonpark
  *
  */
 public class Task {
 	
-	//represents an ArrayList of HashMap of <String, ArrayList<Integer>> pair that represents a list of all the activities of a task
-	// note that an activity is specified by a String (tells you the type of an activity: initiate, request, release, and terminate)
-	// and four unsigned integers that indicate information about the activity.
-	private ArrayList<HashMap<String, ArrayList<Integer>>> activities;
+	//the opcodes that represent the type of an activity
+	public static final byte INITIATE = 0;
+	public static final byte REQUEST = 1;
+	public static final byte RELEASE = 2;
+	public static final byte TERMINATE = 3;
+
+	//the layout of an activity record: four little-endian ints
+	static final int RECORD_SIZE = 16; //the number of bytes of a record
+	static final ByteBuffer NO_RECORDS = ByteBuffer.allocate(0).order(ByteOrder.LITTLE_ENDIAN); //the records of a task without activities
+	static final int TYPE = 0; //the offset of the opcode of the activity
+	private static final int DELAY = 4; //the offset of the delay of the activity
+	static final int RESOURCE = 8; //the offset of the index of the resource type of the activity, i.e. resource type 1 has an index of 0
+	private static final int AMOUNT = 12; //the offset of the initial claim, or the number of units requested/released, of the activity
+
+	private ByteBuffer activities; //represents the records holding the activities of the task, where the i-th record from 'start' belongs to the i-th activity
+	private int start; //represents the offset of the record of the first activity of the task
+	private int numActivities; //represents the number of activities of the task
+	private int cursor; //represents the position of the activity the task is currently working on
+	private int offset; //represents the offset of the record of the activity the task is currently working on
 
 	private int index; //represents the index of the task, i.e. Task 1 has an index of 0
 	private int taskNum; //represents the number of the task, i.e. Task 1 has a taskNum of 1
@@ -26,47 +51,154 @@ public class Task {
 	private int delayForTerminate; //represents the delay counter for terminate activity
 	private int timeTerminated; //represents the time the task terminated
 	private boolean taskAborted; //represents if the task has been aborted or not, i.e. false means task has NOT been aborted
-	private HashMap<Integer,Integer> resourcesHeld; //represents the list of resources HELD by the task. A resource held is represented as
-														//a (Integer,Integer) pair: the index of the resource held, the number of units held 
-	private HashMap<Integer,Integer> claims; //represents the list of resources CLAIMED by the task. A resource claimed is represented as
-												//a (Integer,Integer) pair: the index of the resource claimed, the number of units claimed 
+	private int numResources; //represents the number of resource types
+	//represents the units of each resource type HELD by the task, indexed by the index of the resource type,
+	// followed by the units of each resource type CLAIMED by the task (and not requested yet), indexed by numResources + the index of the resource type
+	private int[] units;
 	
 	/**
 	 * This constructor initializes the values for its private instance variables
 	 * and sets the index of the task as the value passed in by the parameter.
 	 * @param i represents the index of the task.
+	 * @param numResources represents the number of resource types.
+	 */
+	Task (int i, int numResources){
+		this(i, i + 1, numResources);
+	}
+
+	/**
+	 * This constructor creates a task whose number is not its index plus one,
+	 * 	i.e. a task of a group of tasks simulated on their own (see ComponentSimulation), which keeps the number it has in the input.
+	 * @param i represents the index of the task among the tasks it is simulated with.
+	 * @param taskNum represents the number of the task in the input.
+	 * @param numResources represents the number of resource types.
 	 */
-	Task (int i){
-		activities = new ArrayList<HashMap<String, ArrayList<Integer>>>();
+	Task (int i, int taskNum, int numResources){
+		activities = NO_RECORDS;
+		start = 0;
+		numActivities = 0;
+		cursor = 0;
+		offset = 0;
 		index = i;
-		taskNum = i + 1;
+		this.taskNum = taskNum;
 		waitTime = 0;
 		delayForRequest = 0;
 		delayForRelease = 0;
 		delayForTerminate = 0;
 		timeTerminated = 0;
 		taskAborted = false;
-		resourcesHeld = new HashMap<>();
-		claims = new HashMap<>();
+		this.numResources = numResources;
+		units = new int[2 * numResources];
+	}
+	
+	/**
+	 * This method returns the opcode of the activity type that is written as the String 'type' in the input,
+	 * 	i.e. "request" gives REQUEST.
+	 * @param type, a String that is one of: initiate, request, release, and terminate.
+	 * @return the opcode of the activity type.
+	 */
+	public static byte toActivityType(String type) {
+		switch (type) {
+		case "initiate":
+			return INITIATE;
+		case "request":
+			return REQUEST;
+		case "release":
+			return RELEASE;
+		case "terminate":
+			return TERMINATE;
+		default:
+			throw new IllegalArgumentException("Unknown activity: " + type);
+		}
+	}
+	
+	/**
+	 * This method replaces the activities of the task with 'count' records read from 'records', starting at the byte offset 'at'.
+	 * 	The ByteBuffer is not copied, i.e. it can be a segment of a memory-mapped compiled trace shared by every task,
+	 * 	 and it is only ever read with absolute gets, so any number of threads can read it at once.
+	 * @param records, a little-endian ByteBuffer holding the activities of the task.
+	 * @param at, the byte offset of the record of the first activity.
+	 * @param count, the number of activities.
+	 */
+	void setActivities(ByteBuffer records, int at, int count) {
+		activities = records;
+		start = at;
+		numActivities = count;
+		cursor = 0;
+		offset = at;
+	}
+
+	/**
+	 * This method writes one activity record into 'records' at the byte offset given.
+	 * @param records, a little-endian ByteBuffer.
+	 * @param at, the byte offset of the record.
+	 * @param type, the opcode of the activity type.
+	 * @param delay, the delay of the activity.
+	 * @param resource, the index of the resource type of the activity, i.e. resource type 1 has an index of 0.
+	 * @param amount, the initial claim, or the number of units requested/released, of the activity.
+	 */
+	static void putRecord(ByteBuffer records, int at, byte type, int delay, int resource, int amount) {
+		records.putInt(at + TYPE, type);
+		records.putInt(at + DELAY, delay);
+		records.putInt(at + RESOURCE, resource);
+		records.putInt(at + AMOUNT, amount);
 	}
 	
 	/**
-	 * This method returns the list of the activities of the task. 
-	 * @return activities, an ArrayList of HashMaps<String, ArrayList<Integer>> 
-	 * 			that represent the activities of the task.
+	 * This method returns the opcode of the type of the activity the task is currently working on.
+	 * @return the opcode of the current activity, one of: INITIATE, REQUEST, RELEASE, and TERMINATE.
 	 */
-	public ArrayList<HashMap<String, ArrayList<Integer>>> getActivities() {
-		return activities;
+	public byte getActivityType() {
+		return (byte) activities.getInt(offset + TYPE);
 	}
 	
 	/**
-	 * This method sets the ArrayList of HashMaps<String, ArrayList<Integer>> that was passed in from the parameter 
-	 * as its list of the activities of the task.
-	 * @param actvts, an ArrayList of HashMaps<String, ArrayList<Integer>> that represent a list of activities.
-	 * 			In context of this project, the actvts would actually represent the modified list of activities of the task.
+	 * This method returns the delay of the activity the task is currently working on.
+	 * @return an int value that represents the delay of the current activity.
 	 */
-	public void setActivities(ArrayList<HashMap<String, ArrayList<Integer>>> actvts) {
-		activities = actvts;
+	public int getActivityDelay() {
+		return activities.getInt(offset + DELAY);
+	}
+	
+	/**
+	 * This method returns the index of the resource type of the activity the task is currently working on,
+	 * 	i.e. resource type 1 has an index of 0.
+	 * @return an int value that represents the index of the resource type of the current activity.
+	 */
+	public int getActivityResource() {
+		return activities.getInt(offset + RESOURCE);
+	}
+	
+	/**
+	 * This method returns the initial claim, or the number of units requested/released, of the activity the task is currently working on.
+	 * @return an int value that represents the units of the current activity.
+	 */
+	public int getActivityAmount() {
+		return activities.getInt(offset + AMOUNT);
+	}
+	
+	/**
+	 * This method moves the cursor on to the next activity, since the current activity has been granted.
+	 */
+	public void nextActivity() {
+		cursor ++;
+		offset += RECORD_SIZE;
+	}
+	
+	/**
+	 * This method returns the number of activities that are left for the task, including the current one.
+	 * @return an int value that represents the number of activities left.
+	 */
+	public int getActivitiesLeft() {
+		return numActivities - cursor;
+	}
+	
+	/**
+	 * This method returns the number of activities the task has completed.
+	 * @return an int value that represents the number of activities completed.
+	 */
+	public int getActivitiesDone() {
+		return cursor;
 	}
 	
 	/**
@@ -81,7 +213,7 @@ public class Task {
 	 * This method returns the numbering of the task, 
 	 *  i.e. Task 1 has taskNum of 1. 
 	 *    Then 1 is the numbering of the task so 1 gets returned.
-	 * @return taskNum,an int value that represents the numbering of the task.
+	 * @return taskNum, an int value that represents the numbering of the task.
 	 */
 	public int getTaskNum() {
 		return taskNum;
@@ -102,6 +234,15 @@ public class Task {
 		waitTime ++;
 	}
 	
+	/**
+	 * This method increases the waiting time of the task by the given number of units.
+	 * It is used when several idle cycles are skipped at once.
+	 * @param cycles, an int value that represents the number of cycles the task waited.
+	 */
+	public void increaseWaitTime(int cycles) {
+		waitTime += cycles;
+	}
+	
 	/**
 	 * This method returns the delay counter of the task for request activity.
 	 * @return delayForRequest, an int value that represents the delay counter of the task for request activity.
@@ -117,6 +258,15 @@ public class Task {
 		delayForRequest ++;
 	}
 	
+	/**
+	 * This method increase the delay counter for the request activity by the given number of units.
+	 * It is used when several idle cycles are skipped at once.
+	 * @param cycles, an int value that represents the number of cycles the task was delayed.
+	 */
+	public void increaseRequestdelay(int cycles) {
+		delayForRequest += cycles;
+	}
+	
 	/**
 	 * This method resets the delay counter for the request activity to 0. 
 	 */
@@ -139,6 +289,15 @@ public class Task {
 		delayForRelease ++;
 	}
 	
+	/**
+	 * This method increase the delay counter for the release activity by the given number of units.
+	 * It is used when several idle cycles are skipped at once.
+	 * @param cycles, an int value that represents the number of cycles the task was delayed.
+	 */
+	public void increaseReleasedelay(int cycles) {
+		delayForRelease += cycles;
+	}
+	
 	/**
 	 * This method resets the delay counter for the release activity to 0. 
 	 */
@@ -162,10 +321,12 @@ public class Task {
 	}
 	
 	/**
-	 * This method resets the delay counter for the terminate activity to 0. 
+	 * This method increase the delay counter for the terminate activity by the given number of units.
+	 * It is used when several idle cycles are skipped at once.
+	 * @param cycles, an int value that represents the number of cycles the task was delayed.
 	 */
-	public void resetTerminatedelay() {
-		delayForTerminate = 0;
+	public void increaseTerminatedelay(int cycles) {
+		delayForTerminate += cycles;
 	}
 	
 	/**
@@ -209,46 +370,122 @@ public class Task {
 	}
 	
 	/**
-	 * This method returns HashMap that contains (Integer,Integer) pairs, which represent the resources held by the task.
-	 * @return resourcesHeld, a HashMap that contains <Integer,Integer> pairs: (the index of the resource held, the number of units held) 
+	 * This method returns the number of units of the resource type 'r' held by the task.
+	 * @param r, the index of the resource type.
+	 * @return the number of units held.
 	 */
-	public HashMap<Integer,Integer> getResourcesHeld() {
-		return resourcesHeld;
+	public int getUnitsHeld(int r) {
+		return units[r];
 	}
 	
 	/**
-	 * This method sets resourcesHeld, the list of resources held by the task, as the HashMap<Integer,Integer> 'l'.
-	 * In context of this project, the 'l' would actually represent the modified list of resources held by the task.
-	 * @param l, a HashMap of <Integer,Integer> that represent a list of resources held by the task.
+	 * This method sets the number of units of the resource type 'r' held by the task.
+	 * @param r, the index of the resource type.
+	 * @param units, the number of units held.
 	 */
-	public void setResourcesHeld(HashMap<Integer,Integer> l) {
-		resourcesHeld = l;
+	public void setUnitsHeld(int r, int units) {
+		this.units[r] = units;
 	}
 	
 	/**
-	 * This method returns HashMap that contains (Integer,Integer) pairs, which represent the resources claimed by the task.
-	 * @return claims, a HashMap that contains <Integer,Integer> pairs: (the index of the resource claimed, the number of units claimed)
+	 * This method adds 'units' to the number of units of the resource type 'r' held by the task.
+	 * @param r, the index of the resource type.
+	 * @param units, the number of units to add, which is negative if units are taken away.
+	 * @return the new number of units held.
 	 */
-	public HashMap<Integer,Integer> getClaims() {
-		return claims;
+	public int adjustUnitsHeld(int r, int units) {
+		return this.units[r] += units;
 	}
 	
 	/**
-	 * This method sets claims, the list of resources claimed by the task, as the HashMap<Integer,Integer> 'c'.
-	 * In context of this project, the 'c' would actually represent the modified list of resources claimed by the task.
-	 * @param c, a HashMap of <Integer,Integer> that represent a list of resources claimed by the task.
+	 * This method returns the number of units of the resource type 'r' claimed by the task (and not requested yet).
+	 * @param r, the index of the resource type.
+	 * @return the number of units claimed.
 	 */
-	public void setClaims(HashMap<Integer,Integer> c) {
-		claims = c;
+	public int getClaim(int r) {
+		return units[numResources + r];
+	}
+	
+	/**
+	 * This method sets the number of units of the resource type 'r' claimed by the task.
+	 * @param r, the index of the resource type.
+	 * @param units, the number of units claimed.
+	 */
+	public void setClaim(int r, int units) {
+		this.units[numResources + r] = units;
+	}
+	
+	/**
+	 * This method adds 'units' to the number of units of the resource type 'r' claimed by the task.
+	 * @param r, the index of the resource type.
+	 * @param units, the number of units to add, which is negative if units have been requested.
+	 * @return the new number of units claimed.
+	 */
+	public int adjustClaim(int r, int units) {
+		return this.units[numResources + r] += units;
+	}
+	
+	/**
+	 * This method returns the number of resource types.
+	 * @return the number of resource types.
+	 */
+	public int getNumResources() {
+		return numResources;
+	}
+	
+	/**
+	 * This method writes everything about the task that changes while it runs to 'out', for a checkpoint:
+	 * 	the position of its current activity, its counters, and the units it holds and claims.
+	 * The activities themselves are not written, since they come from the workload.
+	 * @param out, where the state is written.
+	 * @throws IOException if the state cannot be written.
+	 */
+	void writeState(DataOutput out) throws IOException {
+		out.writeInt(cursor);
+		out.writeInt(waitTime);
+		out.writeInt(delayForRequest);
+		out.writeInt(delayForRelease);
+		out.writeInt(delayForTerminate);
+		out.writeInt(timeTerminated);
+		out.writeBoolean(taskAborted);
+		for (int r = 0; r < numResources; r ++) {
+			out.writeInt(units[r]);
+			out.writeInt(units[numResources + r]);
+		}
+	}
+
+	/**
+	 * This method reads back the state written by writeState(), so the task is where it was when the checkpoint was made.
+	 * @param in, where the state is read from.
+	 * @throws IOException if the state cannot be read, or its position is past the activities of the task.
+	 */
+	void readState(DataInput in) throws IOException {
+		int position = in.readInt();
+		if (position < 0 || position > numActivities) {
+			throw new IOException("Task " + getTaskNum() + " has no activity " + position);
+		}
+		cursor = position;
+		offset = start + position * RECORD_SIZE;
+		waitTime = in.readInt();
+		delayForRequest = in.readInt();
+		delayForRelease = in.readInt();
+		delayForTerminate = in.readInt();
+		timeTerminated = in.readInt();
+		taskAborted = in.readBoolean();
+		for (int r = 0; r < numResources; r ++) {
+			units[r] = in.readInt();
+			units[numResources + r] = in.readInt();
+		}
 	}
 	
 	/**
-	 * This method prints the output for the task as standard output, System.out.println.
+	 * This method prints the output for the task to 'out', i.e. standard output, System.out.
 	 * The output differs depending on whether the task has been aborted or not.
 	 * If the task has been aborted, a "aborted" message is printed.
 	 * Otherwise, the time taken, the waiting time, and the percentage of time spent waiting is printed in a formatted way.
+	 * @param out, the PrintStream the output is written to.
 	 */
-	public void printTaskInfo() {
+	public void printTaskInfo(PrintStream out) {
 		//first store the task number to the string, 'taskResult'
 		String taskResult = String.format("Task %d", getTaskNum());
 		//if the task has been aborted
@@ -259,8 +496,8 @@ public class Task {
 			//store the time taken, the waiting time, and the percentage of time spent waiting to taskResult
 			taskResult += String.format("%8d %4d %5d%s",timeTerminated, waitTime, Math.round((waitTime/(timeTerminated * 1.0)) * 100),"%");			
 		}
-		//prints taskResult, the task's result information, as standard output
-		System.out.println(taskResult);	
+		//prints taskResult, the task's result information, to 'out'
+		out.println(taskResult);	
 	}
 
 }
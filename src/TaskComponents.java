@@ -0,0 +1,196 @@
+import java.util.*;
+
+/**
+ * The TaskComponents class splits the tasks of a workload into components that can never affect each other under the Optimistic resource manager.
+ * The Optimistic resource manager does not look at the claims, so a task only affects the others through the units of the resource types
+ * 	it requests and releases (apart from deadlock detection, see ComponentSimulation).
+ * 	Two tasks are in the same component if they are linked by a chain of tasks, each of which requests or releases a resource type the next one does,
+ * 	i.e. the components are the connected components of the bipartite graph between the tasks and the resource types.
+ * The components are found in one pass over the activities, with a union-find over the resource types:
+ * 	all the resource types a task requests or releases are joined into one set, and each set of resource types is a component.
+ * 	The tasks that request and release nothing can never affect anyone, so they are put together in one component.
+ * The components are numbered in the order of their lowest task, and the tasks of each component are in the order of their index.
+ *
+ * @author gayeonpark
+ *
+ */
+public class TaskComponents {
+
+	private int[][] components; //represents the indices of the tasks of each component
+	private long[] weights; //represents the number of activities of the tasks of each component
+
+	/**
+	 * This constructor creates the components given.
+	 * @param components is the indices of the tasks of each component
+	 * @param weights is the number of activities of each component
+	 */
+	private TaskComponents(int[][] components, long[] weights) {
+		this.components = components;
+		this.weights = weights;
+	}
+
+	/**
+	 * This method finds the components of the tasks of the workload 'workload'.
+	 * @param workload is the parsed input
+	 * @return the TaskComponents
+	 */
+	static TaskComponents of(Workload workload) {
+		CompiledTrace trace = workload.getTrace();
+		int numTasks = workload.getNumTasks();
+		int numResources = workload.getNumResources();
+
+		//every resource type starts in a set of its own
+		int[] parent = new int[numResources];
+		for (int r = 0; r < numResources; r ++) {
+			parent[r] = r;
+		}
+
+		//join the resource types of each task, and remember one of them for the task (or -1 if it has none)
+		int[] resourceOf = new int[numTasks];
+		long[] activitiesOf = new long[numTasks];
+		for (int t = 0; t < numTasks; t ++) {
+			int first = -1; //represents the set of the first resource type the task requests or releases
+			int traceIndex = workload.getTraceIndex(t);
+			long end = trace.getRecordIndex(traceIndex + 1);
+			for (long record = trace.getRecordIndex(traceIndex); record < end; record ++) {
+				byte type = trace.getRecordType(record);
+				if (type == Task.REQUEST || type == Task.RELEASE) {
+					int r = find(parent, trace.getRecordResource(record));
+					if (first < 0) {
+						first = r;
+					} else if (r != first) {
+						parent[r] = first;
+					}
+				}
+			}
+			resourceOf[t] = first;
+			activitiesOf[t] = end - trace.getRecordIndex(traceIndex);
+		}
+
+		//number the components in the order of their lowest task
+		int[] componentOfSet = new int[numResources];
+		Arrays.fill(componentOfSet, -1);
+		int noResources = -1; //represents the component of the tasks without resource types
+		int numComponents = 0;
+		int[] componentOf = resourceOf; //the resource type of a task is not needed once its component is known
+		for (int t = 0; t < numTasks; t ++) {
+			if (resourceOf[t] < 0) {
+				if (noResources < 0) {
+					noResources = numComponents ++;
+				}
+				componentOf[t] = noResources;
+			} else {
+				int set = find(parent, resourceOf[t]);
+				if (componentOfSet[set] < 0) {
+					componentOfSet[set] = numComponents ++;
+				}
+				componentOf[t] = componentOfSet[set];
+			}
+		}
+
+		//put the tasks of each component together
+		int[] sizes = new int[numComponents];
+		long[] weights = new long[numComponents];
+		for (int t = 0; t < numTasks; t ++) {
+			sizes[componentOf[t]] ++;
+			weights[componentOf[t]] += activitiesOf[t];
+		}
+		int[][] components = new int[numComponents][];
+		for (int c = 0; c < numComponents; c ++) {
+			components[c] = new int[sizes[c]];
+			sizes[c] = 0;
+		}
+		for (int t = 0; t < numTasks; t ++) {
+			int c = componentOf[t];
+			components[c][sizes[c] ++] = t;
+		}
+		return new TaskComponents(components, weights);
+	}
+
+	/**
+	 * This method returns the number of components.
+	 * @return the number of components
+	 */
+	int size() {
+		return components.length;
+	}
+
+	/**
+	 * This method returns the tasks of the component 'c'.
+	 * @param c is the number of the component
+	 * @return the indices of the tasks, in increasing order, which must not be changed
+	 */
+	int[] get(int c) {
+		return components[c];
+	}
+
+	/**
+	 * This method packs the components into at most 'maxGroups' groups of about the same number of activities,
+	 * 	so that each group can be simulated on its own thread and the threads finish at about the same time.
+	 * The components are taken from the largest to the smallest, and each one is put into the group with the fewest activities so far.
+	 * Since no two components affect each other, neither do two groups, and the tasks of a group behave just as they do among all the tasks.
+	 * @param maxGroups is the largest number of groups
+	 * @return the indices of the tasks of each group, in increasing order; every group has at least one task
+	 */
+	int[][] pack(int maxGroups) {
+		int numGroups = Math.min(Math.max(1, maxGroups), components.length);
+		Integer[] order = new Integer[components.length];
+		for (int c = 0; c < order.length; c ++) {
+			order[c] = c;
+		}
+		Arrays.sort(order, (a, b) -> Long.compare(weights[b], weights[a]));
+
+		//the groups by the number of activities in them so far, and then by their number
+		long[] load = new long[numGroups];
+		PriorityQueue<Integer> lightest = new PriorityQueue<>(
+				(a, b) -> load[a] != load[b] ? Long.compare(load[a], load[b]) : Integer.compare(a, b));
+		for (int g = 0; g < numGroups; g ++) {
+			lightest.add(g);
+		}
+		int[] sizes = new int[numGroups];
+		int[] groupOf = new int[components.length];
+		for (int c: order) {
+			int g = lightest.poll();
+			groupOf[c] = g;
+			sizes[g] += components[c].length;
+			load[g] += weights[c];
+			lightest.add(g);
+		}
+
+		int[][] groups = new int[numGroups][];
+		for (int g = 0; g < numGroups; g ++) {
+			groups[g] = new int[sizes[g]];
+			sizes[g] = 0;
+		}
+		for (int c = 0; c < components.length; c ++) {
+			int g = groupOf[c];
+			System.arraycopy(components[c], 0, groups[g], sizes[g], components[c].length);
+			sizes[g] += components[c].length;
+		}
+		for (int[] group: groups) {
+			Arrays.sort(group);
+		}
+		return groups;
+	}
+
+	/**
+	 * This method returns the set of the resource type 'r' in the union-find 'parent',
+	 * 	and points every resource type on the way straight at the set, so the next find is quicker.
+	 * @param parent is the parent of each resource type; a resource type that is its own parent is the name of its set
+	 * @param r is the index of the resource type
+	 * @return the resource type naming the set
+	 */
+	private static int find(int[] parent, int r) {
+		int root = r;
+		while (parent[root] != root) {
+			root = parent[root];
+		}
+		while (parent[r] != root) {
+			int next = parent[r];
+			parent[r] = root;
+			r = next;
+		}
+		return root;
+	}
+
+}
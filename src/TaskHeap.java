@@ -0,0 +1,147 @@
+import java.util.*;
+
+/**
+ * The TaskHeap class is a binary min-heap of tasks, each with an int value, ordered by the value and then by the index of the task.
+ * Each entry is kept as one primitive key, so nothing is boxed, and the position of each task in the heap is remembered,
+ * 	so a task can be taken out of the middle of the heap as well.
+ * Several heaps can share the array of positions, as long as a task is in at most one of them at a time.
+ *
+ * @author gayeonpark
+ *
+ */
+public class TaskHeap {
+
+	private long[] heap; //represents the entries, as (value, task) keys in a binary min-heap
+	private int size; //represents the number of entries
+	private int[] position; //represents the position of each task in the heap it is in, or -1 if it is in none
+
+	/**
+	 * This constructor creates an empty heap for 'numTasks' tasks, with an array of positions of its own.
+	 * @param numTasks is the number of tasks
+	 */
+	TaskHeap(int numTasks) {
+		this(newPositions(numTasks));
+	}
+
+	/**
+	 * This constructor creates an empty heap that shares the array of positions 'position' with other heaps.
+	 * @param position is the position of each task in the heap it is in, or -1 if it is in none
+	 */
+	TaskHeap(int[] position) {
+		heap = new long[8];
+		size = 0;
+		this.position = position;
+	}
+
+	/**
+	 * This method creates an array of positions for 'numTasks' tasks, none of which is in a heap yet.
+	 * @param numTasks is the number of tasks
+	 * @return the array of positions
+	 */
+	static int[] newPositions(int numTasks) {
+		int[] position = new int[numTasks];
+		Arrays.fill(position, -1);
+		return position;
+	}
+
+	/**
+	 * This method tells if the heap has no entry.
+	 * @return true if the heap is empty
+	 */
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	/**
+	 * This method returns the smallest value in the heap.
+	 * @return the value of the first entry, which must exist
+	 */
+	public int peekValue() {
+		return (int) (heap[0] >> 32);
+	}
+
+	/**
+	 * This method adds the task 't' with the value 'value'. The task must not be in a heap sharing the positions.
+	 * @param t is the index of the task
+	 * @param value is the value of the task
+	 */
+	public void add(int t, int value) {
+		if (size == heap.length) {
+			heap = Arrays.copyOf(heap, heap.length * 2);
+		}
+		siftUp(size ++, ((long) value << 32) | t);
+	}
+
+	/**
+	 * This method takes the task with the smallest value out of the heap.
+	 * @return the index of the task, which must exist
+	 */
+	public int poll() {
+		int t = (int) heap[0];
+		remove(t);
+		return t;
+	}
+
+	/**
+	 * This method takes the task 't' out of the heap, if it is in it.
+	 * @param t is the index of the task
+	 */
+	public void remove(int t) {
+		int i = position[t];
+		if (i < 0 || i >= size || (int) heap[i] != t) {
+			return;
+		}
+		position[t] = -1;
+
+		//the last entry of the heap takes the place of the removed one, and is moved up or down to where it belongs
+		long last = heap[-- size];
+		if (i < size) {
+			siftDown(siftUp(i, last), last);
+		}
+	}
+
+	/**
+	 * This method moves the entry 'key', which is to be placed at the position 'i', up past every parent with a larger key, and places it there.
+	 * @param i is the position the entry is placed at
+	 * @param key is the key of the entry
+	 * @return the position the entry is placed at
+	 */
+	private int siftUp(int i, long key) {
+		while (i > 0 && heap[(i - 1) / 2] > key) {
+			place(i, heap[(i - 1) / 2]);
+			i = (i - 1) / 2;
+		}
+		place(i, key);
+		return i;
+	}
+
+	/**
+	 * This method moves the entry 'key', which is placed at the position 'i', down past every child with a smaller key.
+	 * @param i is the position of the entry
+	 * @param key is the key of the entry
+	 */
+	private void siftDown(int i, long key) {
+		for (int child = 2 * i + 1; child < size; child = 2 * i + 1) {
+			if (child + 1 < size && heap[child + 1] < heap[child]) {
+				child ++;
+			}
+			if (heap[child] >= key) {
+				break;
+			}
+			place(i, heap[child]);
+			i = child;
+		}
+		place(i, key);
+	}
+
+	/**
+	 * This method puts the entry 'key' at the position 'i', and remembers the position for its task.
+	 * @param i is the position
+	 * @param key is the key of the entry
+	 */
+	private void place(int i, long key) {
+		heap[i] = key;
+		position[(int) key] = i;
+	}
+
+}
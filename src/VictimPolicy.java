@@ -0,0 +1,175 @@
+import java.util.*;
+import java.util.function.*;
+
+/**
+ * The VictimPolicy interface chooses which task the Optimistic resource manager aborts to resolve a deadlock.
+ * The manager keeps aborting the task chosen (and checking if the deadlock is gone) until the other tasks can go on,
+ * 	so a policy only ever picks one task at a time, among the tasks that are deadlocked
+ * 	(or among every task still running, if deadlocks are only detected when no task can make progress).
+ * Every policy breaks ties by the lowest index, so the same input always leads to the same aborts.
+ * 	LOWEST_INDEX is the policy of the lab, and the default.
+ * 	FEWEST_UNITS_HELD aborts the task holding the fewest units in total, so the least work is thrown away.
+ * 	LEAST_PROGRESS aborts the task that has completed the fewest activities.
+ * 	YOUNGEST aborts the highest numbered task, which is the last one to be admitted.
+ * 	UNBLOCKS_MOST aborts the task whose units would let the most of the other candidates' requests be granted,
+ * 	 so the deadlock tends to be broken with as few aborts as possible.
+ *
+ * @author gayeonpark
+ *
+ */
+public interface VictimPolicy {
+
+	//the policies, by the names they are given on the command line
+	VictimPolicy LOWEST_INDEX = (candidates, tasks, available, returned) -> candidates.nextSetBit(0);
+	VictimPolicy FEWEST_UNITS_HELD = (candidates, tasks, available, returned) -> lowestScore(candidates, tasks, VictimPolicy::unitsHeld);
+	VictimPolicy LEAST_PROGRESS = (candidates, tasks, available, returned) -> lowestScore(candidates, tasks, t -> t.getActivitiesDone());
+	VictimPolicy YOUNGEST = (candidates, tasks, available, returned) -> candidates.length() - 1;
+	VictimPolicy UNBLOCKS_MOST = VictimPolicy::unblocksMost;
+
+	/**
+	 * This method chooses the task to abort.
+	 * @param candidates is the indices of the tasks that can be aborted, which is never empty and must not be changed
+	 * @param tasks is the list of all the tasks, ordered by their index
+	 * @param available is the units of each resource type available
+	 * @param returned is the units of each resource type returned, which are available next cycle
+	 * @return the index of the task to abort, which is one of the candidates
+	 */
+	int choose(BitSet candidates, ArrayList<Task> tasks, int[] available, int[] returned);
+
+	/**
+	 * This method returns the policy with the name given.
+	 * @param name is "lowest-index", "fewest-units-held", "least-progress", "youngest", or "unblocks-most"
+	 * @return the VictimPolicy
+	 * @throws IllegalArgumentException if there is no policy with the name
+	 */
+	static VictimPolicy forName(String name) {
+		switch (name) {
+		case "lowest-index": return LOWEST_INDEX;
+		case "fewest-units-held": return FEWEST_UNITS_HELD;
+		case "least-progress": return LEAST_PROGRESS;
+		case "youngest": return YOUNGEST;
+		case "unblocks-most": return UNBLOCKS_MOST;
+		default: throw new IllegalArgumentException("unknown victim policy: " + name);
+		}
+	}
+
+	/**
+	 * This method returns the candidate with the lowest score, and the lowest index among the ones with the same score.
+	 * @param candidates is the indices of the tasks that can be aborted
+	 * @param tasks is the list of all the tasks, ordered by their index
+	 * @param score gives the score of a task
+	 * @return the index of the task
+	 */
+	private static int lowestScore(BitSet candidates, ArrayList<Task> tasks, ToLongFunction<Task> score) {
+		int best = -1;
+		long bestScore = Long.MAX_VALUE;
+		for (int i = candidates.nextSetBit(0); i >= 0; i = candidates.nextSetBit(i + 1)) {
+			long s = score.applyAsLong(tasks.get(i));
+			if (s < bestScore) {
+				best = i;
+				bestScore = s;
+			}
+		}
+		return best;
+	}
+
+	/**
+	 * This method returns the total number of units the task 't' holds.
+	 * @param t is the task
+	 * @return the units held of every resource type, added up
+	 */
+	private static long unitsHeld(Task t) {
+		long held = 0;
+		for (int r = 0; r < t.getNumResources(); r ++) {
+			held += t.getUnitsHeld(r);
+		}
+		return held;
+	}
+
+	/**
+	 * This method chooses the candidate whose units would let the most of the other candidates' pending requests be granted.
+	 * For each resource type, the units each candidate still needs beyond the free units are sorted,
+	 * 	so the number of requests a candidate's units would satisfy is found by a binary search for each resource type it holds.
+	 * Among the candidates that satisfy the same number of requests, the one holding the fewest units is chosen.
+	 * @param candidates is the indices of the tasks that can be aborted
+	 * @param tasks is the list of all the tasks, ordered by their index
+	 * @param available is the units of each resource type available
+	 * @param returned is the units of each resource type returned, which are available next cycle
+	 * @return the index of the task
+	 */
+	private static int unblocksMost(BitSet candidates, ArrayList<Task> tasks, int[] available, int[] returned) {
+		int numResources = available.length;
+
+		//the units each pending request of a candidate needs beyond the free units, grouped by resource type
+		int[] counts = new int[numResources];
+		for (int i = candidates.nextSetBit(0); i >= 0; i = candidates.nextSetBit(i + 1)) {
+			Task t = tasks.get(i);
+			if (t.getActivityType() == Task.REQUEST) {
+				counts[t.getActivityResource()] ++;
+			}
+		}
+		int[][] needs = new int[numResources][];
+		for (int r = 0; r < numResources; r ++) {
+			needs[r] = new int[counts[r]];
+			counts[r] = 0;
+		}
+		for (int i = candidates.nextSetBit(0); i >= 0; i = candidates.nextSetBit(i + 1)) {
+			Task t = tasks.get(i);
+			if (t.getActivityType() == Task.REQUEST) {
+				int r = t.getActivityResource();
+				needs[r][counts[r] ++] = t.getActivityAmount() - available[r] - returned[r];
+			}
+		}
+		for (int r = 0; r < numResources; r ++) {
+			Arrays.sort(needs[r]);
+		}
+
+		int best = -1;
+		long bestScore = Long.MIN_VALUE;
+		for (int i = candidates.nextSetBit(0); i >= 0; i = candidates.nextSetBit(i + 1)) {
+			Task t = tasks.get(i);
+			long unblocked = 0;
+			for (int r = 0; r < numResources; r ++) {
+				int held = t.getUnitsHeld(r);
+				if (held > 0) {
+					unblocked += countAtMost(needs[r], held);
+				}
+			}
+			//the task's own request does not count, since it is aborted
+			if (t.getActivityType() == Task.REQUEST) {
+				int r = t.getActivityResource();
+				if (t.getActivityAmount() - available[r] - returned[r] <= t.getUnitsHeld(r)) {
+					unblocked --;
+				}
+			}
+			//the more requests unblocked the better, and then the fewer units thrown away the better
+			long score = (unblocked << 32) - unitsHeld(t);
+			if (score > bestScore) {
+				best = i;
+				bestScore = score;
+			}
+		}
+		return best;
+	}
+
+	/**
+	 * This method counts the values of the sorted array 'sorted' that are at most 'limit'.
+	 * @param sorted is an array in ascending order
+	 * @param limit is the largest value counted
+	 * @return the number of values that are at most 'limit'
+	 */
+	private static int countAtMost(int[] sorted, int limit) {
+		int low = 0;
+		int high = sorted.length;
+		while (low < high) {
+			int middle = (low + high) >>> 1;
+			if (sorted[middle] <= limit) {
+				low = middle + 1;
+			} else {
+				high = middle;
+			}
+		}
+		return low;
+	}
+
+}
@@ -0,0 +1,156 @@
+import java.io.*;
+import java.util.*;
+
+/**
+ * The Workload class contains the parsed input: the number of tasks, the units present of each resource type,
+ * 	and every activity in the order it was read.
+ * A Workload is never changed after it has been parsed, so it can be shared by any number of managers (on any number of threads),
+ * 	each of which creates its own Tasks from it with createTasks().
+ * 	The activities are kept once, in the workload; a Task only holds what changes while a manager runs it (its cursor, counters, and units).
+ * The input can be in the text format, or a trace compiled from it (see CompiledTrace).
+ * The activities read from text go straight into a compiled trace in memory, so a workload always reads its activities from a compiled trace.
+ *
+ * @author gayeonpark
+ *
+ */
+public class Workload {
+
+	private int numTasks; //represents the number of Tasks in the system
+	private int numResources; //represents the number of resource types
+	private int[] units; //represents the number of units present of each resource type
+	private CompiledTrace trace; //represents the activities grouped by task
+	private int[] taskIndices; //represents the indices in the trace of the tasks of the workload, or null if it has every task of the trace
+
+	/**
+	 * This constructor creates a workload from a compiled trace.
+	 * @param trace is the CompiledTrace
+	 */
+	Workload(CompiledTrace trace) {
+		this.numTasks = trace.getNumTasks();
+		this.units = trace.getUnits();
+		this.numResources = units.length;
+		this.trace = trace;
+	}
+
+	/**
+	 * This constructor creates a workload of some of the tasks of a compiled trace.
+	 * @param trace is the CompiledTrace
+	 * @param taskIndices is the indices of the tasks in the trace, in increasing order
+	 */
+	private Workload(CompiledTrace trace, int[] taskIndices) {
+		this(trace);
+		this.numTasks = taskIndices.length;
+		this.taskIndices = taskIndices;
+	}
+
+	/**
+	 * This method reads the input from the file given.
+	 * The file begins with T (the number of tasks), R (the number of resource types), and R values (the number of units present of each resource type),
+	 * 	followed by the activities, each of which is a String followed by four unsigned integers.
+	 * The tokens are decoded by an InputReader straight into the records of a compiled trace in memory (see CompiledTrace.read()),
+	 * 	without creating an object per token or keeping the activities anywhere else.
+	 * If the file is a compiled trace instead, it is memory-mapped rather than read.
+	 * @param input is the file containing the input
+	 * @return the parsed Workload
+	 * @throws FileNotFoundException if the file does not exist
+	 * @throws IOException if the file cannot be read
+	 * @throws IllegalArgumentException if an activity belongs to a task-number, or is of a resource type, that is out of range,
+	 * 	or a task has no activities or does not end with a terminate, or a token is missing or malformed
+	 */
+	static Workload parse(File input) throws IOException {
+		if (!input.isFile()) {
+			throw new FileNotFoundException(input.getPath());
+		}
+		if (CompiledTrace.isCompiled(input)) {
+			return new Workload(CompiledTrace.load(input));
+		}
+		return new Workload(CompiledTrace.read(input));
+	}
+
+	/**
+	 * This method returns the number of tasks.
+	 * @return numTasks, an int value that represents the number of tasks.
+	 */
+	public int getNumTasks() {
+		return numTasks;
+	}
+
+	/**
+	 * This method returns the number of resource types.
+	 * @return numResources, an int value that represents the number of resource types.
+	 */
+	public int getNumResources() {
+		return numResources;
+	}
+
+	/**
+	 * This method returns the number of units present of the resource type with index 'r'.
+	 * @param r is the index of the resource type, i.e. resource type 1 has an index of 0
+	 * @return the number of units present
+	 */
+	public int getUnits(int r) {
+		return units[r];
+	}
+
+	/**
+	 * This method creates a new list of Tasks holding the activities of the workload, ordered by the task's index.
+	 * The initial claim of every 'initiate' activity is saved as the claim of the task for its resource type.
+	 * The activities of each Task are read from the compiled trace, which is shared by all the Tasks ever created.
+	 * @return an ArrayList of new Tasks
+	 */
+	public ArrayList<Task> createTasks() {
+		return taskIndices == null ? trace.createTasks() : trace.createTasks(taskIndices);
+	}
+
+	/**
+	 * This method returns a workload of the tasks given only, with the same units of each resource type.
+	 * 	The activities are not copied; the new workload reads them from the same compiled trace.
+	 * 	Its tasks have the indices 0, 1, ... in the order given, but keep their task-numbers,
+	 * 	 so the results of a manager run on it read the same as in the whole workload.
+	 * @param tasks is the indices of the tasks, in increasing order
+	 * @return the Workload
+	 */
+	Workload subset(int[] tasks) {
+		int[] indices = new int[tasks.length];
+		for (int i = 0; i < tasks.length; i ++) {
+			indices[i] = getTraceIndex(tasks[i]);
+		}
+		return new Workload(trace, indices);
+	}
+
+	/**
+	 * This method returns a workload of the same tasks, with other units of each resource type.
+	 * 	The activities are not copied; the new workload reads them from the same compiled trace.
+	 * @param units is the number of units present of each resource type
+	 * @return the Workload
+	 * @throws IllegalArgumentException if there are not as many values as resource types
+	 */
+	Workload withUnits(int[] units) {
+		if (units.length != numResources) {
+			throw new IllegalArgumentException("expected the units of " + numResources + " resource types but got " + units.length);
+		}
+		Workload workload = new Workload(trace);
+		workload.numTasks = numTasks;
+		workload.taskIndices = taskIndices;
+		workload.units = units.clone();
+		return workload;
+	}
+
+	/**
+	 * This method returns the compiled trace the activities are read from, which may have more tasks than the workload (see subset()).
+	 * @return the CompiledTrace
+	 */
+	CompiledTrace getTrace() {
+		return trace;
+	}
+
+	/**
+	 * This method returns the index in the compiled trace of the task with index 't'.
+	 * @param t is the index of the task in the workload
+	 * @return the index of the task in getTrace()
+	 */
+	int getTraceIndex(int t) {
+		return taskIndices == null ? t : taskIndices[t];
+	}
+
+}